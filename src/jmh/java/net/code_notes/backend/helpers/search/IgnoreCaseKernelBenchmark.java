@@ -0,0 +1,110 @@
+package net.code_notes.backend.helpers.search;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the scalar and the vector {@link IgnoreCaseKernel} on 64 KB code inputs, like {@code noteInput.value}. The search word is
+ * only contained at the very end of each code input, sothat every op scans the whole input.<p>
+ *
+ * Run with {@code ./gradlew jmh -PjmhIncludes=IgnoreCaseKernelBenchmark}. The vector kernel fails to set up on cpus with too few
+ * vector lanes.
+ *
+ * @since 1.2.0
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IgnoreCaseKernelBenchmark {
+
+    private static final long SEED = 42;
+
+    private static final int NUM_CODE_INPUTS = 4;
+
+    private static final int CODE_INPUT_LENGTH = 64 * 1024;
+
+    /** Typical words of code, none of them containing a search word */
+    private static final String[] WORDS = {
+        "linux", "config", "docker", "compose", "nginx", "proxy", "searchInput", "useState", "git", "rebase", "public", "static",
+        "void", "main", "String[]", "args", "return", "const", "=", "{", "}", "()", "chmod", "755", "SELECT", "FROM", "WHERE", "stra\u00DFe"
+    };
+
+    @Param({ "scalar", "vector" })
+    private String kernel;
+
+    /** Some with a first and last char that is common in the code inputs */
+    @Param({ "autostart", "getElementById", "configuration" })
+    private String searchWord;
+
+    private IgnoreCaseKernel ignoreCaseKernel;
+
+    private String[] codeInputs;
+
+    /** {@link #codeInputs} in upper case, char by char sothat the length does not change */
+    private String[] upperCaseCodeInputs;
+
+
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+
+        this.ignoreCaseKernel = "vector".equals(this.kernel) ? new VectorIgnoreCaseKernel() : new ScalarIgnoreCaseKernel();
+
+        this.codeInputs = new String[NUM_CODE_INPUTS];
+        this.upperCaseCodeInputs = new String[NUM_CODE_INPUTS];
+        for (int i = 0; i < NUM_CODE_INPUTS; i++) {
+            String searchWord = this.searchWord.toUpperCase();
+            this.codeInputs[i] = randomCode(random, CODE_INPUT_LENGTH - searchWord.length() - 1) + " " + searchWord;
+            this.upperCaseCodeInputs[i] = toUpperCaseChars(this.codeInputs[i]);
+        }
+    }
+
+    @Benchmark
+    public void indexOfIgnoreCase(Blackhole blackhole) {
+        for (String codeInput : this.codeInputs)
+            blackhole.consume(this.ignoreCaseKernel.indexOfIgnoreCase(codeInput, this.searchWord));
+    }
+
+    @Benchmark
+    public void equalsIgnoreCase(Blackhole blackhole) {
+        for (int i = 0; i < NUM_CODE_INPUTS; i++)
+            blackhole.consume(this.ignoreCaseKernel.equalsIgnoreCase(this.codeInputs[i], this.upperCaseCodeInputs[i]));
+    }
+
+    private static String toUpperCaseChars(String str) {
+        char[] chars = str.toCharArray();
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = Character.toUpperCase(chars[i]);
+
+        return new String(chars);
+    }
+
+    /**
+     * @param random
+     * @param maxLength max number of chars
+     * @return random words separated by a single whitespace, or by a line break every few words
+     */
+    private static String randomCode(Random random, int maxLength) {
+        StringBuilder code = new StringBuilder();
+
+        while (true) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (code.length() + word.length() + 1 > maxLength)
+                break;
+
+            if (!code.isEmpty())
+                code.append(random.nextInt(8) == 0 ? "\n" : " ");
+
+            code.append(word);
+        }
+
+        return code.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package net.code_notes.backend.helpers.search;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the search scoring engine over synthetic corpora: short note titles, 64 KB code inputs and search phrases of one
+ * up to four words. The corpora are generated from a fixed seed sothat runs are comparable.<p>
+ *
+ * {@code accumulateAdjacentMatches} is private and measured through the multi word searches of {@link #matchPhrasesCodeInputs(Blackhole)},
+ * where the code inputs contain thousands of matches per search word and some of them adjacent.<p>
+ *
+ * Run with {@code ./gradlew jmh}, the gc profiler reports the allocation rate per op as {@code gc.alloc.rate.norm}.
+ *
+ * @since 1.2.0
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SearchStringUtilsBenchmark {
+
+    private static final long SEED = 42;
+
+    private static final int NUM_TITLES = 1000;
+
+    private static final int NUM_CODE_INPUTS = 4;
+
+    private static final int CODE_INPUT_LENGTH = 64 * 1024;
+
+    /** Typical words of note titles and code, with camel case and special chars */
+    private static final String[] WORDS = {
+        "linux", "autostart", "configuration", "config", "docker", "compose", "nginx", "proxy", "searchInput", "getElementById",
+        "useState", "git", "rebase", "interactive", "ssh", "keygen", "public", "static", "void", "main", "String[]", "args",
+        "return", "const", "let", "=", "{", "}", "()", "ls", "-la", "chmod", "755", "spring", "boot", "application.yml",
+        "mvn", "gradlew", "build", "SELECT", "FROM", "WHERE", "id", "stra\u00DFe", "Autostart", "CONFIGURATION"
+    };
+
+    /** Search phrases, some of them matching adjacent words */
+    @Param({ "autostart", "linux autostart", "autostart configuration linux", "docker compose nginx proxy", "nomatchword" })
+    private String searchPhrase;
+
+    private SearchQuery searchQuery;
+
+    private String[] titles;
+
+    private String[] codeInputs;
+
+    /** {@link #codeInputs} normalized like {@code NoteInputSearchTokens} */
+    private String[] normalizedCodeInputs;
+
+    private String[] searchWords;
+
+    private String[] compareWords;
+
+    private SearchStringMatch[] leftMatches;
+
+    private SearchStringMatch[] rightMatches;
+
+
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+
+        this.searchQuery = SearchQuery.compile(this.searchPhrase);
+
+        this.titles = new String[NUM_TITLES];
+        for (int i = 0; i < NUM_TITLES; i++)
+            this.titles[i] = randomPhrase(random, 3 + random.nextInt(6), Integer.MAX_VALUE);
+
+        this.codeInputs = new String[NUM_CODE_INPUTS];
+        for (int i = 0; i < NUM_CODE_INPUTS; i++)
+            this.codeInputs[i] = randomPhrase(random, Integer.MAX_VALUE, CODE_INPUT_LENGTH);
+
+        this.normalizedCodeInputs = new String[NUM_CODE_INPUTS];
+        for (int i = 0; i < NUM_CODE_INPUTS; i++)
+            this.normalizedCodeInputs[i] = SearchStringUtils.normalize(this.codeInputs[i], CODE_INPUT_LENGTH);
+
+        this.searchWords = new String[NUM_TITLES];
+        this.compareWords = new String[NUM_TITLES];
+        for (int i = 0; i < NUM_TITLES; i++) {
+            this.searchWords[i] = WORDS[random.nextInt(WORDS.length)];
+            this.compareWords[i] = WORDS[random.nextInt(WORDS.length)];
+        }
+
+        this.leftMatches = new SearchStringMatch[NUM_TITLES];
+        this.rightMatches = new SearchStringMatch[NUM_TITLES];
+        for (int i = 0; i < NUM_TITLES; i++) {
+            int compareWordIndex = random.nextInt(8);
+            this.leftMatches[i] = new SearchStringMatch(random.nextInt(3), 5, compareWordIndex, random.nextInt(3), new ApproximateSearchStringMatchRating());
+            this.rightMatches[i] = new SearchStringMatch(random.nextInt(3), 5, compareWordIndex + random.nextInt(2), random.nextInt(8), new ApproximateSearchStringMatchRating());
+        }
+    }
+
+    /**
+     * Includes compiling the search phrase once per compare phrase, like {@link SearchStringUtils#matchPhrases(String, String)} does.
+     */
+    @Benchmark
+    public void matchPhrasesTitlesUncompiled(Blackhole blackhole) {
+        for (String title : this.titles)
+            blackhole.consume(SearchStringUtils.matchPhrases(this.searchPhrase, title));
+    }
+
+    @Benchmark
+    public void matchPhrasesTitles(Blackhole blackhole) {
+        for (String title : this.titles)
+            blackhole.consume(SearchStringUtils.matchPhrases(this.searchQuery, title));
+    }
+
+    @Benchmark
+    public void matchPhrasesCodeInputs(Blackhole blackhole) {
+        for (String codeInput : this.codeInputs)
+            blackhole.consume(SearchStringUtils.matchPhrases(this.searchQuery, codeInput));
+    }
+
+    @Benchmark
+    public void matchNormalizedPhrasesCodeInputs(Blackhole blackhole) {
+        for (String normalizedCodeInput : this.normalizedCodeInputs)
+            blackhole.consume(SearchStringUtils.matchNormalizedPhrases(this.searchQuery, normalizedCodeInput));
+    }
+
+    @Benchmark
+    public void matchWords(Blackhole blackhole) {
+        for (int i = 0; i < this.searchWords.length; i++)
+            blackhole.consume(SearchStringUtils.matchWords(this.searchWords[i], this.compareWords[i]));
+    }
+
+    @Benchmark
+    public void isMatchAdjacent(Blackhole blackhole) {
+        for (int i = 0; i < this.leftMatches.length; i++)
+            blackhole.consume(SearchStringUtils.isMatchAdjacent(this.leftMatches[i], this.rightMatches[i]));
+    }
+
+    /**
+     * @param random
+     * @param maxWords max number of words
+     * @param maxLength max number of chars
+     * @return random words separated by a single whitespace, or by a line break every few words
+     */
+    private static String randomPhrase(Random random, int maxWords, int maxLength) {
+        StringBuilder phrase = new StringBuilder();
+
+        for (int i = 0; i < maxWords; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (phrase.length() + word.length() + 1 > maxLength)
+                break;
+
+            if (i > 0)
+                phrase.append(random.nextInt(8) == 0 ? "\n" : " ");
+
+            phrase.append(word);
+        }
+
+        return phrase.toString();
+    }
+}
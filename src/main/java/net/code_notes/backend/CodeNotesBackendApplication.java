@@ -17,6 +17,9 @@ import lombok.extern.log4j.Log4j2;
 import net.code_notes.backend.helpers.Utils;
 import net.code_notes.backend.services.AppUserService;
 import net.code_notes.backend.services.KeyValueService;
+import net.code_notes.backend.services.NoteInputService;
+import net.code_notes.backend.services.NoteSearchIndexService;
+import net.code_notes.backend.services.NoteService;
 
  
 @SpringBootApplication
@@ -31,6 +34,15 @@ public class CodeNotesBackendApplication {
     @Autowired
     private KeyValueService keyValueService;
 
+    @Autowired
+    private NoteInputService noteInputService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteSearchIndexService noteSearchIndexService;
+
 
     /**
      * NOTE: When adding methods that complement the environment, make sure to add those methods to the 
@@ -61,6 +73,11 @@ public class CodeNotesBackendApplication {
                 
         if (!Utils.isCI())
             this.keyValueService.migrateHtml();
+
+        this.noteInputService.migrateSearchTokens();
+        this.noteService.migrateNormalizedTitles();
+
+        this.noteSearchIndexService.loadSnapshots();
     }
 
     /**
@@ -0,0 +1,32 @@
+package net.code_notes.backend.abstracts;
+
+import java.util.List;
+import java.util.Set;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.helpers.search.SearchQuery;
+
+/**
+ * Candidate stage of the note search. Finds the notes of an app user that might match a search query, which are then rated
+ * in memory by {@code NoteSearchRatingService}.<p>
+ * 
+ * Implementations are chosen by the {@code NOTE_SEARCH_BACKEND} env variable, exactly one of them is a bean at a time.
+ * 
+ * @since 1.2.0
+ */
+public interface NoteSearchBackend {
+
+    /**
+     * @param appUser whose notes to search
+     * @param searchQuery the compiled, non blank search phrase
+     * @param noteIds if not {@code null}, only notes with one of these ids are returned (e.g. the notes matching a tag filter)
+     * @return the notes that might have rating points. Notes not contained would not have any. Never {@code null}
+     * @throws IllegalArgumentException if {@code appUser} or {@code searchQuery} is {@code null}
+     */
+    @NonNull
+    List<SearchNoteJpaDto> findCandidates(AppUser appUser, SearchQuery searchQuery, @Nullable Set<Long> noteIds) throws IllegalArgumentException;
+}
@@ -0,0 +1,16 @@
+package net.code_notes.backend.abstracts;
+
+
+/**
+ * Enum defining how the tag names of a note filter are combined.
+ * 
+ * @since 1.2.0
+ */
+public enum TagMatchMode {
+
+    /** Notes having at least one of the tags. */
+    ANY,
+
+    /** Notes having every one of the tags. */
+    ALL;
+}
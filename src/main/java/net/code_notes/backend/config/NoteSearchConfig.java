@@ -0,0 +1,72 @@
+package net.code_notes.backend.config;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Class configuring the thread pools of the note search.
+ * 
+ * @since 1.2.0
+ */
+@Configuration
+@Log4j2
+public class NoteSearchConfig {
+
+    /** Number of worker threads. 0 means one per available processor */
+    @Value("${NOTE_SEARCH_PARALLELISM}")
+    private int NOTE_SEARCH_PARALLELISM;
+
+    /** Max number of pending index updates */
+    @Value("${NOTE_SEARCH_INDEX_QUEUE_CAPACITY}")
+    private int NOTE_SEARCH_INDEX_QUEUE_CAPACITY;
+
+
+    /**
+     * Dedicated pool sothat note search neither competes with the common pool nor blocks the servlet threads.
+     * 
+     * @return the pool, shut down on context close
+     */
+    @Bean(destroyMethod = "shutdown")
+    ForkJoinPool noteSearchForkJoinPool() {
+        int parallelism = this.NOTE_SEARCH_PARALLELISM > 0 ? this.NOTE_SEARCH_PARALLELISM : Runtime.getRuntime().availableProcessors();
+
+        log.info("Configuring note search fork join pool with parallelism {}...", parallelism);
+
+        return new ForkJoinPool(
+            parallelism, 
+            pool -> {
+                ForkJoinWorkerThread workerThread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                workerThread.setName("note-search-" + workerThread.getPoolIndex());
+
+                return workerThread;
+            }, 
+            null, 
+            false
+        );
+    }
+
+    /**
+     * Applies note search index updates in the background, see {@code NoteSearchEventListener}. Uses a single thread sothat updates
+     * are applied in the order the changes were committed.
+     * 
+     * @return the executor, throwing {@code TaskRejectedException} if the queue is full
+     */
+    @Bean
+    ThreadPoolTaskExecutor noteSearchIndexExecutor() {
+        ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+        threadPoolTaskExecutor.setCorePoolSize(1);
+        threadPoolTaskExecutor.setMaxPoolSize(1);
+        threadPoolTaskExecutor.setQueueCapacity(this.NOTE_SEARCH_INDEX_QUEUE_CAPACITY);
+        threadPoolTaskExecutor.setThreadNamePrefix("note-search-index-");
+
+        return threadPoolTaskExecutor;
+    }
+}
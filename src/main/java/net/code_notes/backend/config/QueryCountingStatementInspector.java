@@ -0,0 +1,32 @@
+package net.code_notes.backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+
+/**
+ * Counts the sql statements hibernate prepares on the current thread, without modifying them. Registered in application.yml as
+ * {@code hibernate.session_factory.statement_inspector}.<p>
+ * 
+ * Statements executed with a {@code JdbcTemplate} are not counted.
+ * 
+ * @since 1.2.0
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> QUERY_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+
+    @Override
+    public String inspect(String sql) {
+        QUERY_COUNT.get()[0]++;
+
+        return sql;
+    }
+
+    /**
+     * @return the number of statements prepared on the current thread since it started. Only meaningful as difference of two calls
+     */
+    public static long getQueryCount() {
+        return QUERY_COUNT.get()[0];
+    }
+}
@@ -97,6 +97,8 @@ public class SecurityConfig {
                     .permitAll()
                 .requestMatchers(getSwaggerPaths())
                     .hasRole(AppUserRole.ADMIN.name())
+                .requestMatchers(getActuatorPaths())
+                    .hasRole(AppUserRole.ADMIN.name())
                 .anyRequest()
                     .authenticated());
         }
@@ -200,4 +202,17 @@ public class SecurityConfig {
             "/webjars/**"
         };
     }
+
+
+    /**
+     * Array of paths of the spring actuator endpoints, e.g. "/actuator/metrics".
+     * 
+     * @return fixed size array of actuator paths
+     */
+    private String[] getActuatorPaths() {
+
+        return new String[] {
+            "/actuator/**"
+        };
+    }
 }
\ No newline at end of file
@@ -5,10 +5,17 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,11 +23,21 @@ import org.springframework.web.server.ResponseStatusException;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.annotation.Nullable;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import net.code_notes.backend.abstracts.TagMatchMode;
+import net.code_notes.backend.dto.NoteKeysetResultDto;
+import net.code_notes.backend.dto.NoteSearchIndexConsistencyDto;
+import net.code_notes.backend.dto.SearchNoteRankingDto;
 import net.code_notes.backend.dto.SearchNoteResultDto;
+import net.code_notes.backend.dto.SearchNoteSummaryDto;
+import net.code_notes.backend.dto.SuggestionDto;
 import net.code_notes.backend.entities.Note;
+import net.code_notes.backend.services.NoteSearchIndexService;
 import net.code_notes.backend.services.NoteService;
+import net.code_notes.backend.services.NoteSuggestionService;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -34,27 +51,147 @@ public class NoteController {
     @Autowired
     private NoteService noteService;
 
+    @Autowired
+    private NoteSearchIndexService noteSearchIndexService;
+
+    @Autowired
+    private NoteSuggestionService noteSuggestionService;
+
     
     @GetMapping("/get-by-app_user-pageable")
     @Operation(
         description = """
             Gets a page of notes related to app user currently logged in and the total count of all results (all pages). \n
-            Accepts optional params for tag filtering and user search input. \n
+            Accepts optional params for tag filtering and user search input. 'tagMatchMode' is either 'ANY' (the default, notes with at least
+            one of the tags) or 'ALL' (notes with every one of the tags). \n
             Sorts by search result match and 'note.created' descending.\n
+            Responds with an 'ETag' unless the search ran out of time. Pass it as 'If-None-Match' to get a 304 if no note or tag of the app user
+            has changed since. \n
             AuthRequirements: LOGGED_IN
         """,
         responses = {
             @ApiResponse(responseCode = "200", description = "Got a logged in app user and returned their notes (may be empty)."),
+            @ApiResponse(responseCode = "304", description = "Notes have not changed since 'If-None-Match'"),
             @ApiResponse(responseCode = "401", description = "Not logged in")
         }
     )
-    public Mono<SearchNoteResultDto> getByAppUserPageable(
+    public Mono<ResponseEntity<SearchNoteResultDto>> getByAppUserPageable(
         @RequestParam("pageNumber") @Min(0) int pageNumber, 
         @RequestParam("pageSize") @Min(1) int pageSize,
         @RequestParam("searchPhrase") Optional<String> searchPhrase,
-        @RequestParam("tagNames") Optional<List<String>> tagNames
+        @RequestParam("tagNames") Optional<List<String>> tagNames,
+        @RequestParam("tagMatchMode") Optional<TagMatchMode> tagMatchMode,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH) Optional<String> ifNoneMatch
     ) {
-        return Mono.just(this.noteService.loadByCurrentAppUserSortedAndSearch(PageRequest.of(pageNumber, pageSize), searchPhrase.orElse(null), tagNames.orElse(null)));
+        String eTag = this.noteService.getNotesETagOfCurrentAppUser();
+        if (isNotModified(ifNoneMatch.orElse(null), eTag))
+            return Mono.just(notModified(eTag));
+
+        SearchNoteResultDto searchNoteResult = this.noteService.loadByCurrentAppUserSortedAndSearch(PageRequest.of(pageNumber, pageSize), searchPhrase.orElse(null), tagNames.orElse(null), tagMatchMode.orElse(null));
+
+        return Mono.just(ok(searchNoteResult, searchNoteResult.isPartial() ? null : eTag));
+    }
+
+    @GetMapping("/get-by-app_user-keyset")
+    @Operation(
+        description = """
+            Gets a page of notes related to app user currently logged in, sorted by 'note.created' and 'note.id' descending. \n
+            Pass the 'continuationToken' of a page to get the next page, omit it for the first page. The token is null for the last page. \n
+            Other than '/note/get-by-app_user-pageable' this does not count the notes and takes the same time for every page. \n
+            Supports 'ETag' and 'If-None-Match', see '/note/get-by-app_user-pageable'. \n
+            AuthRequirements: LOGGED_IN
+        """,
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Got a logged in app user and returned their notes (may be empty)."),
+            @ApiResponse(responseCode = "304", description = "Notes have not changed since 'If-None-Match'"),
+            @ApiResponse(responseCode = "400", description = "Invalid continuation token"),
+            @ApiResponse(responseCode = "401", description = "Not logged in")
+        }
+    )
+    public Mono<ResponseEntity<NoteKeysetResultDto>> getByAppUserKeyset(
+        @RequestParam("pageSize") @Min(1) int pageSize,
+        @RequestParam("continuationToken") Optional<String> continuationToken,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH) Optional<String> ifNoneMatch
+    ) {
+        String eTag = this.noteService.getNotesETagOfCurrentAppUser();
+        if (isNotModified(ifNoneMatch.orElse(null), eTag))
+            return Mono.just(notModified(eTag));
+
+        return Mono.just(ok(this.noteService.loadByCurrentAppUserAfter(pageSize, continuationToken.orElse(null)), eTag));
+    }
+
+    @GetMapping(path = "/search-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        description = """
+            Searches notes of app user currently logged in and streams the results as server sent events, best match first. \n
+            Emits one 'note' event per result (note and rating points) and a final 'summary' event with the total count of all results
+            and whether the search ran out of time (partial results). \n
+            Accepts optional params for tag filtering, see '/note/get-by-app_user-pageable'. \n
+            Supports 'ETag' and 'If-None-Match', see '/note/get-by-app_user-pageable'. \n
+            AuthRequirements: LOGGED_IN
+        """,
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Streaming search results (may be none)."),
+            @ApiResponse(responseCode = "304", description = "Notes have not changed since 'If-None-Match'"),
+            @ApiResponse(responseCode = "400", description = "Blank search phrase"),
+            @ApiResponse(responseCode = "401", description = "Not logged in")
+        }
+    )
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> searchStream(
+        @RequestParam("searchPhrase") String searchPhrase,
+        @RequestParam("maxResults") @Min(1) int maxResults,
+        @RequestParam("tagNames") Optional<List<String>> tagNames,
+        @RequestParam("tagMatchMode") Optional<TagMatchMode> tagMatchMode,
+        @RequestHeader(HttpHeaders.IF_NONE_MATCH) Optional<String> ifNoneMatch
+    ) {
+        String eTag = this.noteService.getNotesETagOfCurrentAppUser();
+        if (isNotModified(ifNoneMatch.orElse(null), eTag))
+            return notModified(eTag);
+
+        // rank on request thread, needs security context
+        SearchNoteRankingDto ranking = this.noteService.rankByCurrentAppUser(searchPhrase, tagNames.orElse(null), tagMatchMode.orElse(null), maxResults);
+
+        Flux<ServerSentEvent<Object>> events = Flux.concat(
+            this.noteService
+                .streamRankedNotes(ranking, maxResults)
+                .map(scoredNote -> ServerSentEvent.<Object>builder(scoredNote).event("note").build()),
+            Mono.fromSupplier(() -> ServerSentEvent.<Object>builder(new SearchNoteSummaryDto(ranking.getTotalResults(), ranking.isPartial())).event("summary").build())
+        );
+
+        return ok(events, ranking.isPartial() ? null : eTag);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+        description = """
+            Completes the word currently typed into the search bar using the words of the note titles and the tag names of the app user 
+            currently logged in, most frequent first. Meant to be called on every keystroke, does not search notes. \n
+            AuthRequirements: LOGGED_IN
+        """,
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Returned the completions (may be empty, e.g. if 'prefix' is blank)."),
+            @ApiResponse(responseCode = "401", description = "Not logged in")
+        }
+    )
+    public Mono<List<SuggestionDto>> suggest(
+        @RequestParam("prefix") String prefix,
+        @RequestParam("maxResults") @Min(1) int maxResults
+    ) {
+        return Mono.just(this.noteSuggestionService.suggestByCurrentAppUser(prefix, maxResults));
+    }
+
+    @GetMapping("/check-search-index")
+    @Operation(
+        description = "Compare the note search index of given app user with the db and evict the index if it's inconsistent. AuthRequirements: LOGGED_IN, ROLE_ADMIN",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Checked the index (or found none to check)"),
+            @ApiResponse(responseCode = "401", description = "Not logged in"),
+            @ApiResponse(responseCode = "403", description = "Missing permissions")
+        }
+    )
+    @Secured("ROLE_ADMIN")
+    public Mono<NoteSearchIndexConsistencyDto> checkSearchIndex(@RequestParam("appUserEmail") @NotBlank(message = "'appUserEmail' cannot be blank") String appUserEmail) {
+        return Mono.just(this.noteSearchIndexService.checkConsistency(appUserEmail));
     }
 
     @PostMapping("/save")
@@ -99,4 +236,39 @@ public class NoteController {
     public void delete(@RequestParam("id") Long id) {
         this.noteService.delete(id);
     }
+
+    /**
+     * @param ifNoneMatch value of the 'If-None-Match' header, e.g. {@code W/"3-42", W/"3-43"}
+     * @param eTag current etag of the requested notes, see {@link NoteService#getNotesETagOfCurrentAppUser()}
+     * @return {@code true} if one of the etags in {@code ifNoneMatch} equals {@code eTag} (weak comparison) or {@code ifNoneMatch} is 
+     * {@code *}
+     */
+    private static boolean isNotModified(@Nullable String ifNoneMatch, @Nullable String eTag) {
+        if (ifNoneMatch == null || eTag == null)
+            return false;
+
+        String opaqueTag = eTag.replaceFirst("^W/", "");
+        for (String requestETag : ifNoneMatch.split(","))
+            if ("*".equals(requestETag.trim()) || opaqueTag.equals(requestETag.trim().replaceFirst("^W/", "")))
+                return true;
+
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    /**
+     * @param body of the response
+     * @param eTag to set as header, {@code null} to not set one (e.g. if the response should not be cached)
+     * @return 200 response
+     */
+    private static <T> ResponseEntity<T> ok(T body, @Nullable String eTag) {
+        ResponseEntity.BodyBuilder responseEntity = ResponseEntity.ok();
+        if (eTag != null)
+            responseEntity.eTag(eTag);
+
+        return responseEntity.body(body);
+    }
 }
\ No newline at end of file
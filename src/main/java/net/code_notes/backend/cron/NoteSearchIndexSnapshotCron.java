@@ -0,0 +1,24 @@
+package net.code_notes.backend.cron;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import net.code_notes.backend.services.NoteSearchIndexService;
+
+
+/**
+ * @since 1.2.0
+ */
+@Component
+public class NoteSearchIndexSnapshotCron {
+
+    @Autowired
+    private NoteSearchIndexService noteSearchIndexService;
+
+
+    @Scheduled(cron = "0 */10 * * * ?") // every 10 minutes
+    public void writeSnapshots() {
+        this.noteSearchIndexService.writeSnapshots();
+    }
+}
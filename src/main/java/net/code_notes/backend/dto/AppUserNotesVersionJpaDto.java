@@ -0,0 +1,14 @@
+package net.code_notes.backend.dto;
+
+/**
+ * Wrapper for jpa queries that only need the notes version of an app user. Make sure to use the exact AppUser field names for this 
+ * to work with jpa.
+ * 
+ * @since 1.2.0
+ */
+public interface AppUserNotesVersionJpaDto {
+
+    Long getId();
+
+    long getNotesVersion();
+}
@@ -0,0 +1,11 @@
+package net.code_notes.backend.dto;
+
+/**
+ * Wrapper for jpa queries that only need the ids of notes.
+ * 
+ * @since 1.2.0
+ */
+public interface NoteIdJpaDto {
+
+    Long getId();
+}
@@ -0,0 +1,16 @@
+package net.code_notes.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Wrapper for jpa queries that only need the sort key of notes, e.g. for keyset pagination. Make sure to use the exact Note field
+ * names for this to work with jpa.
+ * 
+ * @since 1.2.0
+ */
+public interface NoteKeyJpaDto {
+
+    Long getId();
+
+    LocalDateTime getCreated();
+}
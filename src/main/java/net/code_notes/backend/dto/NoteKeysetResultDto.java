@@ -0,0 +1,25 @@
+package net.code_notes.backend.dto;
+
+import java.util.List;
+
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import net.code_notes.backend.entities.Note;
+
+/**
+ * Expected response object when returning a page of notes using keyset pagination.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class NoteKeysetResultDto {
+    /** The notes of this page, newest first */
+    private List<Note> results;
+    /** Pass this to get the next page. {@code null} if this is the last page */
+    @Nullable
+    private String continuationToken;
+}
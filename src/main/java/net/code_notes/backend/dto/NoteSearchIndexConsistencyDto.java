@@ -0,0 +1,34 @@
+package net.code_notes.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of comparing an app user's note search index with the db.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@AllArgsConstructor
+public class NoteSearchIndexConsistencyDto {
+    /** {@code false} if the app user's index has not been built (yet), in which case all lists are empty */
+    private boolean indexed;
+    /** Ids of notes in db that are not indexed */
+    private List<Long> missingNoteIds;
+    /** Ids of indexed notes that are not in db anymore */
+    private List<Long> staleNoteIds;
+    /** Ids of notes whose indexed words differ from the words in db */
+    private List<Long> outdatedNoteIds;
+    /** Ids of notes that have changed but whose index update has not been applied yet. Not checked */
+    private List<Long> pendingNoteIds;
+
+
+    /**
+     * @return {@code true} if no inconsistencies were found
+     */
+    public boolean isConsistent() {
+        return this.missingNoteIds.isEmpty() && this.staleNoteIds.isEmpty() && this.outdatedNoteIds.isEmpty();
+    }
+}
@@ -0,0 +1,18 @@
+package net.code_notes.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Wrapper for note tag filter jpa query results. One row per note and tag, {@code tagName} is {@code null} for notes without tags. Make
+ * sure to use the aliases of {@code NoteRepository.findNoteTagNamesByAppUserEmail} for this to work with jpa.
+ * 
+ * @since 1.2.0
+ */
+public interface NoteTagNameJpaDto {
+
+    Long getNoteId();
+
+    LocalDateTime getCreated();
+
+    String getTagName();
+}
@@ -0,0 +1,17 @@
+package net.code_notes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.code_notes.backend.entities.Note;
+
+/**
+ * A note search result with it's rating, emitted by the streaming note search.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@AllArgsConstructor
+public class ScoredNoteDto {
+    private Note note;
+    private double ratingPoints;
+}
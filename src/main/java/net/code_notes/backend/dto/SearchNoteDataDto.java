@@ -0,0 +1,36 @@
+package net.code_notes.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.NonNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Everything the note search needs to rate a set of candidate notes, loaded upfront sothat rating does not hit the db.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@AllArgsConstructor
+public class SearchNoteDataDto {
+    /** 
+     * Note id -> search tokens of the note's inputs (see {@code NoteInputSearchTokens}) in input order, cut off at the scan budget per note.
+     * Notes without any tokens are not contained 
+     */
+    private Map<Long, List<String>> noteInputSearchTokens;
+    /** The number of db queries issued to load this data */
+    private int queryCount;
+
+
+    /**
+     * @param noteId
+     * @return the search tokens of the inputs of given note, empty list if none. Never {@code null}
+     */
+    @NonNull
+    public List<String> getNoteInputSearchTokens(Long noteId) {
+        return this.noteInputSearchTokens.getOrDefault(noteId, List.of());
+    }
+}
@@ -0,0 +1,14 @@
+package net.code_notes.backend.dto;
+
+/**
+ * Wrapper for batch loading the search tokens of note inputs during note search, one row per note input. Make sure to use the aliases of
+ * {@code NoteInputSearchTokensRepository} for this to work with jpa.
+ * 
+ * @since 1.2.0
+ */
+public interface SearchNoteInputTokensJpaDto {
+
+    Long getNoteId();
+
+    String getSearchTokens();
+}
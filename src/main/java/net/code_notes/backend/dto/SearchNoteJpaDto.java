@@ -1,11 +1,13 @@
 package net.code_notes.backend.dto;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Wrapper for note search jpa query results. Contains only the fields needed for note search to improove performance. Make sure
- * to use the exact Note field names for this to work with jpa.
+ * to use the exact Note field names for this to work with jpa.<p>
+ * 
+ * Flat on purpose: a nested collection would make jpa select whole notes including their inputs. The inputs' search tokens are loaded 
+ * separately, see {@code NoteSearchDataService}.
  * 
  * @since 1.0.0
  */
@@ -14,8 +16,11 @@ public interface SearchNoteJpaDto {
     Long getId();
 
     LocalDateTime getCreated();
+
+    LocalDateTime getUpdated();
     
     String getTitle();
 
-    List<SearchNoteInputJpaDto> getNoteInputs();
+    /** {@code null} for notes that have not been saved since normalized titles were introduced */
+    String getNormalizedTitle();
 }
@@ -0,0 +1,32 @@
+package net.code_notes.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The ranked ids of a note search, best match first. May be cut off after some results, see {@link #isComplete()}.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@AllArgsConstructor
+public class SearchNoteRankingDto {
+    /** Note ids sorted by rating points desc and created desc. Not modifiable */
+    private List<Long> rankedIds;
+    /** Rating points of {@code rankedIds[i]}. Not modifiable */
+    private List<Double> rankedRatingPoints;
+    /** The total number of search results, may be greater than {@code rankedIds.size()} */
+    private long totalResults;
+    /** {@code true} if the search ran out of time and not all notes have been rated. {@code totalResults} is a lower bound then */
+    private boolean partial;
+
+
+    /**
+     * @return {@code true} if {@link #rankedIds} contains all search results
+     */
+    public boolean isComplete() {
+        return !this.partial && this.rankedIds.size() >= this.totalResults;
+    }
+}
@@ -0,0 +1,26 @@
+package net.code_notes.backend.dto;
+
+import java.util.Comparator;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A note search match with it's rating.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@AllArgsConstructor
+public class SearchNoteRatingDto {
+
+    /** Orders by {@code ratingPoints} desc, then by {@code note.created} desc */
+    public static final Comparator<SearchNoteRatingDto> BEST_FIRST = Comparator
+        .comparingDouble(SearchNoteRatingDto::getRatingPoints)
+        .reversed()
+        .thenComparing((rating1, rating2) -> rating2.getNoteDto().getCreated().compareTo(rating1.getNoteDto().getCreated()));
+
+    private SearchNoteJpaDto noteDto;
+    /** Greater 0 */
+    private double ratingPoints;
+}
@@ -20,4 +20,15 @@ public class SearchNoteResultDto {
     private List<Note> results;
     /** The total number of search results */
     private long totalResults;
+    /** 
+     * {@code true} if the search ran out of time and not all notes have been rated. {@code totalResults} is a lower bound then 
+     * 
+     * @since 1.2.0
+     */
+    private boolean partial;
+
+
+    public SearchNoteResultDto(List<Note> results, long totalResults) {
+        this(results, totalResults, false);
+    }
 }
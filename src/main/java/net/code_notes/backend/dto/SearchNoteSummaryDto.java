@@ -0,0 +1,18 @@
+package net.code_notes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Last event of the streaming note search.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@AllArgsConstructor
+public class SearchNoteSummaryDto {
+    /** The total number of search results, may be greater than the number of streamed notes */
+    private long totalResults;
+    /** {@code true} if the search ran out of time and not all notes have been rated */
+    private boolean partial;
+}
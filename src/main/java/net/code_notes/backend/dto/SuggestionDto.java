@@ -0,0 +1,20 @@
+package net.code_notes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A completion of the word an app user is typing, returned by the note suggestion endpoint.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@AllArgsConstructor
+public class SuggestionDto {
+
+    /** The completed word (case folded) or tag name */
+    private String text;
+
+    /** Number of notes containing {@code text} */
+    private int frequency;
+}
@@ -0,0 +1,18 @@
+package net.code_notes.backend.dto;
+
+import java.util.List;
+
+/**
+ * Wrapper for note suggestion jpa query results. Contains only the fields needed for building suggestions. Make sure
+ * to use the exact Note field names for this to work with jpa.
+ * 
+ * @since 1.2.0
+ */
+public interface SuggestionNoteJpaDto {
+
+    Long getId();
+
+    String getTitle();
+
+    List<TagNameJpaDto> getTags();
+}
@@ -0,0 +1,11 @@
+package net.code_notes.backend.dto;
+
+/**
+ * Wrapper for tag name jpa query results. Make sure to use the exact Tag field names for this to work with jpa.
+ * 
+ * @since 1.2.0
+ */
+public interface TagNameJpaDto {
+
+    String getName();
+}
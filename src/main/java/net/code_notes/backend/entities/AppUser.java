@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -84,6 +85,15 @@ public class AppUser extends AbstractEntity implements UserDetails, NeedsDeletio
     @JsonIgnore
     private List<@Valid @NotNull(message = "'appUser.note' cannot be null") Note> notes;
 
+    /**
+     * Incremented in the same transaction as every write of this app user's notes or tags, never decremented. Not updatable, since saving 
+     * a stale instance would reset it. Only changed by {@code AppUserRepository.incrementNotesVersionByEmail}
+     */
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private long notesVersion;
+
 
     public AppUser(String email, String password, AppUserRole role) {
 
@@ -9,12 +9,14 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderColumn;
+import jakarta.persistence.Table;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -23,6 +25,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import net.code_notes.backend.abstracts.AbstractEntity;
+import net.code_notes.backend.helpers.search.SearchStringUtils;
 
 /**
  * Entity defining a note. Contains inputs and tags. Use default equals and hash code.
@@ -30,6 +33,10 @@ import net.code_notes.backend.abstracts.AbstractEntity;
  * @since 0.0.1
  */
 @Entity
+@Table(indexes = {
+    // keyset pagination, see NoteRepository
+    @Index(name = "idx_note_app_user_created_id", columnList = "app_user_id, created, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -66,4 +73,24 @@ public class Note extends AbstractEntity {
     @ManyToOne
     @JsonIgnore
     private AppUser appUser;
+
+    /** 
+     * {@code title} normalized for the note search, see {@link SearchStringUtils#normalize(String, int)}. Computed when saving the note.
+     * 
+     * @since 1.2.0
+     */
+    @JsonIgnore
+    @Column(length = TITLE_MAX_LENGTH)
+    @Nullable
+    private String normalizedTitle;
+
+
+    /**
+     * Compute {@code normalizedTitle} from the current {@code title}.
+     * 
+     * @since 1.2.0
+     */
+    public void updateNormalizedTitle() {
+        this.normalizedTitle = SearchStringUtils.normalize(this.title, TITLE_MAX_LENGTH);
+    }
 }
\ No newline at end of file
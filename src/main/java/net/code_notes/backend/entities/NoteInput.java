@@ -28,7 +28,7 @@ import net.code_notes.backend.abstracts.NoteInputType;
 @AllArgsConstructor
 public class NoteInput extends AbstractEntity {
 
-    private static final int VALUE_MAX_LENGTH = 65_535;
+    static final int VALUE_MAX_LENGTH = 65_535;
     
     @Lob
     @Column(nullable = false, length = VALUE_MAX_LENGTH)
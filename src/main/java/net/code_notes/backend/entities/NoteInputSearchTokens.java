@@ -0,0 +1,68 @@
+package net.code_notes.backend.entities;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import net.code_notes.backend.helpers.search.SearchStringUtils;
+
+
+/**
+ * The normalized words of the whole {@code noteInput.value} rated by the note search, see {@link SearchStringUtils#normalize(String, int)}.
+ * How much of them is rated is limited by the search (see {@code NOTE_SEARCH_NOTE_SCAN_BUDGET}), not here.<p>
+ *
+ * Kept in their own table, sothat loading notes (which fetches their inputs eagerly) never loads the tokens and the note search never
+ * loads the (large) values. Written by {@code NoteInputService.saveSearchTokens} whenever notes are saved, deleted by the db together with
+ * the note input.
+ *
+ * @since 1.2.0
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class NoteInputSearchTokens {
+
+    /** Same as {@code noteInput.id} */
+    @Id
+    private Long noteInputId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "note_input_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private NoteInput noteInput;
+
+    @Lob
+    @Column(nullable = false, length = NoteInput.VALUE_MAX_LENGTH)
+    private String searchTokens;
+
+
+    /**
+     * @param noteInput to compute the search tokens of. Needs to be persisted already
+     */
+    public NoteInputSearchTokens(NoteInput noteInput) {
+        this.noteInput = noteInput;
+
+        updateSearchTokens(noteInput);
+    }
+
+    /**
+     * Compute {@code searchTokens} from the current value of given {@code noteInput}.
+     *
+     * @param noteInput the note input these tokens belong to
+     */
+    public void updateSearchTokens(NoteInput noteInput) {
+        this.searchTokens = SearchStringUtils.normalize(noteInput.getValue(), NoteInput.VALUE_MAX_LENGTH);
+    }
+}
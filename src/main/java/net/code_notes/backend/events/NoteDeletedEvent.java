@@ -0,0 +1,19 @@
+package net.code_notes.backend.events;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after notes have been deleted.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@AllArgsConstructor
+public class NoteDeletedEvent {
+    /** Email of the app user the notes belonged to */
+    private String appUserEmail;
+    private List<Long> noteIds;
+}
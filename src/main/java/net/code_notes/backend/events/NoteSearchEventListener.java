@@ -0,0 +1,96 @@
+package net.code_notes.backend.events;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.extern.log4j.Log4j2;
+import net.code_notes.backend.services.NoteSearchIndexService;
+import net.code_notes.backend.services.NoteSearchRankingCacheService;
+import net.code_notes.backend.services.NoteSuggestionService;
+
+
+/**
+ * Keeps the note search structures in sync with the db. Listens after completion (or immediately if published outside of a transaction).<p>
+ * 
+ * Changed notes are marked changing right before commit, sothat a search reading the new {@code appUser.notesVersion} rates them even 
+ * before this listener ran after commit (see {@link NoteSearchIndexService}). After completion they are marked dirty and cached rankings are 
+ * evicted on the publishing thread, the index and the suggestion trie are updated on the {@code noteSearchIndexExecutor} (see {@code NoteSearchConfig}). 
+ * If that executor's queue is full, both are evicted instead. Rolled back changes are handled the same way, re-indexing a note does no harm.<p>
+ * 
+ * Cached rankings and the tag index are keyed on {@code appUser.notesVersion} and don't depend on this listener.
+ * 
+ * @since 1.2.0
+ */
+@Component
+@Log4j2
+public class NoteSearchEventListener {
+
+    @Autowired
+    private NoteSearchIndexService noteSearchIndexService;
+
+    @Autowired
+    private NoteSearchRankingCacheService noteSearchRankingCacheService;
+
+    @Autowired
+    private NoteSuggestionService noteSuggestionService;
+
+    @Autowired
+    @Qualifier("noteSearchIndexExecutor")
+    private TaskExecutor noteSearchIndexExecutor;
+
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeNoteChangeCommit(NoteChangedEvent event) {
+        this.noteSearchIndexService.markChanging(event.getAppUserEmail(), event.getNoteIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeNoteDeleteCommit(NoteDeletedEvent event) {
+        this.noteSearchIndexService.markChanging(event.getAppUserEmail(), event.getNoteIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        handleNoteChange(event.getAppUserEmail(), event.getNoteIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onNoteDeleted(NoteDeletedEvent event) {
+        handleNoteChange(event.getAppUserEmail(), event.getNoteIds());
+    }
+
+    /**
+     * Indices don't contain tags, but rankings filtered by deleted tags are outdated. Frees their memory early.
+     * 
+     * @param event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagsDeleted(TagsDeletedEvent event) {
+        this.noteSearchRankingCacheService.evict(event.getAppUserEmail());
+    }
+
+    private void handleNoteChange(String appUserEmail, List<Long> noteIds) {
+        this.noteSearchIndexService.markDirty(appUserEmail, noteIds);
+        // outdated anyway, frees their memory early
+        this.noteSearchRankingCacheService.evict(appUserEmail);
+
+        try {
+            this.noteSearchIndexExecutor.execute(() -> {
+                this.noteSearchIndexService.update(appUserEmail, noteIds);
+                this.noteSuggestionService.update(appUserEmail, noteIds);
+            });
+
+        } catch (TaskRejectedException e) {
+            log.warn("Note search index update queue is full, evicting index instead");
+            this.noteSearchIndexService.evict(appUserEmail);
+            this.noteSuggestionService.evict(appUserEmail);
+        }
+    }
+}
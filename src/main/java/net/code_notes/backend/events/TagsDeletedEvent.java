@@ -0,0 +1,19 @@
+package net.code_notes.backend.events;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after tags have been deleted, e.g. by {@code TagService.removeOrphanTags}.
+ * 
+ * @since 1.2.0
+ */
+@Getter
+@AllArgsConstructor
+public class TagsDeletedEvent {
+    /** Email of the app user the tags belonged to */
+    private String appUserEmail;
+    private List<Long> tagIds;
+}
@@ -0,0 +1,82 @@
+package net.code_notes.backend.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import lombok.Getter;
+
+/**
+ * Position of the last note of a page when paginating notes by {@code created} and {@code id} descending (keyset pagination). The next
+ * page starts right after that note, no matter how many notes come before it.<p>
+ *
+ * Clients only see the encoded token and pass it back as is. The format may change.
+ *
+ * @since 1.2.0
+ */
+@Getter
+public class NoteContinuationToken {
+
+    private static final char SEPARATOR = '_';
+
+    /** {@code note.created} of the last note of the page */
+    private final LocalDateTime created;
+
+    /** {@code note.id} of the last note of the page */
+    private final Long id;
+
+
+    /**
+     * @param created of the last note of the page
+     * @param id of the last note of the page
+     * @throws IllegalArgumentException if a param is {@code null}
+     */
+    public NoteContinuationToken(LocalDateTime created, Long id) throws IllegalArgumentException {
+        if (created == null || id == null)
+            throw new IllegalArgumentException("Failed to create continuation token. 'created' and 'id' cannot be null");
+
+        this.created = created;
+        this.id = id;
+    }
+
+    /**
+     * @return the url safe token to pass to clients. Never {@code null}
+     */
+    @NonNull
+    public String encode() {
+        String plainToken = this.created.toString() + SEPARATOR + this.id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plainToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token as returned by {@link #encode()}
+     * @return the decoded token. Never {@code null}
+     * @throws IllegalArgumentException if {@code token} is {@code null} or malformed
+     */
+    @NonNull
+    public static NoteContinuationToken decode(@Nullable String token) throws IllegalArgumentException {
+        if (token == null)
+            throw new IllegalArgumentException("Failed to decode continuation token. 'token' cannot be null");
+
+        try {
+            String plainToken = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+            int separatorIndex = plainToken.lastIndexOf(SEPARATOR);
+            if (separatorIndex == -1)
+                throw new IllegalArgumentException("Failed to decode continuation token. Missing separator");
+
+            return new NoteContinuationToken(
+                LocalDateTime.parse(plainToken.substring(0, separatorIndex)),
+                Long.parseLong(plainToken.substring(separatorIndex + 1)));
+
+        // NumberFormatException is an IllegalArgumentException
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Failed to decode continuation token. " + e.getMessage());
+        }
+    }
+}
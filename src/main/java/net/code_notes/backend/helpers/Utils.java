@@ -114,6 +114,8 @@ public class Utils {
     public static final int SEARCH_APPROXIMATE_RATING_POINTS = 1;
     public static final int SEARCH_EXACT_MATCH_RATING_POINTS = 2;
     public static final int SEARCH_ADJACENT_MATCH_RATING_POINTS = 1;
+    /** Divided by the number of edits of the fuzzy match */
+    public static final double SEARCH_FUZZY_MATCH_RATING_POINTS = 0.5;
 
 
     /**
@@ -0,0 +1,229 @@
+package net.code_notes.backend.helpers.search;
+
+import java.util.Arrays;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A search word compiled for fuzzy matching: finding the substring of a compare word with the fewest edits (inserted, deleted or replaced chars)
+ * compared to the search word, allowing at most {@link #getMaxEdits(int)} edits.<p>
+ *
+ * Uses the bit-parallel algorithm of Myers in the formulation of Hyyr&ouml;: the column of the edit distance matrix is encoded as bit vectors
+ * with one bit per search word char and advanced by a few bit operations per compare word char. That's why search words can have at most
+ * {@link #MAX_LENGTH} chars. Matching does not allocate any objects.<p>
+ *
+ * Chars are compared case folded (see {@link SearchStringUtils#foldCase(char)}). Immutable and thus thread safe.
+ *
+ * @since 1.2.0
+ */
+final class FuzzyPattern {
+
+    /** Max length of search words to compile, one bit per char */
+    static final int MAX_LENGTH = Long.SIZE;
+
+    /** Min length of search words to compile, shorter words would match too many compare words with only one edit */
+    static final int MIN_LENGTH = 5;
+
+    /** Search words with at least this many chars may have 2 edits, shorter ones 1 */
+    static final int MIN_LENGTH_FOR_TWO_EDITS = 9;
+
+    /** Max number of edits of any search word */
+    static final int MAX_EDITS = 2;
+
+    /** Returned by {@link #indexOf(String, int, int, boolean)} if there's no match */
+    static final long NO_MATCH = -1;
+
+    private static final int NUM_ASCII_CHARS = 128;
+
+    private final int length;
+
+    private final int maxEdits;
+
+    /** Bit of the last search word char */
+    private final long lastBit;
+
+    /** Char {@code c} -> bit {@code i} is set if char {@code i} of the search word is {@code c}. For chars < {@link #NUM_ASCII_CHARS} */
+    private final long[] asciiMasks = new long[NUM_ASCII_CHARS];
+
+    /** Other chars of the search word, sorted */
+    private final char[] otherChars;
+
+    /** Masks of {@link #otherChars}, same indices */
+    private final long[] otherMasks;
+
+
+    private FuzzyPattern(String foldedWord) {
+        this.length = foldedWord.length();
+        this.maxEdits = getMaxEdits(this.length);
+        this.lastBit = 1L << (this.length - 1);
+
+        char[] otherChars = new char[this.length];
+        int numOtherChars = 0;
+        for (int i = 0; i < this.length; i++) {
+            char c = foldedWord.charAt(i);
+            if (c < NUM_ASCII_CHARS)
+                this.asciiMasks[c] |= 1L << i;
+
+            else if (indexOf(otherChars, numOtherChars, c) == -1)
+                otherChars[numOtherChars++] = c;
+        }
+
+        this.otherChars = Arrays.copyOf(otherChars, numOtherChars);
+        Arrays.sort(this.otherChars);
+        this.otherMasks = new long[numOtherChars];
+        for (int i = 0; i < this.length; i++) {
+            int otherCharIndex = Arrays.binarySearch(this.otherChars, foldedWord.charAt(i));
+            if (otherCharIndex >= 0)
+                this.otherMasks[otherCharIndex] |= 1L << i;
+        }
+    }
+
+    /**
+     * @param foldedWord the search word case folded, see {@link SearchStringUtils#foldCase(String)}
+     * @return the compiled pattern or {@code null} if the word is too short or too long to match fuzzy (see {@link #MIN_LENGTH}, {@link #MAX_LENGTH})
+     * or contains whitespace or surrogate chars
+     */
+    @Nullable
+    static FuzzyPattern compile(@Nullable String foldedWord) {
+        if (foldedWord == null || foldedWord.length() < MIN_LENGTH || foldedWord.length() > MAX_LENGTH)
+            return null;
+
+        for (int i = 0; i < foldedWord.length(); i++)
+            if (Character.isWhitespace(foldedWord.charAt(i)) || Character.isSurrogate(foldedWord.charAt(i)))
+                return null;
+
+        return new FuzzyPattern(foldedWord);
+    }
+
+    /**
+     * @param wordLength length of the search word
+     * @return max number of edits a match of a search word with given length may have. 0 if too short to match fuzzy
+     */
+    static int getMaxEdits(int wordLength) {
+        if (wordLength < MIN_LENGTH)
+            return 0;
+
+        return wordLength < MIN_LENGTH_FOR_TWO_EDITS ? 1 : MAX_EDITS;
+    }
+
+    /**
+     * Find the substring of {@code text[start, end)} with the fewest edits compared to the search word.
+     *
+     * @param text containing the compare word
+     * @param start index of the first char of the compare word
+     * @param end index after the last char of the compare word
+     * @param isFolded {@code true} if {@code text} has already been case folded, e.g. if it's normalized
+     * @return the number of edits and the start index of the match relative to {@code start} packed into one number (see {@link #getEdits(long)}
+     * and {@link #getStartIndex(long)}). {@link #NO_MATCH} if there's no match with at most {@link #getMaxEdits(int)} edits
+     */
+    long indexOf(String text, int start, int end, boolean isFolded) {
+        // vertical deltas of the current column, positive and negative
+        long pv = -1L;
+        long mv = 0;
+        // edits of the whole search word ending at the current char
+        int edits = this.length;
+
+        int minEdits = this.maxEdits + 1;
+        int minEditsEnd = -1;
+
+        for (int i = start; i < end; i++) {
+            long eq = getMask(isFolded ? text.charAt(i) : SearchStringUtils.foldCase(text.charAt(i)));
+
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            // horizontal deltas
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+
+            if ((ph & this.lastBit) != 0)
+                edits++;
+
+            else if ((mh & this.lastBit) != 0)
+                edits--;
+
+            // a match may start anywhere, so the first row stays 0
+            ph <<= 1;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+
+            if (edits < minEdits) {
+                minEdits = edits;
+                minEditsEnd = i;
+
+                // case: cannot get any better
+                if (edits == 0)
+                    break;
+            }
+        }
+
+        if (minEditsEnd == -1)
+            return NO_MATCH;
+
+        // approximate, the exact start would need the whole matrix
+        int startIndex = Math.max(start, minEditsEnd + 1 - this.length) - start;
+
+        return ((long) minEdits << Integer.SIZE) | startIndex;
+    }
+
+    /**
+     * @param text normalized, see {@link SearchStringUtils#normalize(String, int)}
+     * @return the number of words of {@code text} that match, same as calling {@link #indexOf(String, int, int, boolean)} for every word
+     */
+    int countMatchingWords(String text) {
+        int numMatchingWords = 0;
+        int wordStart = 0;
+
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && text.charAt(i) != ' ')
+                continue;
+
+            if (indexOf(text, wordStart, i, true) != NO_MATCH)
+                numMatchingWords++;
+
+            wordStart = i + 1;
+        }
+
+        return numMatchingWords;
+    }
+
+    /**
+     * @return max number of edits of a match
+     */
+    int getMaxEdits() {
+        return this.maxEdits;
+    }
+
+    /**
+     * @param match as returned by {@link #indexOf(String, int, int, boolean)}, not {@link #NO_MATCH}
+     * @return the number of edits of the match
+     */
+    static int getEdits(long match) {
+        return (int) (match >>> Integer.SIZE);
+    }
+
+    /**
+     * @param match as returned by {@link #indexOf(String, int, int, boolean)}, not {@link #NO_MATCH}
+     * @return the start index of the match relative to the compare word
+     */
+    static int getStartIndex(long match) {
+        return (int) match;
+    }
+
+    private long getMask(char foldedChar) {
+        if (foldedChar < NUM_ASCII_CHARS)
+            return this.asciiMasks[foldedChar];
+
+        int otherCharIndex = Arrays.binarySearch(this.otherChars, foldedChar);
+
+        return otherCharIndex < 0 ? 0 : this.otherMasks[otherCharIndex];
+    }
+
+    private static int indexOf(char[] chars, int numChars, char c) {
+        for (int i = 0; i < numChars; i++)
+            if (chars[i] == c)
+                return i;
+
+        return -1;
+    }
+}
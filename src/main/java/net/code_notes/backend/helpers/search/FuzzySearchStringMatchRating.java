@@ -0,0 +1,26 @@
+package net.code_notes.backend.helpers.search;
+
+import static net.code_notes.backend.helpers.Utils.SEARCH_FUZZY_MATCH_RATING_POINTS;
+
+import net.code_notes.backend.abstracts.AbstractSearchStringMatchRating;
+
+/**
+ * Rating of a search word matching a compare word with a few edits (see {@link FuzzyPattern}). Gets less points than an approximate match,
+ * the more edits the less points.
+ * 
+ * @since 1.2.0
+ */
+public class FuzzySearchStringMatchRating extends AbstractSearchStringMatchRating {
+
+    /**
+     * @param edits number of edits of the match, at least 1
+     */
+    public FuzzySearchStringMatchRating(int edits) {
+        super(SEARCH_FUZZY_MATCH_RATING_POINTS / Math.max(1, edits));
+    }
+    
+    @Override
+    protected double accumulatePoints(double totalPoints) {
+        return totalPoints + this.points;
+    }
+}
@@ -0,0 +1,76 @@
+package net.code_notes.backend.helpers.search;
+
+import java.lang.reflect.InvocationTargetException;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * The case insensitive comparisons behind {@link SearchStringUtils#isExactMatch(String, String)} and
+ * {@link SearchStringUtils#isApproximateMatch(String, String)}. Every implementation returns the same results as {@code Strings.CI}.<p>
+ *
+ * The implementation is chosen once at startup, see {@link #getInstance()}. Implementations are thread safe.
+ *
+ * @since 1.2.0
+ */
+@Log4j2
+abstract class IgnoreCaseKernel {
+
+    static final String VECTOR_MODULE_NAME = "jdk.incubator.vector";
+
+    private static final String VECTOR_KERNEL_CLASS_NAME = IgnoreCaseKernel.class.getPackageName() + ".VectorIgnoreCaseKernel";
+
+
+    /**
+     * @param searchWord not {@code null}
+     * @param compareWord not {@code null}
+     * @return same as {@code Strings.CI.equals(searchWord, compareWord)}
+     */
+    abstract boolean equalsIgnoreCase(String searchWord, String compareWord);
+
+    /**
+     * @param compareWord not {@code null}
+     * @param searchWord not {@code null}
+     * @return same as {@code Strings.CI.indexOf(compareWord, searchWord)}
+     */
+    abstract int indexOfIgnoreCase(String compareWord, String searchWord);
+
+    /**
+     * @return the vector kernel if the JVM has been started with {@code --add-modules jdk.incubator.vector} and the cpu has wide enough
+     * vector registers, else the scalar kernel
+     */
+    static IgnoreCaseKernel getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    private static IgnoreCaseKernel select() {
+        // case: module not resolved, don't even load the vector kernel class
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE_NAME).isEmpty()) {
+            log.info("Using scalar search kernel, start with '--add-modules {}' to use the vector kernel", VECTOR_MODULE_NAME);
+            return new ScalarIgnoreCaseKernel();
+        }
+
+        try {
+            IgnoreCaseKernel kernel = (IgnoreCaseKernel) Class.forName(VECTOR_KERNEL_CLASS_NAME).getDeclaredConstructor().newInstance();
+            log.info("Using vector search kernel");
+
+            return kernel;
+
+        // case: not supported by cpu or module not usable
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+            log.info("Using scalar search kernel. {}", cause.getMessage());
+            return new ScalarIgnoreCaseKernel();
+        }
+    }
+
+    /**
+     * Selects the kernel on first call of {@link #getInstance()}. Not a field of {@link IgnoreCaseKernel} itself, since initializing a
+     * kernel class would then select (and instantiate) a kernel before that class is initialized.
+     *
+     * @since 1.2.0
+     */
+    private static final class InstanceHolder {
+
+        private static final IgnoreCaseKernel INSTANCE = select();
+    }
+}
@@ -0,0 +1,332 @@
+package net.code_notes.backend.helpers.search;
+
+import static net.code_notes.backend.helpers.Utils.isBlank;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Strings;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Inverted index of the words of one app user's notes. Maps every word (case folded, see {@link SearchStringUtils#foldCase(String)})
+ * to the ids of the notes containing that word.<p>
+ *
+ * Words are split exactly like {@link SearchStringUtils#matchPhrases(String, String)} does, which is why a note is returned as candidate
+ * by {@link #findCandidateIds(String)} if and only if {@code matchPhrases} would rate at least one of the note's indexed phrases with more than 0 points.<p>
+ *
+ * Search words with at least {@link #TRIGRAM_LENGTH} chars are only compared to indexed words sharing their rarest trigram, instead of scanning
+ * all indexed words. Shorter search words, words containing surrogate chars and words that may match fuzzy (see {@link FuzzyPattern}) are still 
+ * compared to every indexed word.<p>
+ *
+ * Thread safe.
+ *
+ * @since 1.2.0
+ */
+public class NoteSearchIndex {
+
+    /** Min length of search words to use the trigram index for */
+    static final int TRIGRAM_LENGTH = 3;
+
+    /** Folded word -> ids of notes containing the word */
+    private final Map<String, Set<Long>> noteIdsByWord = new HashMap<>();
+
+    /**
+     * Words containing surrogate chars cannot be folded (see {@link SearchStringUtils#hasSurrogates(String)}). Key is the word as is,
+     * value the ids of notes containing the word.
+     */
+    private final Map<String, Set<Long>> noteIdsBySurrogateWord = new HashMap<>();
+
+    /** Trigram (see {@link #getTrigram(String, int)}) -> keys of {@link #noteIdsByWord} containing that trigram */
+    private final Map<Long, Set<String>> wordsByTrigram = new HashMap<>();
+
+    /** Note id -> keys of {@link #noteIdsByWord} and {@link #noteIdsBySurrogateWord} for that note. Needed for removal */
+    private final Map<Long, Set<String>> wordsByNoteId = new HashMap<>();
+
+
+    /**
+     * Index the words of given {@code phrases} for given note. Replaces any previously indexed words of that note.
+     *
+     * @param noteId id of the note the phrases belong to
+     * @param phrases to index, e.g. {@code note.title}. {@code null} elements are ignored
+     * @throws IllegalArgumentException if {@code noteId} is {@code null}
+     */
+    public synchronized void put(Long noteId, @Nullable String ...phrases) throws IllegalArgumentException {
+        if (noteId == null)
+            throw new IllegalArgumentException("Failed to index note. 'noteId' cannot be null");
+
+        Set<String> keys = new HashSet<>();
+
+        if (phrases != null)
+            for (String phrase : phrases) {
+                if (isBlank(phrase))
+                    continue;
+
+                for (String word : phrase.split(" ")) {
+                    // case: phrase contained multiple consecutive whitespaces, matchPhrases ignores those
+                    if (isBlank(word))
+                        continue;
+
+                    keys.add(SearchStringUtils.hasSurrogates(word) ? word : SearchStringUtils.foldCase(word));
+                }
+            }
+
+        putKeys(noteId, keys);
+    }
+
+    /**
+     * Index already folded words for given note, e.g. when reading a {@link NoteSearchIndexSnapshot}. Replaces any previously indexed words of that note.
+     * 
+     * @param noteId id of the note the words belong to, not {@code null}
+     * @param keys folded words, or the words as is if they contain surrogate chars
+     */
+    synchronized void putKeys(Long noteId, Collection<String> keys) {
+        remove(noteId);
+
+        Set<String> noteWords = new HashSet<>(keys);
+        this.wordsByNoteId.put(noteId, noteWords);
+
+        noteWords.forEach(key -> getPostings(key).add(noteId));
+    }
+
+    /**
+     * Remove all words of given note from the index. Wont throw if note is not indexed.
+     *
+     * @param noteId id of the note to remove
+     */
+    public synchronized void remove(@Nullable Long noteId) {
+        if (noteId == null)
+            return;
+
+        Set<String> noteWords = this.wordsByNoteId.remove(noteId);
+        if (noteWords == null)
+            return;
+
+        for (String key : noteWords) {
+            Map<String, Set<Long>> noteIdsByKey = SearchStringUtils.hasSurrogates(key) ? this.noteIdsBySurrogateWord : this.noteIdsByWord;
+            Set<Long> noteIds = noteIdsByKey.get(key);
+            if (noteIds == null)
+                continue;
+
+            noteIds.remove(noteId);
+            if (noteIds.isEmpty()) {
+                noteIdsByKey.remove(key);
+                if (noteIdsByKey == this.noteIdsByWord)
+                    removeTrigrams(key);
+            }
+        }
+    }
+
+    /**
+     * @param searchPhrase e.g. user searchbar input
+     * @return the ids of candidate notes. Empty set if {@code searchPhrase} is blank. Never {@code null}
+     * @see #findCandidateIds(SearchQuery)
+     */
+    @NonNull
+    public Set<Long> findCandidateIds(@Nullable String searchPhrase) {
+        return findCandidateIds(SearchQuery.compile(searchPhrase));
+    }
+
+    /**
+     * Find the ids of all notes that have at least one word matching (exactly, approximately or fuzzy) at least one word of {@code searchQuery}.
+     * Only scans the distinct words of the index, not every note.
+     *
+     * @param searchQuery the compiled search phrase
+     * @return the ids of candidate notes. Empty set if the search phrase is blank. Never {@code null}
+     */
+    @NonNull
+    public synchronized Set<Long> findCandidateIds(@NonNull SearchQuery searchQuery) {
+        Set<Long> candidateIds = new HashSet<>();
+
+        if (searchQuery.isBlank())
+            return candidateIds;
+
+        for (int searchWordIndex = 0; searchWordIndex < searchQuery.getWordCount(); searchWordIndex++) {
+            // case: search contained multiple consecutive whitespaces, matchPhrases ignores those
+            if (searchQuery.isBlankWord(searchWordIndex))
+                continue;
+
+            String searchWord = searchQuery.getWord(searchWordIndex);
+
+            // case: cannot compare folded words, check every word as is
+            if (searchQuery.isSurrogateWord(searchWordIndex)) {
+                addCandidateIdsIgnoreCase(this.noteIdsByWord, searchWord, candidateIds);
+                addCandidateIdsIgnoreCase(this.noteIdsBySurrogateWord, searchWord, candidateIds);
+                continue;
+            }
+
+            // case: fuzzy matches don't need to share any trigram, check every word
+            if (searchQuery.isFuzzyWord(searchWordIndex)) {
+                addFuzzyCandidateIds(this.noteIdsByWord, searchQuery, searchWordIndex, true, candidateIds);
+                addFuzzyCandidateIds(this.noteIdsBySurrogateWord, searchQuery, searchWordIndex, false, candidateIds);
+                continue;
+            }
+
+            String foldedSearchWord = searchQuery.getFoldedWord(searchWordIndex);
+            // case: too short for trigrams, check every word
+            if (foldedSearchWord.length() < TRIGRAM_LENGTH)
+                addCandidateIds(this.noteIdsByWord.keySet(), foldedSearchWord, candidateIds);
+
+            else
+                addCandidateIds(getRarestTrigramWords(foldedSearchWord), foldedSearchWord, candidateIds);
+
+            addCandidateIdsIgnoreCase(this.noteIdsBySurrogateWord, searchWord, candidateIds);
+        }
+
+        return candidateIds;
+    }
+
+    /**
+     * @param noteId
+     * @return {@code true} if given note is indexed (even if it has no words)
+     */
+    public synchronized boolean contains(@Nullable Long noteId) {
+        return noteId != null && this.wordsByNoteId.containsKey(noteId);
+    }
+
+    /**
+     * @return a copy of the ids of all indexed notes
+     */
+    @NonNull
+    public synchronized Set<Long> getNoteIds() {
+        return new HashSet<>(this.wordsByNoteId.keySet());
+    }
+
+    /**
+     * @param noteId
+     * @return a copy of the indexed (folded) words of given note or {@code null} if the note is not indexed
+     */
+    @Nullable
+    public synchronized Set<String> getWords(@Nullable Long noteId) {
+        Set<String> noteWords = this.wordsByNoteId.get(noteId);
+
+        return noteWords == null ? null : new HashSet<>(noteWords);
+    }
+
+    /**
+     * @return a deep copy of the indexed words by note id, e.g. to write a {@link NoteSearchIndexSnapshot}
+     */
+    synchronized Map<Long, Set<String>> copyWordsByNoteId() {
+        Map<Long, Set<String>> wordsByNoteId = new HashMap<>(this.wordsByNoteId.size());
+        this.wordsByNoteId.forEach((noteId, noteWords) -> wordsByNoteId.put(noteId, new HashSet<>(noteWords)));
+
+        return wordsByNoteId;
+    }
+
+    /**
+     * @return the number of indexed notes
+     */
+    public synchronized int size() {
+        return this.wordsByNoteId.size();
+    }
+
+    /**
+     * @return the number of distinct trigrams of all indexed words (not counting surrogate words)
+     */
+    public synchronized int getTrigramCount() {
+        return this.wordsByTrigram.size();
+    }
+
+    /**
+     * @return the number of distinct indexed words
+     */
+    public synchronized int getWordCount() {
+        return this.noteIdsByWord.size() + this.noteIdsBySurrogateWord.size();
+    }
+
+    private Set<Long> getPostings(String key) {
+        Map<String, Set<Long>> noteIdsByKey = SearchStringUtils.hasSurrogates(key) ? this.noteIdsBySurrogateWord : this.noteIdsByWord;
+
+        return noteIdsByKey.computeIfAbsent(key, k -> {
+            // case: new word
+            if (noteIdsByKey == this.noteIdsByWord)
+                addTrigrams(key);
+
+            return new HashSet<>();
+        });
+    }
+
+    private void addTrigrams(String foldedWord) {
+        for (int i = 0; i <= foldedWord.length() - TRIGRAM_LENGTH; i++)
+            this.wordsByTrigram
+                .computeIfAbsent(getTrigram(foldedWord, i), trigram -> new HashSet<>())
+                .add(foldedWord);
+    }
+
+    private void removeTrigrams(String foldedWord) {
+        for (int i = 0; i <= foldedWord.length() - TRIGRAM_LENGTH; i++) {
+            long trigram = getTrigram(foldedWord, i);
+            Set<String> words = this.wordsByTrigram.get(trigram);
+            if (words == null)
+                continue;
+
+            words.remove(foldedWord);
+            if (words.isEmpty())
+                this.wordsByTrigram.remove(trigram);
+        }
+    }
+
+    /**
+     * Every indexed word containing {@code foldedSearchWord} contains all of it's trigrams, so the words of any trigram
+     * are a superset of the matching words. The rarest one is the smallest superset.
+     * 
+     * @param foldedSearchWord at least {@link #TRIGRAM_LENGTH} chars long
+     * @return the indexed words containing the rarest trigram of {@code foldedSearchWord}, empty if any trigram is not indexed at all
+     */
+    private Set<String> getRarestTrigramWords(String foldedSearchWord) {
+        Set<String> rarestTrigramWords = null;
+
+        for (int i = 0; i <= foldedSearchWord.length() - TRIGRAM_LENGTH; i++) {
+            Set<String> words = this.wordsByTrigram.get(getTrigram(foldedSearchWord, i));
+            // case: no indexed word contains this trigram
+            if (words == null)
+                return Set.of();
+
+            if (rarestTrigramWords == null || words.size() < rarestTrigramWords.size())
+                rarestTrigramWords = words;
+        }
+
+        return rarestTrigramWords;
+    }
+
+    /**
+     * @param word
+     * @param startIndex index of the first trigram char
+     * @return the 3 chars starting at {@code startIndex} packed into one number, which avoids creating a string per trigram
+     */
+    static long getTrigram(String word, int startIndex) {
+        return ((long) word.charAt(startIndex) << 32) | ((long) word.charAt(startIndex + 1) << 16) | word.charAt(startIndex + 2);
+    }
+
+    private void addCandidateIds(Set<String> foldedWords, String foldedSearchWord, Set<Long> candidateIds) {
+        for (String foldedWord : foldedWords)
+            if (foldedWord.contains(foldedSearchWord))
+                candidateIds.addAll(this.noteIdsByWord.get(foldedWord));
+    }
+
+    /**
+     * Fuzzy matches include the exact and approximate ones.
+     * 
+     * @param isFolded {@code true} if the keys of {@code noteIdsByKey} are folded words
+     */
+    private static void addFuzzyCandidateIds(Map<String, Set<Long>> noteIdsByKey, SearchQuery searchQuery, int searchWordIndex, boolean isFolded, Set<Long> candidateIds) {
+        noteIdsByKey.forEach((word, noteIds) -> {
+            if (searchQuery.fuzzyIndexOf(searchWordIndex, word, 0, word.length(), isFolded) != FuzzyPattern.NO_MATCH)
+                candidateIds.addAll(noteIds);
+        });
+    }
+
+    /**
+     * Slow path using {@link SearchStringUtils#isApproximateMatch(String, String)} (which covers exact matches as well).
+     */
+    private static void addCandidateIdsIgnoreCase(Map<String, Set<Long>> noteIdsByKey, String searchWord, Set<Long> candidateIds) {
+        noteIdsByKey.forEach((word, noteIds) -> {
+            if (Strings.CI.contains(word, searchWord))
+                candidateIds.addAll(noteIds);
+        });
+    }
+}
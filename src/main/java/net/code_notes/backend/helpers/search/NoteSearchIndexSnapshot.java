@@ -0,0 +1,209 @@
+package net.code_notes.backend.helpers.search;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jspecify.annotations.NonNull;
+
+import lombok.Getter;
+
+/**
+ * Binary snapshot of one app user's {@link NoteSearchIndex}, sothat the index does not need to be rebuilt from scratch after a restart.<p>
+ *
+ * The {@code watermark} is a point in time the snapshot is consistent with: every note updated before the watermark is contained
+ * with it's current words. Notes updated afterwards need to be replayed after reading the snapshot.<p>
+ *
+ * Files are read and written through memory mapped buffers. Layout (big endian):
+ * <pre>
+ * int magic, int version
+ * long watermark epoch seconds (as UTC), int watermark nanos
+ * int email hash length, email hash bytes (UTF-8)
+ * int word count, per word: int length, word bytes (UTF-8)
+ * int note count, per note: long note id, int word count, int index of every word
+ * </pre>
+ * Every word is stored once, notes reference words by index. The app user is identified by the hash of their email only, sothat snapshots
+ * don't contain personal data apart from the note words.
+ *
+ * @since 1.2.0
+ */
+@Getter
+public class NoteSearchIndexSnapshot {
+
+    /** "CNSI" */
+    private static final int MAGIC = 0x434E5349;
+
+    /** Increment whenever the layout, the indexed phrases or the way words are folded change, older snapshots will be discarded */
+    private static final int VERSION = 3;
+
+    /** E.g. {@code Utils.hashSha256(appUser.email)} */
+    private final String appUserEmailHash;
+
+    private final LocalDateTime watermark;
+
+    private final NoteSearchIndex noteSearchIndex;
+
+
+    /**
+     * @param appUserEmailHash of the app user the indexed notes belong to
+     * @param watermark see class comment
+     * @param noteSearchIndex to snapshot
+     * @throws IllegalArgumentException if any arg is {@code null}
+     */
+    public NoteSearchIndexSnapshot(String appUserEmailHash, LocalDateTime watermark, NoteSearchIndex noteSearchIndex) throws IllegalArgumentException {
+        if (appUserEmailHash == null || watermark == null || noteSearchIndex == null)
+            throw new IllegalArgumentException("Failed to create note search index snapshot. 'appUserEmailHash', 'watermark' and 'noteSearchIndex' cannot be null");
+
+        this.appUserEmailHash = appUserEmailHash;
+        this.watermark = watermark;
+        this.noteSearchIndex = noteSearchIndex;
+    }
+
+    /**
+     * Write this snapshot to a temp file next to {@code path} and replace {@code path} with it, sothat a crash never leaves a half
+     * written snapshot behind.
+     *
+     * @param path of the snapshot file. Parent dirs are created if missing
+     * @throws IOException if the file cannot be written or the snapshot is too large to be mapped
+     */
+    public void write(Path path) throws IOException {
+        Map<Long, Set<String>> wordsByNoteId = this.noteSearchIndex.copyWordsByNoteId();
+
+        // assign an index to every distinct word
+        Map<String, Integer> wordIndices = new HashMap<>();
+        List<byte[]> words = new ArrayList<>();
+        long size = 4 + 4 + 8 + 4 + 4 + 4 + 4;
+        byte[] appUserEmailHashBytes = this.appUserEmailHash.getBytes(StandardCharsets.UTF_8);
+        size += appUserEmailHashBytes.length;
+
+        for (Map.Entry<Long, Set<String>> entry : wordsByNoteId.entrySet()) {
+            size += 8 + 4 + 4l * entry.getValue().size();
+
+            for (String word : entry.getValue())
+                wordIndices.computeIfAbsent(word, w -> {
+                    words.add(w.getBytes(StandardCharsets.UTF_8));
+                    return words.size() - 1;
+                });
+        }
+
+        for (byte[] word : words)
+            size += 4 + word.length;
+
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Note search index snapshot is too large to be mapped (" + size + " bytes)");
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel fileChannel = FileChannel.open(tempPath, CREATE, READ, WRITE, TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong(this.watermark.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(this.watermark.getNano());
+            buffer.putInt(appUserEmailHashBytes.length);
+            buffer.put(appUserEmailHashBytes);
+
+            buffer.putInt(words.size());
+            for (byte[] word : words) {
+                buffer.putInt(word.length);
+                buffer.put(word);
+            }
+
+            buffer.putInt(wordsByNoteId.size());
+            for (Map.Entry<Long, Set<String>> entry : wordsByNoteId.entrySet()) {
+                buffer.putLong(entry.getKey());
+                buffer.putInt(entry.getValue().size());
+                for (String word : entry.getValue())
+                    buffer.putInt(wordIndices.get(word));
+            }
+
+            buffer.force();
+        }
+
+        Files.move(tempPath, path, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    /**
+     * @param path of a snapshot file written by {@link #write(Path)}
+     * @return the snapshot with a new index. Never {@code null}
+     * @throws IOException if the file cannot be read, is not a snapshot, has been written by another version or is corrupt
+     */
+    @NonNull
+    public static NoteSearchIndexSnapshot read(Path path) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(path, READ)) {
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not a note search index snapshot: " + path);
+
+            int version = buffer.getInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported note search index snapshot version " + version + ": " + path);
+
+            LocalDateTime watermark = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            String appUserEmailHash = getString(buffer);
+
+            String[] words = new String[getCount(buffer)];
+            for (int i = 0; i < words.length; i++)
+                words[i] = getString(buffer);
+
+            NoteSearchIndex noteSearchIndex = new NoteSearchIndex();
+            int noteCount = getCount(buffer);
+            for (int i = 0; i < noteCount; i++) {
+                long noteId = buffer.getLong();
+                List<String> noteWords = new ArrayList<>();
+
+                int noteWordCount = getCount(buffer);
+                for (int j = 0; j < noteWordCount; j++)
+                    noteWords.add(words[buffer.getInt()]);
+
+                noteSearchIndex.putKeys(noteId, noteWords);
+            }
+
+            return new NoteSearchIndexSnapshot(appUserEmailHash, watermark, noteSearchIndex);
+
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | DateTimeException e) {
+            throw new IOException("Corrupt note search index snapshot: " + path, e);
+        }
+    }
+
+    private static String getString(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[getCount(buffer)];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the next int, which must not be greater than the remaining bytes (every counted element takes at least one byte)
+     * @throws IllegalArgumentException if the count is invalid
+     */
+    private static int getCount(MappedByteBuffer buffer) throws IllegalArgumentException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining())
+            throw new IllegalArgumentException("Invalid count " + count);
+
+        return count;
+    }
+}
@@ -0,0 +1,204 @@
+package net.code_notes.backend.helpers.search;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import net.code_notes.backend.dto.SearchNoteDataDto;
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.dto.SearchNoteRatingDto;
+
+/**
+ * Rates note search candidates and keeps the best {@code k} matches.<p>
+ *
+ * Can either rate all notes on the calling thread using {@link #rateSequentially()} or be submitted to a {@code ForkJoinPool}, in which case
+ * the notes are split into chunks of at most {@code chunkSize} notes. Every chunk is rated into it's own {@link TopKSelector} and the
+ * selectors are merged afterwards. Both ways return the same result since the notes' indices are used as sequence numbers.<p>
+ *
+ * Notes are only rated if their upper bound (see {@link #getMaxRatingPoints(SearchNoteJpaDto, SearchNoteDataDto, SearchQuery)}) reaches the
+ * worst of the {@code k} matches kept so far. Notes that cannot be kept are still counted as matches, the result is the same as rating
+ * every note.<p>
+ *
+ * Rating stops early once the {@link SearchDeadline} is exceeded, in which case the result only contains the notes rated so far.
+ *
+ * @since 1.2.0
+ */
+public class NoteSearchRatingTask extends RecursiveTask<TopKSelector<SearchNoteRatingDto>> {
+
+    /** Number of notes to rate between two deadline checks */
+    private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+    private final List<SearchNoteJpaDto> noteDtos;
+
+    private final SearchNoteDataDto searchNoteData;
+
+    private final SearchQuery searchQuery;
+
+    /** Max number of matches to keep */
+    private final int k;
+
+    /** Max number of notes to rate without splitting this task any further */
+    private final int chunkSize;
+
+    /** Index of the first note to rate */
+    private final int fromIndex;
+
+    /** Index after the last note to rate */
+    private final int toIndex;
+
+    private final SearchDeadline deadline;
+
+
+    /**
+     * Overload. Rates all notes without a deadline.
+     */
+    public NoteSearchRatingTask(List<SearchNoteJpaDto> noteDtos, SearchNoteDataDto searchNoteData, SearchQuery searchQuery, int k, int chunkSize) throws IllegalArgumentException {
+        this(noteDtos, searchNoteData, searchQuery, k, chunkSize, SearchDeadline.NONE);
+    }
+
+    /**
+     * @param noteDtos to rate. Wont be modified
+     * @param searchNoteData the preloaded search data of {@code noteDtos}
+     * @param searchQuery to match notes against
+     * @param k max number of matches to keep, see {@link TopKSelector}
+     * @param chunkSize max number of notes rated by a single fork join task. Ignored by {@link #rateSequentially()}
+     * @param deadline to stop rating at
+     * @throws IllegalArgumentException if any arg is {@code null} or {@code chunkSize} is less than 1
+     */
+    public NoteSearchRatingTask(List<SearchNoteJpaDto> noteDtos, SearchNoteDataDto searchNoteData, SearchQuery searchQuery, int k, int chunkSize, SearchDeadline deadline) throws IllegalArgumentException {
+        this(noteDtos, searchNoteData, searchQuery, k, chunkSize, 0, noteDtos == null ? 0 : noteDtos.size(), deadline);
+
+        if (noteDtos == null || searchNoteData == null || searchQuery == null || deadline == null)
+            throw new IllegalArgumentException("Failed to create note search rating task. 'noteDtos', 'searchNoteData', 'searchQuery' and 'deadline' cannot be null");
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("'chunkSize' must be greater equal 1");
+    }
+
+    private NoteSearchRatingTask(List<SearchNoteJpaDto> noteDtos, SearchNoteDataDto searchNoteData, SearchQuery searchQuery, int k, int chunkSize, int fromIndex, int toIndex, SearchDeadline deadline) {
+        this.noteDtos = noteDtos;
+        this.searchNoteData = searchNoteData;
+        this.searchQuery = searchQuery;
+        this.k = k;
+        this.chunkSize = chunkSize;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Rate all notes of this task on the calling thread.
+     *
+     * @return the best {@code k} matches and the total number of matches. Never {@code null}
+     */
+    @NonNull
+    public TopKSelector<SearchNoteRatingDto> rateSequentially() {
+        TopKSelector<SearchNoteRatingDto> topNoteRatings = new TopKSelector<>(this.k, SearchNoteRatingDto.BEST_FIRST);
+
+        for (int i = this.fromIndex; i < this.toIndex; i++) {
+            // case: out of time, return partial result
+            if ((i - this.fromIndex) % DEADLINE_CHECK_INTERVAL == 0 && this.deadline.isExceeded())
+                break;
+
+            SearchNoteJpaDto noteDto = this.noteDtos.get(i);
+            double maxRatingPoints = getMaxRatingPoints(noteDto, this.searchNoteData, this.searchQuery);
+            // case: no match
+            if (maxRatingPoints == 0)
+                continue;
+
+            // case: match, but cannot beat the worst kept match
+            if (maxRatingPoints < getMinRatingPointsToKeep(topNoteRatings)) {
+                topNoteRatings.skip();
+                continue;
+            }
+
+            double ratingPoints = rate(noteDto, this.searchNoteData, this.searchQuery);
+
+            // only show matches
+            if (ratingPoints > 0)
+                topNoteRatings.offer(new SearchNoteRatingDto(noteDto, ratingPoints), i);
+        }
+
+        return topNoteRatings;
+    }
+
+    @Override
+    protected TopKSelector<SearchNoteRatingDto> compute() {
+        if (this.toIndex - this.fromIndex <= this.chunkSize)
+            return rateSequentially();
+
+        int middleIndex = (this.fromIndex + this.toIndex) >>> 1;
+        NoteSearchRatingTask leftTask = new NoteSearchRatingTask(this.noteDtos, this.searchNoteData, this.searchQuery, this.k, this.chunkSize, this.fromIndex, middleIndex, this.deadline);
+        NoteSearchRatingTask rightTask = new NoteSearchRatingTask(this.noteDtos, this.searchNoteData, this.searchQuery, this.k, this.chunkSize, middleIndex, this.toIndex, this.deadline);
+
+        leftTask.fork();
+        TopKSelector<SearchNoteRatingDto> rightTopNoteRatings = rightTask.compute();
+
+        return leftTask.join().merge(rightTopNoteRatings);
+    }
+
+    /**
+     * Upper bound of {@link #rate(SearchNoteJpaDto, SearchNoteDataDto, SearchQuery)}, see {@link SearchStringUtils#getMaxNormalizedPhrasesPoints(SearchQuery, String)}.
+     *
+     * @param noteDto to estimate
+     * @param searchNoteData containing the preloaded search tokens
+     * @param searchQuery to match note against
+     * @return rating points greater equal the note's rating points, 0 if and only if the note is no match. Infinity if the note title
+     * has not been normalized yet
+     */
+    static double getMaxRatingPoints(@Nullable SearchNoteJpaDto noteDto, @Nullable SearchNoteDataDto searchNoteData, @Nullable SearchQuery searchQuery) {
+        if (noteDto == null || searchNoteData == null || searchQuery == null || searchQuery.isBlank())
+            return 0;
+
+        // case: cannot estimate
+        if (noteDto.getNormalizedTitle() == null)
+            return Double.POSITIVE_INFINITY;
+
+        double maxRatingPoints = SearchStringUtils.getMaxNormalizedPhrasesPoints(searchQuery, noteDto.getNormalizedTitle());
+        for (String noteInputSearchTokens : searchNoteData.getNoteInputSearchTokens(noteDto.getId()))
+            maxRatingPoints = Math.max(maxRatingPoints, SearchStringUtils.getMaxNormalizedPhrasesPoints(searchQuery, noteInputSearchTokens));
+
+        return maxRatingPoints;
+    }
+
+    /**
+     * @param topNoteRatings the matches kept so far
+     * @return the rating points a match needs to reach in order to possibly be kept. 0 if any match would be kept
+     */
+    private static double getMinRatingPointsToKeep(TopKSelector<SearchNoteRatingDto> topNoteRatings) {
+        if (!topNoteRatings.isFull())
+            return 0;
+
+        SearchNoteRatingDto worstNoteRating = topNoteRatings.peekWorst();
+        // case: k is 0, counting only
+        if (worstNoteRating == null)
+            return Double.POSITIVE_INFINITY;
+
+        return worstNoteRating.getRatingPoints();
+    }
+
+    /**
+     * Match {@code searchQuery} against the normalized {@code note.title} and the search tokens of every note input.
+     *
+     * @param noteDto to rate
+     * @param searchNoteData containing the preloaded search tokens
+     * @param searchQuery to match note against
+     * @return the best rating points of all phrases, 0 if invalid args or no match
+     */
+    public static double rate(@Nullable SearchNoteJpaDto noteDto, @Nullable SearchNoteDataDto searchNoteData, @Nullable SearchQuery searchQuery) {
+        if (noteDto == null || searchNoteData == null || searchQuery == null || searchQuery.isBlank())
+            return 0;
+
+        // match note.title, case: not normalized yet
+        double ratingPoints = noteDto.getNormalizedTitle() == null ? 
+            SearchStringUtils.matchPhrases(searchQuery, noteDto.getTitle()) : 
+            SearchStringUtils.matchNormalizedPhrases(searchQuery, noteDto.getNormalizedTitle());
+
+        // match note.noteInputs.searchTokens
+        for (String noteInputSearchTokens : searchNoteData.getNoteInputSearchTokens(noteDto.getId()))
+            ratingPoints = Math.max(ratingPoints, SearchStringUtils.matchNormalizedPhrases(searchQuery, noteInputSearchTokens));
+
+        return ratingPoints;
+    }
+}
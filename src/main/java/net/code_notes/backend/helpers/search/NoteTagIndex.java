@@ -0,0 +1,191 @@
+package net.code_notes.backend.helpers.search;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import net.code_notes.backend.abstracts.TagMatchMode;
+
+/**
+ * Tag filter of one app user's notes. Every note gets a dense ordinal and every tag name a bitset of the ordinals of the notes having
+ * that tag, sothat filtering by tags is an OR ({@link TagMatchMode#ANY}) or AND ({@link TagMatchMode#ALL}) of a few bitsets instead
+ * of a join.<p>
+ *
+ * Ordinals are ordered by {@code note.created} and then by id, the highest ordinal being the newest note. Notes need to be added in that
+ * order. The index is never updated, but rebuilt for every new notes version (see {@code NoteTagIndexService}).<p>
+ *
+ * Since ordinals are dense there's no need for compressed bitmaps, a plain {@link BitSet} takes one bit per note of the app user.<p>
+ *
+ * Tag names are matched ignoring case (see {@link SearchStringUtils#foldCodePoints(String)}), like the case insensitive collation of 
+ * {@code tag.name} in db does.<p>
+ *
+ * Thread safe.
+ *
+ * @since 1.2.0
+ */
+public class NoteTagIndex {
+
+    /** Ordinal -> note id */
+    private final List<Long> noteIds = new ArrayList<>();
+
+    private final Set<Long> addedNoteIds = new HashSet<>();
+
+    /** Folded tag name -> ordinals of the notes having that tag. Contains no empty bitsets */
+    private final Map<String, BitSet> ordinalsByTagName = new HashMap<>();
+
+    /** {@code note.created} of the last added note */
+    @Nullable
+    private LocalDateTime lastCreated;
+
+
+    /**
+     * Add given note as the newest one.
+     *
+     * @param noteId id of the note
+     * @param created {@code note.created}, not before the one of the last added note
+     * @param tagNames of the note, may be {@code null}
+     * @throws IllegalArgumentException if {@code noteId} or {@code created} is {@code null}, if the note has been added already or if
+     * it is added out of created order
+     */
+    public synchronized void add(Long noteId, LocalDateTime created, @Nullable Collection<String> tagNames) throws IllegalArgumentException {
+        if (noteId == null || created == null)
+            throw new IllegalArgumentException("Failed to add note tags. 'noteId' and 'created' cannot be null");
+
+        if (this.lastCreated != null && created.isBefore(this.lastCreated))
+            throw new IllegalArgumentException("Failed to add note tags. Notes need to be added in created order");
+
+        if (!this.addedNoteIds.add(noteId))
+            throw new IllegalArgumentException("Failed to add note tags. Note has been added already");
+
+        int ordinal = this.noteIds.size();
+        this.noteIds.add(noteId);
+        this.lastCreated = created;
+
+        for (String tagName : foldTagNames(tagNames))
+            this.ordinalsByTagName.computeIfAbsent(tagName, key -> new BitSet()).set(ordinal);
+    }
+
+    /**
+     * @param tagNames to filter by. If empty all notes match
+     * @param tagMatchMode how to combine {@code tagNames}, {@code null} means {@link TagMatchMode#ANY}
+     * @param offset number of matching notes to skip
+     * @param limit max number of note ids to return
+     * @return ids of the notes matching the tag filter, newest {@code note.created} first. Never {@code null}
+     */
+    @NonNull
+    public synchronized List<Long> findNoteIds(@Nullable Collection<String> tagNames, @Nullable TagMatchMode tagMatchMode, long offset, int limit) {
+        List<Long> noteIds = new ArrayList<>();
+        if (limit <= 0)
+            return noteIds;
+
+        BitSet matches = match(tagNames, tagMatchMode);
+        long skipped = 0;
+        for (int ordinal = matches.length() - 1; ordinal >= 0 && noteIds.size() < limit; ordinal = matches.previousSetBit(ordinal - 1)) {
+            if (skipped++ < offset)
+                continue;
+
+            noteIds.add(this.noteIds.get(ordinal));
+        }
+
+        return noteIds;
+    }
+
+    /**
+     * @param tagNames to filter by. If empty all notes match
+     * @param tagMatchMode how to combine {@code tagNames}, {@code null} means {@link TagMatchMode#ANY}
+     * @return ids of all notes matching the tag filter, in no particular order. Never {@code null}
+     */
+    @NonNull
+    public synchronized Set<Long> getNoteIds(@Nullable Collection<String> tagNames, @Nullable TagMatchMode tagMatchMode) {
+        BitSet matches = match(tagNames, tagMatchMode);
+        Set<Long> noteIds = new HashSet<>(Math.max(16, (int) (matches.cardinality() / 0.75f) + 1));
+        matches.stream().forEach(ordinal -> noteIds.add(this.noteIds.get(ordinal)));
+
+        return noteIds;
+    }
+
+    /**
+     * @param tagNames to filter by. If empty all notes match
+     * @param tagMatchMode how to combine {@code tagNames}, {@code null} means {@link TagMatchMode#ANY}
+     * @return number of notes matching the tag filter
+     */
+    public synchronized int count(@Nullable Collection<String> tagNames, @Nullable TagMatchMode tagMatchMode) {
+        return match(tagNames, tagMatchMode).cardinality();
+    }
+
+    /**
+     * @return number of notes
+     */
+    public synchronized int size() {
+        return this.noteIds.size();
+    }
+
+    /**
+     * @return number of distinct tag names
+     */
+    public synchronized int getTagCount() {
+        return this.ordinalsByTagName.size();
+    }
+
+    /**
+     * @param tagNames
+     * @param tagMatchMode
+     * @return a new bitset of the ordinals matching the tag filter
+     */
+    private BitSet match(@Nullable Collection<String> tagNames, @Nullable TagMatchMode tagMatchMode) {
+        if (tagNames == null || tagNames.isEmpty()) {
+            BitSet matches = new BitSet(this.noteIds.size());
+            matches.set(0, this.noteIds.size());
+            return matches;
+        }
+
+        BitSet matches = null;
+        for (String tagName : foldTagNames(tagNames)) {
+            BitSet tagOrdinals = this.ordinalsByTagName.get(tagName);
+
+            if (tagMatchMode == TagMatchMode.ALL) {
+                // case: no note has this tag
+                if (tagOrdinals == null)
+                    return new BitSet();
+
+                if (matches == null)
+                    matches = (BitSet) tagOrdinals.clone();
+                else
+                    matches.and(tagOrdinals);
+
+            } else if (tagOrdinals != null) {
+                if (matches == null)
+                    matches = (BitSet) tagOrdinals.clone();
+                else
+                    matches.or(tagOrdinals);
+            }
+        }
+
+        return matches == null ? new BitSet() : matches;
+    }
+
+    /**
+     * @param tagNames may be {@code null}
+     * @return the distinct folded {@code tagNames} without {@code null}, never {@code null}
+     */
+    private static Set<String> foldTagNames(@Nullable Collection<String> tagNames) {
+        Set<String> foldedTagNames = new HashSet<>();
+        if (tagNames == null)
+            return foldedTagNames;
+
+        for (String tagName : tagNames)
+            if (tagName != null)
+                foldedTagNames.add(SearchStringUtils.foldCodePoints(tagName));
+
+        return foldedTagNames;
+    }
+}
@@ -0,0 +1,22 @@
+package net.code_notes.backend.helpers.search;
+
+import org.apache.commons.lang3.Strings;
+
+/**
+ * Delegates to {@code Strings.CI}. Used if the vector API is not available and by {@link VectorIgnoreCaseKernel} for inputs too short
+ * to vectorize.
+ *
+ * @since 1.2.0
+ */
+final class ScalarIgnoreCaseKernel extends IgnoreCaseKernel {
+
+    @Override
+    boolean equalsIgnoreCase(String searchWord, String compareWord) {
+        return Strings.CI.equals(searchWord, compareWord);
+    }
+
+    @Override
+    int indexOfIgnoreCase(String compareWord, String searchWord) {
+        return Strings.CI.indexOf(compareWord, searchWord);
+    }
+}
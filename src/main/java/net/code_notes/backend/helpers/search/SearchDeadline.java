@@ -0,0 +1,67 @@
+package net.code_notes.backend.helpers.search;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Point in time after which a note search should stop rating and return what it has found so far. Rating is cpu bound, so the time
+ * passed since creating the deadline approximates the cpu time spent (per thread when rating in parallel).<p>
+ * 
+ * Thread safe. Once exceeded, stays exceeded.
+ * 
+ * @since 1.2.0
+ */
+public class SearchDeadline {
+
+    /** Never exceeded */
+    public static final SearchDeadline NONE = new SearchDeadline(Long.MAX_VALUE, true);
+
+    private final long deadlineNanos;
+
+    private final boolean isUnlimited;
+
+    private volatile boolean isExceeded = false;
+
+
+    private SearchDeadline(long deadlineNanos, boolean isUnlimited) {
+        this.deadlineNanos = deadlineNanos;
+        this.isUnlimited = isUnlimited;
+    }
+
+    /**
+     * @param budgetMillis time from now until the deadline is exceeded. 0 or less means no deadline
+     * @return the deadline, {@link #NONE} if {@code budgetMillis} is 0 or less
+     */
+    @NonNull
+    public static SearchDeadline afterMillis(long budgetMillis) {
+        if (budgetMillis <= 0)
+            return NONE;
+
+        return new SearchDeadline(System.nanoTime() + budgetMillis * 1_000_000, false);
+    }
+
+    /**
+     * @return {@code true} if the deadline has passed
+     */
+    public boolean isExceeded() {
+        if (this.isExceeded)
+            return true;
+
+        if (this.isUnlimited)
+            return false;
+
+        // compare the difference, nano time may overflow
+        if (System.nanoTime() - this.deadlineNanos >= 0)
+            this.isExceeded = true;
+
+        return this.isExceeded;
+    }
+
+    /**
+     * Does not look at the clock, sothat work that has completed just before the deadline is not considered partial.
+     * 
+     * @return {@code true} if {@link #isExceeded()} has returned {@code true} before
+     */
+    public boolean wasExceeded() {
+        return this.isExceeded;
+    }
+}
@@ -0,0 +1,287 @@
+package net.code_notes.backend.helpers.search;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import lombok.Getter;
+import net.code_notes.backend.helpers.Utils;
+
+/**
+ * A search phrase compiled once per search request and then matched against many compare phrases using
+ * {@link SearchStringUtils#matchPhrases(SearchQuery, String)}. Holds the words of the phrase (split like {@code searchPhrase.split(" ")}),
+ * their case folded form and lengths. Immutable and thus thread safe.
+ *
+ * @since 1.2.0
+ */
+public class SearchQuery {
+
+    /** The search phrase as passed to {@link #compile(String)} */
+    @Getter
+    @Nullable
+    private final String phrase;
+
+    /** {@code true} if {@link #phrase} is blank, in which case there are no words */
+    @Getter
+    private final boolean blank;
+
+    /** {@code true} if words may match with a few edits as well, see {@link FuzzyPattern} */
+    @Getter
+    private final boolean fuzzy;
+
+    /** Word {@code i} of the phrase, including blank words in order to keep the word indices. */
+    private final String[] words;
+
+    /** {@link SearchStringUtils#foldCase(String)} of {@code words[i]} */
+    private final String[] foldedWords;
+
+    /** {@link SearchStringUtils#foldCodePoints(String)} of {@code words[i]}, compared to normalized phrases */
+    private final String[] normalizedWords;
+
+    private final int[] wordLengths;
+
+    /** {@code true} if {@code words[i]} is blank and should not be matched */
+    private final boolean[] blankWords;
+
+    /** {@code true} if {@code words[i]} contains surrogate chars, meaning that {@code foldedWords[i]} must not be used for comparison */
+    private final boolean[] surrogateWords;
+
+    /** First char of {@code foldedWords[i]}, used to skip positions of a compare word that cannot be the start of a match */
+    private final char[] foldedFirstChars;
+
+    /** {@code foldedWords[i]} compiled for fuzzy matching, {@code null} if not {@link #fuzzy} or if the word cannot match fuzzy */
+    private final FuzzyPattern[] fuzzyPatterns;
+
+
+    private SearchQuery(@Nullable String phrase, boolean fuzzy) {
+        this.phrase = phrase;
+        this.blank = Utils.isBlank(phrase);
+        this.fuzzy = fuzzy;
+
+        this.words = this.blank ? new String[0] : phrase.split(" ");
+        this.foldedWords = new String[this.words.length];
+        this.normalizedWords = new String[this.words.length];
+        this.wordLengths = new int[this.words.length];
+        this.blankWords = new boolean[this.words.length];
+        this.surrogateWords = new boolean[this.words.length];
+        this.foldedFirstChars = new char[this.words.length];
+        this.fuzzyPatterns = new FuzzyPattern[this.words.length];
+
+        for (int i = 0; i < this.words.length; i++) {
+            String word = this.words[i];
+
+            this.foldedWords[i] = SearchStringUtils.foldCase(word);
+            this.normalizedWords[i] = SearchStringUtils.foldCodePoints(word);
+            this.wordLengths[i] = word.length();
+            this.blankWords[i] = Utils.isBlank(word);
+            this.surrogateWords[i] = SearchStringUtils.hasSurrogates(word);
+            this.foldedFirstChars[i] = word.isEmpty() ? 0 : this.foldedWords[i].charAt(0);
+            this.fuzzyPatterns[i] = fuzzy ? FuzzyPattern.compile(this.foldedWords[i]) : null;
+        }
+    }
+
+    /**
+     * @param searchPhrase e.g. user searchbar input
+     * @return the compiled query without fuzzy matching, never {@code null}
+     */
+    @NonNull
+    public static SearchQuery compile(@Nullable String searchPhrase) {
+        return compile(searchPhrase, false);
+    }
+
+    /**
+     * @param searchPhrase e.g. user searchbar input
+     * @param fuzzy whether words that are neither equal to nor contained in a compare word may match with a few edits, see {@link FuzzyPattern}
+     * @return the compiled query, never {@code null}
+     */
+    @NonNull
+    public static SearchQuery compile(@Nullable String searchPhrase, boolean fuzzy) {
+        return new SearchQuery(searchPhrase, fuzzy);
+    }
+
+    /**
+     * @return the number of words including blank ones
+     */
+    public int getWordCount() {
+        return this.words.length;
+    }
+
+    /**
+     * @param wordIndex
+     * @return the word at given index as it is in {@link #phrase}
+     */
+    public String getWord(int wordIndex) {
+        return this.words[wordIndex];
+    }
+
+    /**
+     * @param wordIndex
+     * @return the case folded word at given index, see {@link SearchStringUtils#foldCase(String)}
+     */
+    public String getFoldedWord(int wordIndex) {
+        return this.foldedWords[wordIndex];
+    }
+
+    public int getWordLength(int wordIndex) {
+        return this.wordLengths[wordIndex];
+    }
+
+    /**
+     * @param wordIndex
+     * @return {@code true} if the word at given index is blank and should not be matched
+     */
+    public boolean isBlankWord(int wordIndex) {
+        return this.blankWords[wordIndex];
+    }
+
+    /**
+     * @param wordIndex
+     * @return {@code true} if the word at given index contains surrogate chars, see {@link SearchStringUtils#hasSurrogates(String)}
+     */
+    public boolean isSurrogateWord(int wordIndex) {
+        return this.surrogateWords[wordIndex];
+    }
+
+    /**
+     * @param wordIndex
+     * @return {@code true} if the word at given index may match fuzzy, see {@link #fuzzyIndexOf(int, String, int, int, boolean)}
+     */
+    public boolean isFuzzyWord(int wordIndex) {
+        return this.fuzzyPatterns[wordIndex] != null;
+    }
+
+    /**
+     * Same as {@link SearchStringUtils#isExactMatch(String, String)} for the word at {@code wordIndex} and {@code text[start, end)}.
+     *
+     * @param wordIndex index of the search word
+     * @param text containing the compare word
+     * @param start index of the first char of the compare word
+     * @param end index after the last char of the compare word
+     * @return {@code true} if the compare word equals the search word ignoring case
+     */
+    boolean equalsIgnoreCase(int wordIndex, String text, int start, int end) {
+        int wordLength = this.wordLengths[wordIndex];
+
+        return wordLength == end - start &&
+               text.regionMatches(true, start, this.words[wordIndex], 0, wordLength);
+    }
+
+    /**
+     * Same as {@code Strings.CI.indexOf(compareWord, searchWord)} for the word at {@code wordIndex} and {@code compareWord = text[start, end)}.
+     * Only compares the whole word at positions where the first char matches.
+     *
+     * @param wordIndex index of the search word
+     * @param text containing the compare word
+     * @param start index of the first char of the compare word
+     * @param end index after the last char of the compare word
+     * @return the index of the first match relative to {@code start} or -1 if the compare word does not contain the search word
+     */
+    int indexOfIgnoreCase(int wordIndex, String text, int start, int end) {
+        String word = this.words[wordIndex];
+        int wordLength = this.wordLengths[wordIndex];
+        int lastPossibleStart = end - wordLength;
+
+        // case: cannot use folded chars
+        boolean isFirstCharComparable = wordLength > 0 && !this.surrogateWords[wordIndex];
+        char foldedFirstChar = this.foldedFirstChars[wordIndex];
+
+        for (int i = start; i <= lastPossibleStart; i++) {
+            if (isFirstCharComparable) {
+                char c = text.charAt(i);
+                if (c != foldedFirstChar && SearchStringUtils.foldCase(c) != foldedFirstChar)
+                    continue;
+            }
+
+            if (text.regionMatches(true, i, word, 0, wordLength))
+                return i - start;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Same as {@link #equalsIgnoreCase(int, String, int, int)} for a normalized {@code text} (see {@link SearchStringUtils#normalize(String, int)}),
+     * using an ordinal comparison.
+     *
+     * @param wordIndex index of the search word
+     * @param text containing the normalized compare word
+     * @param start index of the first char of the compare word
+     * @param end index after the last char of the compare word
+     * @return {@code true} if the compare word equals the normalized search word
+     */
+    boolean equalsNormalized(int wordIndex, String text, int start, int end) {
+        String normalizedWord = this.normalizedWords[wordIndex];
+
+        return normalizedWord.length() == end - start &&
+               text.startsWith(normalizedWord, start);
+    }
+
+    /**
+     * Same as {@link #indexOfIgnoreCase(int, String, int, int)} for a normalized {@code text} (see {@link SearchStringUtils#normalize(String, int)}),
+     * using ordinal comparisons.
+     *
+     * @param wordIndex index of the search word
+     * @param text containing the normalized compare word
+     * @param start index of the first char of the compare word
+     * @param end index after the last char of the compare word
+     * @return the index of the first match relative to {@code start} or -1 if the compare word does not contain the normalized search word
+     */
+    int indexOfNormalized(int wordIndex, String text, int start, int end) {
+        String normalizedWord = this.normalizedWords[wordIndex];
+        int lastPossibleStart = end - normalizedWord.length();
+
+        // case: empty word, contained everywhere
+        if (normalizedWord.isEmpty())
+            return 0;
+
+        char firstChar = normalizedWord.charAt(0);
+        for (int i = start; i <= lastPossibleStart; i++)
+            if (text.charAt(i) == firstChar && text.startsWith(normalizedWord, i))
+                return i - start;
+
+        return -1;
+    }
+
+    /**
+     * @param wordIndex index of the search word
+     * @param text normalized text, see {@link SearchStringUtils#normalize(String, int)}
+     * @return the number of (possibly overlapping) occurrences of the normalized search word in {@code text}
+     */
+    int countNormalizedOccurrences(int wordIndex, String text) {
+        String normalizedWord = this.normalizedWords[wordIndex];
+        // case: empty word, should not be matched anyway
+        if (normalizedWord.isEmpty())
+            return 0;
+
+        int numOccurrences = 0;
+        for (int i = text.indexOf(normalizedWord); i != -1; i = text.indexOf(normalizedWord, i + 1))
+            numOccurrences++;
+
+        return numOccurrences;
+    }
+
+    /**
+     * Fuzzy match of the word at {@code wordIndex} and {@code text[start, end)}, see {@link FuzzyPattern#indexOf(String, int, int, boolean)}.
+     * Also matches if the compare word contains the search word (with 0 edits).
+     *
+     * @param wordIndex index of the search word
+     * @param text containing the compare word
+     * @param start index of the first char of the compare word
+     * @param end index after the last char of the compare word
+     * @param isNormalized {@code true} if {@code text} is normalized, see {@link SearchStringUtils#normalize(String, int)}
+     * @return the packed match or {@link FuzzyPattern#NO_MATCH} if there's none or the search word cannot match fuzzy
+     */
+    long fuzzyIndexOf(int wordIndex, String text, int start, int end, boolean isNormalized) {
+        FuzzyPattern fuzzyPattern = this.fuzzyPatterns[wordIndex];
+
+        return fuzzyPattern == null ? FuzzyPattern.NO_MATCH : fuzzyPattern.indexOf(text, start, end, isNormalized);
+    }
+
+    /**
+     * @param wordIndex index of a search word that may match fuzzy, see {@link #isFuzzyWord(int)}
+     * @param text normalized text, see {@link SearchStringUtils#normalize(String, int)}
+     * @return the number of words of {@code text} the search word matches fuzzy (including those containing the search word)
+     */
+    int countFuzzyNormalizedMatches(int wordIndex, String text) {
+        return this.fuzzyPatterns[wordIndex].countMatchingWords(text);
+    }
+}
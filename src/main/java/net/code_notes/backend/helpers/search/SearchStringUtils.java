@@ -3,14 +3,12 @@ package net.code_notes.backend.helpers.search;
 import static net.code_notes.backend.helpers.Utils.assertArgsNullOrBlank;
 import static net.code_notes.backend.helpers.Utils.isBlank;
 
-import java.util.LinkedList;
-import java.util.List;
-
 import org.apache.commons.lang3.Strings;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
 import net.code_notes.backend.abstracts.AbstractSearchStringMatchRating;
+import net.code_notes.backend.helpers.Utils;
 
 /**
  * Contains helpers for searching and comparing strings.<p>
@@ -22,6 +20,8 @@ import net.code_notes.backend.abstracts.AbstractSearchStringMatchRating;
  * <ul>
  *  <li><b>exact match:</b>: Equals ignore case. Handle {@code null} gracefully sothat if both search- and compareWord are {@code null} it's considered an exact match as well.</li>
  *  <li><b>approximate match:</b>: Contains ignore case. Handle {@code null} gracefully sothat if both search- and compareWord are {@code null} it's considered an approximate match as well.</li>
+ *  <li><b>fuzzy match:</b>: Only if enabled for the search. Some substring of the compareWord equals the searchWord ignoring case after a few edits, 
+ *      e.g. "confgiuration" matches "configuration". See {@link FuzzyPattern}.</li>
  *  <li><b>adjacent match:</b>: Two search words directly next to eachother find matches in either two compare words directly next to eachother or two substrings in the same compare word directly or not directly next to 
  *      eachother (not overlapping though). Order needs to be the same. See {@link #isMatchAdjacent(SearchStringMatch, SearchStringMatch)}.
  *  </li>
@@ -34,64 +34,203 @@ import net.code_notes.backend.abstracts.AbstractSearchStringMatchRating;
  */
 public abstract class SearchStringUtils {
 
+    /** Shared instances, ratings are never altered by this class */
+    private static final ExactSearchStringMatchRating EXACT_MATCH_RATING = new ExactSearchStringMatchRating();
+    private static final ApproximateSearchStringMatchRating APPROXIMATE_MATCH_RATING = new ApproximateSearchStringMatchRating();
+    private static final AdjacentSearchStringMatchRating ADJACENT_MATCH_RATING = new AdjacentSearchStringMatchRating();
+    /** Index is the number of edits */
+    private static final FuzzySearchStringMatchRating[] FUZZY_MATCH_RATINGS = new FuzzySearchStringMatchRating[FuzzyPattern.MAX_EDITS + 1];
+    static {
+        for (int edits = 0; edits < FUZZY_MATCH_RATINGS.length; edits++)
+            FUZZY_MATCH_RATINGS[edits] = new FuzzySearchStringMatchRating(edits);
+    }
+
+    /** Vector or scalar, chosen once at startup */
+    private static final IgnoreCaseKernel IGNORE_CASE_KERNEL = IgnoreCaseKernel.getInstance();
+
+    /** Reusable buffers for {@link #matchPhrases(SearchQuery, String)}, one instance per thread */
+    private static final ThreadLocal<MatchPhrasesScratch> MATCH_PHRASES_SCRATCH = ThreadLocal.withInitial(MatchPhrasesScratch::new);
+
     /**
      * Asses how well the {@code searchPhrase} matches the {@code comparePhrase} by giving it a rating.<p>
      * 
+     * Compiles the {@code searchPhrase} on every call, use {@link #matchPhrases(SearchQuery, String)} when matching the same search phrase 
+     * against many compare phrases.
+     * 
+     * @param searchPhrase
+     * @param comparePhrase
+     * @return the rating points
+     * @see #matchPhrases(SearchQuery, String)
+     */
+    public static double matchPhrases(@Nullable String searchPhrase, @Nullable String comparePhrase) {
+        return matchPhrases(SearchQuery.compile(searchPhrase), comparePhrase);
+    }
+
+    /**
+     * Asses how well the {@code searchQuery} matches the {@code comparePhrase} by giving it a rating.<p>
+     * 
      * <ul>
      *  <li>Both phrases are split into their words.</li>
      *  <li>Each search word can have one match at most. The match with the highest rating will be used.</li>
+     *  <li>If {@code searchQuery} is fuzzy, search words may match compare words they are neither equal to nor contained in with a few edits.</li>
      *  <li>Additional rating points are added for every adjacent match a search word has.</li>
      * </ul> 
      * 
-     * @param searchPhrase
+     * Does not allocate any objects (unless a phrase is blank): compare words are never extracted from the phrase but referenced by their
+     * start and end indices and matches are kept in primitive arrays that are reused by the current thread.
+     * 
+     * @param searchQuery the compiled search phrase
      * @param comparePhrase
      * @return the rating points
      * @see {@link AbstractSearchStringMatchRating} implementations for the exact rating point amounts
      */
-    public static double matchPhrases(@Nullable String searchPhrase, @Nullable String comparePhrase) {
-        if (isBlank(searchPhrase) || isBlank(comparePhrase))
-            return matchWords(searchPhrase, comparePhrase).getRating().getPoints();
+    public static double matchPhrases(@NonNull SearchQuery searchQuery, @Nullable String comparePhrase) {
+        return matchPhrases(searchQuery, comparePhrase, false);
+    }
+
+    /**
+     * Same as {@link #matchPhrases(SearchQuery, String)} for a compare phrase that has been normalized at save time using {@link #normalize(String, int)}. 
+     * Words are compared using plain ordinal comparisons instead of ignoring case on every comparison.<p>
+     * 
+     * Yields the same rating points as {@code matchPhrases(searchQuery, comparePhrase)} if {@code comparePhrase} contains no whitespace
+     * other than single spaces.
+     * 
+     * @param searchQuery the compiled search phrase
+     * @param normalizedComparePhrase the normalized compare phrase, e.g. {@code note.normalizedTitle}
+     * @return the rating points
+     */
+    public static double matchNormalizedPhrases(@NonNull SearchQuery searchQuery, @Nullable String normalizedComparePhrase) {
+        return matchPhrases(searchQuery, normalizedComparePhrase, true);
+    }
+
+    /**
+     * Upper bound of {@link #matchNormalizedPhrases(SearchQuery, String)} that only searches for occurrences of every search word in the whole phrase 
+     * instead of matching it against every compare word. Every occurring search word may be an exact match and every adjacent pair of occurring 
+     * search words may have two adjacent matches per occurrence (one within the same compare word, one in the next compare word).<p>
+     * 
+     * Search words that may match fuzzy are matched against every compare word instead, since they might match without occurring.
+     * 
+     * @param searchQuery the compiled search phrase
+     * @param normalizedComparePhrase the normalized compare phrase, see {@link #normalize(String, int)}
+     * @return rating points greater equal {@code matchNormalizedPhrases(searchQuery, normalizedComparePhrase)}. 0 if and only if
+     * {@code matchNormalizedPhrases} returns 0
+     */
+    public static double getMaxNormalizedPhrasesPoints(@NonNull SearchQuery searchQuery, @Nullable String normalizedComparePhrase) {
+        // case: trivial, no need to estimate
+        if (searchQuery.isBlank() || isBlank(normalizedComparePhrase))
+            return matchNormalizedPhrases(searchQuery, normalizedComparePhrase);
+
+        double maxRatingPoints = 0;
+        int prevSearchWordIndex = -1;
+        int prevNumOccurrences = 0;
+
+        for (int searchWordIndex = 0; searchWordIndex < searchQuery.getWordCount(); searchWordIndex++) {
+            if (searchQuery.isBlankWord(searchWordIndex))
+                continue;
+
+            // fuzzy matches include the approximate ones, one per compare word at most
+            int numOccurrences = searchQuery.isFuzzyWord(searchWordIndex) ?
+                searchQuery.countFuzzyNormalizedMatches(searchWordIndex, normalizedComparePhrase) :
+                searchQuery.countNormalizedOccurrences(searchWordIndex, normalizedComparePhrase);
+            if (numOccurrences > 0) {
+                maxRatingPoints += Math.max(EXACT_MATCH_RATING.getPoints(), APPROXIMATE_MATCH_RATING.getPoints());
+
+                // case: previous search word is directly left of this one
+                if (searchWordIndex - prevSearchWordIndex == 1)
+                    maxRatingPoints += 2 * Math.min(prevNumOccurrences, numOccurrences) * ADJACENT_MATCH_RATING.getPoints();
+            }
+
+            prevSearchWordIndex = searchWordIndex;
+            prevNumOccurrences = numOccurrences;
+        }
+
+        return maxRatingPoints;
+    }
+
+    /**
+     * @param searchQuery the compiled search phrase
+     * @param comparePhrase
+     * @param isNormalized {@code true} if {@code comparePhrase} has been normalized using {@link #normalize(String, int)}
+     * @return the rating points
+     */
+    private static double matchPhrases(@NonNull SearchQuery searchQuery, @Nullable String comparePhrase, boolean isNormalized) {
+        if (searchQuery.isBlank() || isBlank(comparePhrase))
+            return matchWords(searchQuery.getPhrase(), comparePhrase).getRating().getPoints();
+
+        MatchPhrasesScratch scratch = MATCH_PHRASES_SCRATCH.get();
+        int numSearchWords = searchQuery.getWordCount();
+        int numCompareWords = scratch.splitComparePhrase(comparePhrase);
+        scratch.ensureMatchCapacity(numCompareWords);
 
-        String[] searchWords = searchPhrase.split(" ");
-        String[] compareWords = comparePhrase.split(" ");
+        double totalRatingPoints = 0;
+        // index of the search word the "prev" matches belong to, -1 if none
+        int prevSearchWordIndex = -1;
+        int prevSearchWordLength = 0;
+        int numPrevSearchWordMatches = 0;
 
-        double totalRatingPoints = 0;    
-        List<SearchStringMatch> prevSearchWordMatches = new LinkedList<>();
-        
-        for (int searchWordIndex = 0; searchWordIndex < searchWords.length; searchWordIndex++) {
-            String searchWord = searchWords[searchWordIndex];
+        for (int searchWordIndex = 0; searchWordIndex < numSearchWords; searchWordIndex++) {
+            int searchWordLength = searchQuery.getWordLength(searchWordIndex);
 
             // case: search contained multiple conscutive whtiespaces, don't match those
-            if (isBlank(searchWord))
+            if (searchQuery.isBlankWord(searchWordIndex))
                 continue;
 
-            double currentSearchWordRatingPoints = 0;    
-            List<SearchStringMatch> currentSearchWordMatches = new LinkedList<>();
+            double currentSearchWordRatingPoints = 0;
+            int numCurrentSearchWordMatches = 0;
 
-            for (int compareWordIndex = 0; compareWordIndex < compareWords.length; compareWordIndex++) {
-                String compareWord = compareWords[compareWordIndex];
-                // case: search contained multiple conscutive whtiespaces, don't match those
-                if (isBlank(compareWord))
+            for (int compareWordIndex = 0; compareWordIndex < numCompareWords; compareWordIndex++) {
+                int compareWordStart = scratch.compareWordStarts[compareWordIndex];
+                int compareWordEnd = scratch.compareWordEnds[compareWordIndex];
+                // case: search contained multiple conscutive whtiespaces, don't match those (normalized phrases have none)
+                if (!isNormalized && isBlankRegion(comparePhrase, compareWordStart, compareWordEnd))
                     continue;
 
-                SearchStringMatch searchWordMatch = matchWords(searchWord, compareWord);
-                searchWordMatch.setSearchWordLength(searchWord.length());
-                searchWordMatch.setSearchWordIndex(searchWordIndex);
-                searchWordMatch.setCompareWordIndex(compareWordIndex);
-                
-                if (searchWordMatch.isNotAMatch())
-                    continue;
+                double searchWordRatingPoints;
+                int compareWordSubstringStartIndex;
+
+                if (isNormalized ? 
+                        searchQuery.equalsNormalized(searchWordIndex, comparePhrase, compareWordStart, compareWordEnd) : 
+                        searchQuery.equalsIgnoreCase(searchWordIndex, comparePhrase, compareWordStart, compareWordEnd)) {
+                    searchWordRatingPoints = EXACT_MATCH_RATING.getPoints();
+                    compareWordSubstringStartIndex = 0;
+
+                } else {
+                    compareWordSubstringStartIndex = isNormalized ? 
+                        searchQuery.indexOfNormalized(searchWordIndex, comparePhrase, compareWordStart, compareWordEnd) :
+                        searchQuery.indexOfIgnoreCase(searchWordIndex, comparePhrase, compareWordStart, compareWordEnd);
+
+                    if (compareWordSubstringStartIndex != -1)
+                        searchWordRatingPoints = APPROXIMATE_MATCH_RATING.getPoints();
+
+                    else {
+                        long fuzzyMatch = searchQuery.fuzzyIndexOf(searchWordIndex, comparePhrase, compareWordStart, compareWordEnd, isNormalized);
+                        // case: no match
+                        if (fuzzyMatch == FuzzyPattern.NO_MATCH)
+                            continue;
+
+                        searchWordRatingPoints = getFuzzyMatchRating(FuzzyPattern.getEdits(fuzzyMatch)).getPoints();
+                        compareWordSubstringStartIndex = FuzzyPattern.getStartIndex(fuzzyMatch);
+                    }
+                }
+
+                scratch.currentCompareWordIndices[numCurrentSearchWordMatches] = compareWordIndex;
+                scratch.currentCompareWordSubstringStartIndices[numCurrentSearchWordMatches] = compareWordSubstringStartIndex;
+                numCurrentSearchWordMatches++;
 
-                currentSearchWordMatches.add(searchWordMatch);
-                
-                double searchWordRatingPoints = searchWordMatch.getRating().getPoints();
                 if (searchWordRatingPoints > currentSearchWordRatingPoints)
                     currentSearchWordRatingPoints = searchWordRatingPoints;
             }
 
-            currentSearchWordRatingPoints += accumulateAdjacentMatches(prevSearchWordMatches, currentSearchWordMatches);
+            // case: previous search word is directly left of this one
+            if (searchWordIndex - prevSearchWordIndex == 1)
+                currentSearchWordRatingPoints += accumulateAdjacentMatches(scratch, numPrevSearchWordMatches, prevSearchWordLength, numCurrentSearchWordMatches);
+
             totalRatingPoints += currentSearchWordRatingPoints;
-            prevSearchWordMatches = currentSearchWordMatches;
+
+            scratch.swapMatches();
+            prevSearchWordIndex = searchWordIndex;
+            prevSearchWordLength = searchWordLength;
+            numPrevSearchWordMatches = numCurrentSearchWordMatches;
         }
 
         return totalRatingPoints;
@@ -107,6 +246,21 @@ public abstract class SearchStringUtils {
      */
     @NonNull
     public static SearchStringMatch matchWords(@Nullable String searchWord, @Nullable String compareWord) {
+        return matchWords(searchWord, compareWord, false);
+    }
+
+    /**
+     * Same as {@link #matchWords(String, String)}, optionally trying a fuzzy match (see {@link FuzzyPattern}) if the words are neither
+     * an exact nor an approximate match.
+     *  
+     * @param searchWord
+     * @param compareWord
+     * @param isFuzzy whether to try a fuzzy match
+     * @return a new match object with only the {@code compareWordSubstringStartIndex} and the {@code rating}. Set
+     * {@code compareWordSubstringStartIndex = -1} and {@code rating.points = 0} if no match
+     */
+    @NonNull
+    public static SearchStringMatch matchWords(@Nullable String searchWord, @Nullable String compareWord, boolean isFuzzy) {
         AbstractSearchStringMatchRating rating = null;
         int compareWordSubstringStartIndex = 0;
 
@@ -115,7 +269,16 @@ public abstract class SearchStringUtils {
 
         else if (isApproximateMatch(searchWord, compareWord)) {
             rating = new ApproximateSearchStringMatchRating();
-            compareWordSubstringStartIndex = Strings.CI.indexOf(compareWord, searchWord);
+            compareWordSubstringStartIndex = IGNORE_CASE_KERNEL.indexOfIgnoreCase(compareWord, searchWord);
+
+        } else if (isFuzzy && compareWord != null) {
+            FuzzyPattern fuzzyPattern = FuzzyPattern.compile(foldCase(searchWord));
+            long fuzzyMatch = fuzzyPattern == null ? FuzzyPattern.NO_MATCH : fuzzyPattern.indexOf(compareWord, 0, compareWord.length(), false);
+
+            if (fuzzyMatch != FuzzyPattern.NO_MATCH) {
+                rating = new FuzzySearchStringMatchRating(FuzzyPattern.getEdits(fuzzyMatch));
+                compareWordSubstringStartIndex = FuzzyPattern.getStartIndex(fuzzyMatch);
+            }
         }
 
         // case: no match, return neutral instance
@@ -133,9 +296,13 @@ public abstract class SearchStringUtils {
      * @param searchWord
      * @param compareWord
      * @return {@code searchWord.equalsIgnoreCase(compareWord)}
+     * @see IgnoreCaseKernel
      */
     public static boolean isExactMatch(@Nullable String searchWord, @Nullable String compareWord) {
-        return Strings.CI.equals(searchWord, compareWord);
+        if (searchWord == null || compareWord == null)
+            return Strings.CI.equals(searchWord, compareWord);
+
+        return IGNORE_CASE_KERNEL.equalsIgnoreCase(searchWord, compareWord);
     }
 
     /**
@@ -144,9 +311,140 @@ public abstract class SearchStringUtils {
      * @param searchWord
      * @param compareWord
      * @return {@code compareWord.containsIgnoreCase(searchWord)}
+     * @see IgnoreCaseKernel
      */
     public static boolean isApproximateMatch(@Nullable String searchWord, @Nullable String compareWord) {
-        return Strings.CI.contains(compareWord, searchWord);
+        if (searchWord == null || compareWord == null)
+            return Strings.CI.contains(compareWord, searchWord);
+
+        return IGNORE_CASE_KERNEL.indexOfIgnoreCase(compareWord, searchWord) != -1;
+    }
+
+    /**
+     * Precompute the text of a note input the search rates instead of the raw value: all words of {@code value} separated by a single whitespace
+     * (line breaks, tabs and repeated whitespaces would otherwise be part of or yield blank words). Stops before the first word that would exceed
+     * {@code maxLength}, sothat the search never scans more than {@code maxLength} chars per note input.
+     * 
+     * @param value to tokenize, e.g. {@code noteInput.value}
+     * @param maxLength max length of the result
+     * @return the search tokens, empty string if {@code value} is {@code null} or blank. Never {@code null}
+     */
+    @NonNull
+    public static String toSearchTokens(@Nullable String value, int maxLength) {
+        if (value == null)
+            return "";
+
+        StringBuilder searchTokens = new StringBuilder(Math.min(value.length(), Math.max(0, maxLength)));
+        int length = value.length();
+        int wordEnd = 0;
+
+        while (wordEnd < length) {
+            int wordStart = wordEnd;
+            while (wordStart < length && Character.isWhitespace(value.charAt(wordStart)))
+                wordStart++;
+
+            wordEnd = wordStart;
+            while (wordEnd < length && !Character.isWhitespace(value.charAt(wordEnd)))
+                wordEnd++;
+
+            // case: trailing whitespace
+            if (wordStart == wordEnd)
+                break;
+
+            int separatorLength = searchTokens.isEmpty() ? 0 : 1;
+            // case: budget exceeded
+            if (searchTokens.length() + separatorLength + wordEnd - wordStart > maxLength)
+                break;
+
+            if (separatorLength != 0)
+                searchTokens.append(' ');
+
+            searchTokens.append(value, wordStart, wordEnd);
+        }
+
+        return searchTokens.toString();
+    }
+
+    /**
+     * Precompute the form of a phrase that can be matched using {@link #matchNormalizedPhrases(SearchQuery, String)}: the {@link #toSearchTokens(String, int)}
+     * of {@code value} with every code point case folded (see {@link #foldCodePoints(String)}).
+     * 
+     * @param value to normalize, e.g. {@code note.title}
+     * @param maxLength max length of the result
+     * @return the normalized phrase, empty string if {@code value} is {@code null} or blank. Never {@code null}
+     */
+    @NonNull
+    public static String normalize(@Nullable String value, int maxLength) {
+        return foldCodePoints(toSearchTokens(value, maxLength));
+    }
+
+    /**
+     * Fold every code point of given {@code str} to a case-independent form. Unlike {@link #foldCase(String)} this applies to surrogate
+     * chars as well: two strings are equal ignoring case (in the sense of {@link String#regionMatches(boolean, int, String, int, int)}) if and 
+     * only if their folded strings are equal.
+     * 
+     * @param str to fold
+     * @return the folded string or {@code null} if {@code str} is {@code null}
+     */
+    @Nullable
+    public static String foldCodePoints(@Nullable String str) {
+        if (str == null)
+            return null;
+
+        // case: nothing to fold by code point
+        if (!hasSurrogates(str))
+            return foldCase(str);
+
+        StringBuilder foldedStr = new StringBuilder(str.length());
+        str.codePoints().forEach(codePoint -> foldedStr.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint))));
+
+        return foldedStr.toString();
+    }
+
+    /**
+     * Fold every char of given {@code str} to a case-independent form, keeping the length of the string. Two chars are equal ignoring case (in the sense
+     * of {@link String#regionMatches(boolean, int, String, int, int)} which is what {@link #isExactMatch(String, String)} and {@link #isApproximateMatch(String, String)} 
+     * use) if and only if their folded chars are equal. This does not apply to surrogate chars, see {@link #hasSurrogates(String)}.
+     * 
+     * @param str to fold
+     * @return the folded string or {@code null} if {@code str} is {@code null}
+     */
+    @Nullable
+    public static String foldCase(@Nullable String str) {
+        if (str == null)
+            return null;
+
+        char[] chars = new char[str.length()];
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = foldCase(str.charAt(i));
+
+        return new String(chars);
+    }
+
+    /**
+     * @param c to fold
+     * @return the case-independent form of {@code c}
+     * @see #foldCase(String)
+     */
+    public static char foldCase(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Strings with surrogate chars are compared by code point when ignoring case, meaning {@link #foldCase(String)} cannot be used for them.
+     * 
+     * @param str to check
+     * @return {@code true} if {@code str} contains at least one surrogate char, {@code false} if not or if {@code str} is {@code null}
+     */
+    public static boolean hasSurrogates(@Nullable String str) {
+        if (str == null)
+            return false;
+
+        for (int i = 0; i < str.length(); i++)
+            if (Character.isSurrogate(str.charAt(i)))
+                return true;
+
+        return false;
     }
 
     /**
@@ -189,25 +487,159 @@ public abstract class SearchStringUtils {
     }
 
     /**
-     * Count the number of adjacent matches and return the accumulated rating points using {@link AdjacentSearchStringMatchRating}.<p>
+     * Count the number of adjacent matches between the "prev" and "current" matches in given {@code scratch} and return the accumulated 
+     * rating points using {@link AdjacentSearchStringMatchRating}. Assumes that the prev search word is directly left of the current search word.<p>
      * 
-     * @param leftSearchWordMatches
-     * @param rightSearchWordMatches
-     * @return the total rating points for all adjacent match or 0 if no adjacent matches at all or at least on arg is {@code null}
-     * @see #isMatchAdjacent(SearchStringMatch, SearchStringMatch)
+     * Primitive equivalent of calling {@link #isMatchAdjacent(SearchStringMatch, SearchStringMatch)} for every pair of matches.
+     * 
+     * @param scratch containing the matches of both search words
+     * @param numLeftSearchWordMatches number of "prev" matches
+     * @param leftSearchWordLength length of the prev search word
+     * @param numRightSearchWordMatches number of "current" matches
+     * @return the total rating points for all adjacent match or 0 if no adjacent matches at all
      */
-    private static double accumulateAdjacentMatches(@Nullable List<SearchStringMatch> leftSearchWordMatches, @Nullable List<SearchStringMatch> rightSearchWordMatches) {
-        if (assertArgsNullOrBlank(leftSearchWordMatches, rightSearchWordMatches))
-            return 0;
-
-        AdjacentSearchStringMatchRating searchStringMatchRating = new AdjacentSearchStringMatchRating();
+    private static double accumulateAdjacentMatches(MatchPhrasesScratch scratch, int numLeftSearchWordMatches, int leftSearchWordLength, int numRightSearchWordMatches) {
         double ratingPoints = 0;
 
-        for (SearchStringMatch leftSearchWordMatch : leftSearchWordMatches)
-            for (SearchStringMatch rightSearchWordMatch : rightSearchWordMatches)
-                if (isMatchAdjacent(leftSearchWordMatch, rightSearchWordMatch))
-                    ratingPoints = searchStringMatchRating.accumulatePoints(ratingPoints);
+        for (int left = 0; left < numLeftSearchWordMatches; left++) {
+            int leftCompareWordIndex = scratch.prevCompareWordIndices[left];
+            int leftCompareWordSubstringStartIndex = scratch.prevCompareWordSubstringStartIndices[left];
+
+            for (int right = 0; right < numRightSearchWordMatches; right++) {
+                int rightCompareWordIndex = scratch.currentCompareWordIndices[right];
+
+                boolean isAdjacent;
+                // case: match for same compare word, left compareWord is left and does not overlap right compareWord
+                if (leftCompareWordIndex == rightCompareWordIndex)
+                    isAdjacent = leftCompareWordSubstringStartIndex + leftSearchWordLength - 1 < scratch.currentCompareWordSubstringStartIndices[right];
+
+                // case: match for different compare words, need to be adjacent and in correct order
+                else
+                    isAdjacent = rightCompareWordIndex - leftCompareWordIndex == 1;
+
+                if (isAdjacent)
+                    ratingPoints = ADJACENT_MATCH_RATING.accumulatePoints(ratingPoints);
+            }
+        }
 
         return ratingPoints;
     }
+
+    /**
+     * @param edits of the fuzzy match
+     * @return the shared rating instance for given number of edits
+     */
+    private static FuzzySearchStringMatchRating getFuzzyMatchRating(int edits) {
+        return FUZZY_MATCH_RATINGS[Math.min(Math.max(1, edits), FuzzyPattern.MAX_EDITS)];
+    }
+
+    /**
+     * Same as {@link Utils#isBlank(String)} for {@code str[start, end)} without extracting the substring.
+     */
+    private static boolean isBlankRegion(String str, int start, int end) {
+        for (int i = start; i < end; i++)
+            if (!Character.isWhitespace(str.charAt(i)))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Buffers for {@link SearchStringUtils#matchPhrases(SearchQuery, String)}. Grow when needed but never shrink, sothat a thread 
+     * stops allocating once it has seen its largest phrases.
+     * 
+     * @since 1.2.0
+     */
+    private static final class MatchPhrasesScratch {
+
+        /** Word {@code i} of the compare phrase is {@code comparePhrase[compareWordStarts[i], compareWordEnds[i])} */
+        private int[] compareWordStarts = new int[64];
+        private int[] compareWordEnds = new int[64];
+
+        /** Matches of the previous search word. Match {@code i} is at compare word {@code prevCompareWordIndices[i]} */
+        private int[] prevCompareWordIndices = new int[64];
+        private int[] prevCompareWordSubstringStartIndices = new int[64];
+
+        /** Matches of the current search word */
+        private int[] currentCompareWordIndices = new int[64];
+        private int[] currentCompareWordSubstringStartIndices = new int[64];
+
+
+        /**
+         * @return the number of compare words, including empty ones
+         */
+        private int splitComparePhrase(String comparePhrase) {
+            int numWords = countWords(comparePhrase);
+            if (this.compareWordStarts.length < numWords) {
+                this.compareWordStarts = new int[numWords];
+                this.compareWordEnds = new int[numWords];
+            }
+
+            return split(comparePhrase, this.compareWordStarts, this.compareWordEnds);
+        }
+
+        /**
+         * Make sure a search word can have one match per compare word.
+         */
+        private void ensureMatchCapacity(int numCompareWords) {
+            if (this.currentCompareWordIndices.length >= numCompareWords)
+                return;
+
+            this.prevCompareWordIndices = new int[numCompareWords];
+            this.prevCompareWordSubstringStartIndices = new int[numCompareWords];
+            this.currentCompareWordIndices = new int[numCompareWords];
+            this.currentCompareWordSubstringStartIndices = new int[numCompareWords];
+        }
+
+        /**
+         * Make the current matches the previous ones. The old previous matches are overridden by the next search word.
+         */
+        private void swapMatches() {
+            int[] compareWordIndices = this.prevCompareWordIndices;
+            this.prevCompareWordIndices = this.currentCompareWordIndices;
+            this.currentCompareWordIndices = compareWordIndices;
+
+            int[] compareWordSubstringStartIndices = this.prevCompareWordSubstringStartIndices;
+            this.prevCompareWordSubstringStartIndices = this.currentCompareWordSubstringStartIndices;
+            this.currentCompareWordSubstringStartIndices = compareWordSubstringStartIndices;
+        }
+
+        /**
+         * Number of words {@code phrase.split(" ")} would return, not removing trailing empty words.
+         */
+        private static int countWords(String phrase) {
+            int numWords = 1;
+            for (int i = 0; i < phrase.length(); i++)
+                if (phrase.charAt(i) == ' ')
+                    numWords++;
+
+            return numWords;
+        }
+
+        /**
+         * Equivalent to {@code phrase.split(" ")}, except for trailing empty words which are contained as well (they are blank
+         * and wont be matched anyway). Word indices are the same.
+         * 
+         * @return the number of words
+         */
+        private static int split(String phrase, int[] wordStarts, int[] wordEnds) {
+            int numWords = 0;
+            int wordStart = 0;
+
+            for (int i = 0; i < phrase.length(); i++) {
+                if (phrase.charAt(i) != ' ')
+                    continue;
+
+                wordStarts[numWords] = wordStart;
+                wordEnds[numWords] = i;
+                numWords++;
+                wordStart = i + 1;
+            }
+
+            wordStarts[numWords] = wordStart;
+            wordEnds[numWords] = phrase.length();
+
+            return numWords + 1;
+        }
+    }
 }
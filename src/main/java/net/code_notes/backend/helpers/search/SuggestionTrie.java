@@ -0,0 +1,306 @@
+package net.code_notes.backend.helpers.search;
+
+import static net.code_notes.backend.helpers.Utils.isBlank;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import net.code_notes.backend.dto.SuggestionDto;
+
+/**
+ * Prefix tree of the terms of one app user's notes (e.g. title words and tag names), used to complete the word an app user is typing.
+ * The frequency of a term is the number of notes containing it, completions are ranked by frequency.<p>
+ *
+ * Every node knows the max frequency of all terms below it, sothat the best completions of a short prefix are found without visiting
+ * all terms starting with that prefix (best-first search).<p>
+ *
+ * Terms are case folded, see {@link SearchStringUtils#foldCodePoints(String)}.<p>
+ *
+ * Thread safe.
+ *
+ * @since 1.2.0
+ */
+public class SuggestionTrie {
+
+    private final Node root = new Node();
+
+    /** Note id -> folded terms of that note. Needed for removal */
+    private final Map<Long, Set<String>> termsByNoteId = new HashMap<>();
+
+    /** Number of distinct terms with a frequency greater than 0 */
+    private int termCount = 0;
+
+
+    /**
+     * Add the terms of given note. Replaces any previously added terms of that note.
+     *
+     * @param noteId id of the note the terms belong to
+     * @param terms to add, counted once per note. Blank terms are ignored
+     * @throws IllegalArgumentException if {@code noteId} is {@code null}
+     */
+    public synchronized void put(Long noteId, @Nullable Collection<String> terms) throws IllegalArgumentException {
+        if (noteId == null)
+            throw new IllegalArgumentException("Failed to put note terms. 'noteId' cannot be null");
+
+        remove(noteId);
+
+        if (terms == null)
+            return;
+
+        Set<String> foldedTerms = new HashSet<>();
+        for (String term : terms)
+            if (!isBlank(term))
+                foldedTerms.add(SearchStringUtils.foldCodePoints(term.strip()));
+
+        if (foldedTerms.isEmpty())
+            return;
+
+        foldedTerms.forEach(foldedTerm -> addFrequency(foldedTerm, 1));
+        this.termsByNoteId.put(noteId, foldedTerms);
+    }
+
+    /**
+     * Remove the terms of given note. Wont throw.
+     *
+     * @param noteId id of the note to remove, may not have been added
+     */
+    public synchronized void remove(@Nullable Long noteId) {
+        if (noteId == null)
+            return;
+
+        Set<String> foldedTerms = this.termsByNoteId.remove(noteId);
+        if (foldedTerms != null)
+            foldedTerms.forEach(foldedTerm -> addFrequency(foldedTerm, -1));
+    }
+
+    /**
+     * @param prefix start of the word to complete, case is ignored. Does not need to be a whole term
+     * @param maxResults max number of completions
+     * @return terms starting with {@code prefix} (including {@code prefix} itself) ordered by frequency descending and then alphabetically.
+     * Empty list if {@code prefix} is blank. Never {@code null}
+     */
+    @NonNull
+    public synchronized List<SuggestionDto> complete(@Nullable String prefix, int maxResults) {
+        List<SuggestionDto> suggestions = new ArrayList<>();
+        if (isBlank(prefix) || maxResults <= 0)
+            return suggestions;
+
+        String foldedPrefix = SearchStringUtils.foldCodePoints(prefix.strip());
+        Node prefixNode = this.root;
+        for (int i = 0; i < foldedPrefix.length() && prefixNode != null; i++)
+            prefixNode = prefixNode.getChild(foldedPrefix.charAt(i));
+
+        // case: no term starts with prefix
+        if (prefixNode == null || prefixNode.maxFrequency == 0)
+            return suggestions;
+
+        // nodes are queued by the max frequency below them, terms by their frequency. Once a term is polled no better term is left
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Candidate.BEST_FIRST);
+        candidates.add(new Candidate(prefixNode, foldedPrefix, prefixNode.maxFrequency, false));
+
+        while (!candidates.isEmpty() && suggestions.size() < maxResults) {
+            Candidate candidate = candidates.poll();
+            if (candidate.isTerm) {
+                suggestions.add(new SuggestionDto(candidate.text, candidate.frequency));
+                continue;
+            }
+
+            Node node = candidate.node;
+            if (node.frequency > 0)
+                candidates.add(new Candidate(node, candidate.text, node.frequency, true));
+
+            for (int i = 0; i < node.numChildren; i++)
+                candidates.add(new Candidate(node.children[i], candidate.text + node.keys[i], node.children[i].maxFrequency, false));
+        }
+
+        return suggestions;
+    }
+
+    /**
+     * @param term to get the frequency for, case is ignored
+     * @return the number of notes containing given term, 0 if none or {@code term} is {@code null}
+     */
+    public synchronized int getFrequency(@Nullable String term) {
+        if (term == null)
+            return 0;
+
+        String foldedTerm = SearchStringUtils.foldCodePoints(term.strip());
+        Node node = this.root;
+        for (int i = 0; i < foldedTerm.length() && node != null; i++)
+            node = node.getChild(foldedTerm.charAt(i));
+
+        return node == null ? 0 : node.frequency;
+    }
+
+    /**
+     * @return number of notes with at least one term
+     */
+    public synchronized int size() {
+        return this.termsByNoteId.size();
+    }
+
+    /**
+     * @return number of distinct terms
+     */
+    public synchronized int getTermCount() {
+        return this.termCount;
+    }
+
+    /**
+     * Add {@code delta} to the frequency of given term and update the max frequencies along it's path. Removes nodes without any
+     * term below them.
+     *
+     * @param foldedTerm not blank
+     * @param delta 1 or -1
+     */
+    private void addFrequency(String foldedTerm, int delta) {
+        Node[] path = new Node[foldedTerm.length() + 1];
+        path[0] = this.root;
+
+        for (int i = 0; i < foldedTerm.length(); i++) {
+            Node child = path[i].getChild(foldedTerm.charAt(i));
+            if (child == null) {
+                // case: term not present, should not happen
+                if (delta < 0)
+                    return;
+
+                child = path[i].addChild(foldedTerm.charAt(i));
+            }
+
+            path[i + 1] = child;
+        }
+
+        Node termNode = path[path.length - 1];
+        int prevFrequency = termNode.frequency;
+        termNode.frequency = Math.max(0, prevFrequency + delta);
+
+        if (prevFrequency == 0 && termNode.frequency > 0)
+            this.termCount++;
+
+        else if (prevFrequency > 0 && termNode.frequency == 0)
+            this.termCount--;
+
+        for (int i = path.length - 1; i > 0; i--) {
+            Node node = path[i];
+            node.updateMaxFrequency();
+
+            // case: no term left below node
+            if (node.maxFrequency == 0)
+                path[i - 1].removeChild(foldedTerm.charAt(i - 1));
+        }
+
+        this.root.updateMaxFrequency();
+    }
+
+    /**
+     * Children are kept in arrays sorted by key, sothat nodes with few children (most of them) stay small.
+     *
+     * @since 1.2.0
+     */
+    private static final class Node {
+
+        private char[] keys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private int numChildren = 0;
+
+        /** Number of notes containing the term ending at this node, 0 if no term ends here */
+        private int frequency = 0;
+
+        /** Max {@link #frequency} of this node and all nodes below */
+        private int maxFrequency = 0;
+
+
+        @Nullable
+        private Node getChild(char key) {
+            int index = Arrays.binarySearch(this.keys, 0, this.numChildren, key);
+
+            return index < 0 ? null : this.children[index];
+        }
+
+        private Node addChild(char key) {
+            int index = Arrays.binarySearch(this.keys, 0, this.numChildren, key);
+            if (index >= 0)
+                return this.children[index];
+
+            int insertIndex = -(index + 1);
+            if (this.numChildren == this.keys.length) {
+                int capacity = Math.max(2, this.numChildren * 2);
+                this.keys = Arrays.copyOf(this.keys, capacity);
+                this.children = Arrays.copyOf(this.children, capacity);
+            }
+
+            System.arraycopy(this.keys, insertIndex, this.keys, insertIndex + 1, this.numChildren - insertIndex);
+            System.arraycopy(this.children, insertIndex, this.children, insertIndex + 1, this.numChildren - insertIndex);
+
+            Node child = new Node();
+            this.keys[insertIndex] = key;
+            this.children[insertIndex] = child;
+            this.numChildren++;
+
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int index = Arrays.binarySearch(this.keys, 0, this.numChildren, key);
+            if (index < 0)
+                return;
+
+            System.arraycopy(this.keys, index + 1, this.keys, index, this.numChildren - index - 1);
+            System.arraycopy(this.children, index + 1, this.children, index, this.numChildren - index - 1);
+            this.numChildren--;
+            this.children[this.numChildren] = null;
+        }
+
+        private void updateMaxFrequency() {
+            int maxFrequency = this.frequency;
+            for (int i = 0; i < this.numChildren; i++)
+                maxFrequency = Math.max(maxFrequency, this.children[i].maxFrequency);
+
+            this.maxFrequency = maxFrequency;
+        }
+    }
+
+    /**
+     * Entry of the best-first search. Either a term with it's frequency or a node with the max frequency below it.
+     *
+     * @since 1.2.0
+     */
+    private static final class Candidate {
+
+        /** Higher frequency first, then alphabetically, then terms before nodes with the same text */
+        private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingInt((Candidate candidate) -> candidate.frequency)
+            .reversed()
+            .thenComparing(candidate -> candidate.text)
+            .thenComparing(candidate -> !candidate.isTerm);
+
+        private final Node node;
+
+        private final String text;
+
+        private final int frequency;
+
+        private final boolean isTerm;
+
+
+        private Candidate(Node node, String text, int frequency, boolean isTerm) {
+            this.node = node;
+            this.text = text;
+            this.frequency = frequency;
+            this.isTerm = isTerm;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package net.code_notes.backend.helpers.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Selects the {@code k} best of an unknown number of elements in {@code O(n log k)} without keeping or sorting all of them.<p>
+ *
+ * Elements the {@code comparator} considers equal are ordered by their sequence number (ascending), which is the order they were offered in
+ * unless specified explicitly. That way the result is the same as sorting all elements stably and taking the first {@code k}.<p>
+ *
+ * Not thread safe. Use one instance per thread and {@link #merge(TopKSelector)} them.
+ *
+ * @param <T> type of elements to select
+ * @since 1.2.0
+ */
+public class TopKSelector<T> {
+
+    /** Max number of elements to keep */
+    private final int k;
+
+    /** Compares elements best first */
+    private final Comparator<T> comparator;
+
+    /** Worst kept element at the head */
+    private final PriorityQueue<Entry<T>> heap;
+
+    /** Total number of offered elements, including those that were not kept */
+    private long count;
+
+    private long nextSequence;
+
+
+    /**
+     * @param k max number of elements to keep. May be 0 for counting only
+     * @param comparator orders elements best first
+     * @throws IllegalArgumentException if {@code k} is negative or {@code comparator} is {@code null}
+     */
+    public TopKSelector(int k, Comparator<T> comparator) throws IllegalArgumentException {
+        if (k < 0)
+            throw new IllegalArgumentException("'k' must be greater equal 0");
+        if (comparator == null)
+            throw new IllegalArgumentException("'comparator' cannot be null");
+
+        this.k = k;
+        this.comparator = comparator;
+        // don't allocate k slots upfront, k is usually much larger than the number of matches
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 64)), (entry1, entry2) -> compare(entry2, entry1));
+    }
+
+    /**
+     * Offer {@code element} using the next sequence number.
+     *
+     * @param element to possibly keep
+     */
+    public void offer(T element) {
+        offer(element, this.nextSequence++);
+    }
+
+    /**
+     * Offer {@code element} with an explicit sequence number, e.g. the element's index in the source list when selecting from multiple
+     * chunks concurrently.
+     *
+     * @param element to possibly keep
+     * @param sequence used to order elements that are equal by {@code comparator}, lower is better
+     */
+    public void offer(T element, long sequence) {
+        this.count++;
+        keep(new Entry<>(element, sequence));
+    }
+
+    /**
+     * Count an element without offering it, for elements that are known to be worse than {@link #peekWorst()}.
+     */
+    public void skip() {
+        this.count++;
+    }
+
+    /**
+     * @return {@code true} if {@code k} elements are kept, meaning that an element needs to be better than {@link #peekWorst()} to be kept
+     */
+    public boolean isFull() {
+        return this.heap.size() >= this.k;
+    }
+
+    /**
+     * @return the worst kept element or {@code null} if none is kept
+     */
+    @Nullable
+    public T peekWorst() {
+        Entry<T> worstEntry = this.heap.peek();
+
+        return worstEntry == null ? null : worstEntry.element();
+    }
+
+    /**
+     * Keep the best {@code k} elements of this and {@code other}. Sequence numbers of {@code other} are preserved, {@code other} should not
+     * be used anymore.
+     *
+     * @param other selector with the same {@code comparator}
+     * @return this instance
+     */
+    @NonNull
+    public TopKSelector<T> merge(TopKSelector<T> other) {
+        if (other == null || other == this)
+            return this;
+
+        this.count += other.count;
+        other.heap.forEach(this::keep);
+
+        return this;
+    }
+
+    /**
+     * @return the kept elements, best first. Never {@code null}
+     */
+    @NonNull
+    public List<T> toSortedList() {
+        List<Entry<T>> entries = new ArrayList<>(this.heap);
+        entries.sort(this::compare);
+
+        List<T> elements = new ArrayList<>(entries.size());
+        entries.forEach(entry -> elements.add(entry.element()));
+
+        return elements;
+    }
+
+    /**
+     * @return the total number of offered elements, including those that were not kept
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    private void keep(Entry<T> entry) {
+        if (this.k == 0)
+            return;
+
+        if (this.heap.size() < this.k) {
+            this.heap.add(entry);
+            return;
+        }
+
+        // case: better than the worst kept element
+        if (compare(entry, this.heap.peek()) < 0) {
+            this.heap.poll();
+            this.heap.add(entry);
+        }
+    }
+
+    /**
+     * @return negative if {@code entry1} is better than {@code entry2}
+     */
+    private int compare(Entry<T> entry1, Entry<T> entry2) {
+        int result = this.comparator.compare(entry1.element(), entry2.element());
+        if (result != 0)
+            return result;
+
+        return Long.compare(entry1.sequence(), entry2.sequence());
+    }
+
+    private record Entry<T>(T element, long sequence) {}
+}
@@ -4,10 +4,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.transaction.Transactional;
 import net.code_notes.backend.abstracts.AbstractRepository;
+import net.code_notes.backend.dto.AppUserNotesVersionJpaDto;
 import net.code_notes.backend.entities.AppUser;
 
 
@@ -29,4 +33,17 @@ public interface AppUserRepository extends AbstractRepository<AppUser> {
     boolean existsByOauth2Id(String oauth2Id);
 
     boolean existsByEmail(String email);
+
+    /** Specifically for matching note search index snapshots, which only contain the hashed email */
+    @Query("SELECT a.email FROM AppUser a")
+    List<String> findAllEmails();
+
+    /** Specifically for conditional requests, does not touch the note tables */
+    Optional<AppUserNotesVersionJpaDto> findNotesVersionByEmail(String email);
+
+    /** Does not touch {@code appUser.updated}. Joins the caller's transaction */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AppUser a SET a.notesVersion = a.notesVersion + 1 WHERE a.email = :email")
+    int incrementNotesVersionByEmail(@Param("email") String email);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package net.code_notes.backend.repositories;
 import java.util.List;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import net.code_notes.backend.abstracts.AbstractRepository;
@@ -19,6 +20,10 @@ public interface NoteInputRepository extends AbstractRepository<NoteInput> {
 
     NoteInputValueJpaDto getValueById(Long id);
 
+    /** Inputs saved before {@code NoteInputSearchTokens} existed */
+    @Query("SELECT ni FROM NoteInput ni WHERE NOT EXISTS (SELECT t.noteInputId FROM NoteInputSearchTokens t WHERE t.noteInputId = ni.id)")
+    List<NoteInput> findAllWithoutSearchTokens(PageRequest pageRequest);
+
     // TODO: remove later
     List<NoteInput> findAllByTypeIn(List<NoteInputType> of, PageRequest pageRequest);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package net.code_notes.backend.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import net.code_notes.backend.dto.SearchNoteInputTokensJpaDto;
+import net.code_notes.backend.entities.NoteInputSearchTokens;
+
+
+/**
+ * Ids are the ids of the note inputs.
+ * 
+ * @since 1.2.0
+ */
+@Repository
+public interface NoteInputSearchTokensRepository extends JpaRepository<NoteInputSearchTokens, Long> {
+
+    /** Specifically for search note function. Does not load the note inputs, ordered by note and then by input order */
+    @Query("""
+        SELECT n.id AS noteId, t.searchTokens AS searchTokens FROM Note n JOIN n.noteInputs ni JOIN NoteInputSearchTokens t ON t.noteInputId = ni.id 
+        WHERE n.id IN :noteIds 
+        ORDER BY n.id, INDEX(ni)
+    """)
+    List<SearchNoteInputTokensJpaDto> findByNoteIdIn(@Param("noteIds") Collection<Long> noteIds);
+}
@@ -1,13 +1,24 @@
 package net.code_notes.backend.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import net.code_notes.backend.abstracts.AbstractRepository;
+import net.code_notes.backend.dto.NoteIdJpaDto;
+import net.code_notes.backend.dto.NoteKeyJpaDto;
+import net.code_notes.backend.dto.NoteTagNameJpaDto;
 import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.dto.SuggestionNoteJpaDto;
 import net.code_notes.backend.entities.Note;
 
 /**
@@ -23,12 +34,58 @@ public interface NoteRepository extends AbstractRepository<Note> {
 
     List<Note> findByAppUserOauth2IdOrderByCreatedDesc(String oauth2Id, Pageable pageable);
     List<Note> findByAppUserEmailOrderByCreatedDesc(String email, Pageable pageable);
-    List<Note> findByAppUserEmailAndTags_NameInOrderByCreatedDesc(String email, List<String> tagNames, Pageable pageable);
+
+    /** Specifically for keyset pagination, seeks on index {@code idx_note_app_user_created_id} instead of skipping rows */
+    List<NoteKeyJpaDto> findKeysByAppUserEmailOrderByCreatedDescIdDesc(String email, Pageable pageable);
+    @Query("""
+        SELECT n.id AS id, n.created AS created FROM Note n 
+        WHERE n.appUser.email = :email AND (n.created < :created OR (n.created = :created AND n.id < :id)) 
+        ORDER BY n.created DESC, n.id DESC
+    """)
+    List<NoteKeyJpaDto> findKeysByAppUserEmailAfter(@Param("email") String email, @Param("created") LocalDateTime created, @Param("id") Long id, Pageable pageable);
 
     /** Specifically for search note function */
-    List<SearchNoteJpaDto> findByAppUserEmailAndTags_NameIn(String email, List<String> tagNames);
     List<SearchNoteJpaDto> findByAppUserEmail(String email);
+    List<SearchNoteJpaDto> findByAppUserEmailAndIdIn(String email, Collection<Long> ids);
+    /** 
+     * Notes updated at or after {@code updated}, including notes of which only an input has been updated (which does not touch 
+     * {@code note.updated}) 
+     */
+    @Query("""
+        SELECT n.id AS id, n.created AS created, n.updated AS updated, n.title AS title, n.normalizedTitle AS normalizedTitle FROM Note n 
+        WHERE n.appUser.email = :email AND (n.updated >= :updated OR EXISTS (SELECT ni.id FROM n.noteInputs ni WHERE ni.updated >= :updated))
+    """)
+    List<SearchNoteJpaDto> findUpdatedByAppUserEmailSince(@Param("email") String email, @Param("updated") LocalDateTime updated);
+
+    /** Specifically for note suggestions */
+    List<SuggestionNoteJpaDto> findSuggestionsByAppUserEmail(String email);
+    List<SuggestionNoteJpaDto> findSuggestionsByAppUserEmailAndIdIn(String email, Collection<Long> ids);
+
+    /** Specifically for filtering notes by tags. Does not load the notes, ordered by {@code note.created} and then by id */
+    @Query("""
+        SELECT n.id AS noteId, n.created AS created, t.name AS tagName FROM Note n LEFT JOIN n.tags t 
+        WHERE n.appUser.email = :email 
+        ORDER BY n.created, n.id
+    """)
+    List<NoteTagNameJpaDto> findNoteTagNamesByAppUserEmail(@Param("email") String email);
+
+    /** Specifically for replaying note search index snapshots */
+    List<NoteIdJpaDto> findIdsByAppUserEmail(String email);
+
+    List<Note> findAllByNormalizedTitleIsNull(PageRequest pageRequest);
+
+    /** Does not touch {@code note.updated} */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Note n SET n.normalizedTitle = :normalizedTitle WHERE n.id = :id")
+    void updateNormalizedTitleById(@Param("id") Long id, @Param("normalizedTitle") String normalizedTitle);
+
+    /** Fetches inputs and tags in the same query. Order of results is not defined */
+    @EntityGraph(attributePaths = { "noteInputs", "tags" })
+    List<Note> findAllByIdIn(Collection<Long> ids);
+
+    /** Removes the note like {@code deleteById} does (cascading to it's inputs), but only if it belongs to the app user. Needs a transaction */
+    long deleteByIdAndAppUserEmail(Long id, String email);
     
     long countByAppUserEmailOrderByCreatedDesc(String email, PageRequest pageRequest);
-    long countByAppUserEmailAndTags_NameInOrderByCreatedDesc(String email, List<String> tagNames, PageRequest pageRequest);
 }
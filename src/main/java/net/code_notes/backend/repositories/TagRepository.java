@@ -1,5 +1,6 @@
 package net.code_notes.backend.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,10 @@ public interface TagRepository extends AbstractRepository<Tag> {
 
     List<Tag> findAllByAppUser(AppUser appUser);
 
+    List<Tag> findAllByAppUserAndNameIn(AppUser appUser, Collection<String> names);
+
+    List<Tag> findAllByAppUserAndNotesIsEmpty(AppUser appUser);
+
     @Transactional
     void deleteByNotesIsEmpty();
 
@@ -34,6 +34,7 @@ import jakarta.servlet.http.HttpSession;
 import lombok.extern.log4j.Log4j2;
 import net.code_notes.backend.abstracts.AbstractService;
 import net.code_notes.backend.abstracts.AppUserRole;
+import net.code_notes.backend.dto.AppUserNotesVersionJpaDto;
 import net.code_notes.backend.entities.AppUser;
 import net.code_notes.backend.entities.ConfirmationToken;
 import net.code_notes.backend.helpers.Utils;
@@ -333,6 +334,30 @@ public class AppUserService extends AbstractService<AppUser> implements UserDeta
         return this.appUserRepository.findByEmail(email).orElse(null);
     }
 
+    /**
+     * @param email of the app user
+     * @return the id and notes version of the app user with given {@code email} or {@code null} (wont throw)
+     */
+    @Nullable
+    public AppUserNotesVersionJpaDto loadNotesVersion(@Nullable String email) {
+        if (isBlank(email))
+            return null;
+
+        return this.appUserRepository.findNotesVersionByEmail(email).orElse(null);
+    }
+
+    /**
+     * Increment {@code appUser.notesVersion}. Call this whenever notes or tags of the app user are written, in the same transaction.
+     * 
+     * @param email of the app user
+     * @throws IllegalArgumentException if {@code email} is blank
+     */
+    public void incrementNotesVersion(String email) throws IllegalArgumentException {
+        assertArgsNotNullAndNotBlankOrThrow(email);
+
+        this.appUserRepository.incrementNotesVersionByEmail(email);
+    }
+
     /**
      * Delete appUser with given {@code id} from db. Wont throw if does not exist
      * 
@@ -0,0 +1,183 @@
+package net.code_notes.backend.services;
+
+import static net.code_notes.backend.helpers.Utils.assertArgsNotNullAndNotBlankOrThrow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.log4j.Log4j2;
+import net.code_notes.backend.abstracts.NoteSearchBackend;
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.helpers.search.SearchQuery;
+import net.code_notes.backend.helpers.search.SearchStringUtils;
+import net.code_notes.backend.repositories.NoteRepository;
+
+
+/**
+ * Pushes the candidate search down to the db, sothat only candidate notes are sent over the wire instead of all notes of the app user.
+ * This is a scan of all notes and note inputs of the app user on the db side, no index is used.<p>
+ *
+ * Every search word is matched with {@code LIKE '%word%'} against the case folded columns the rating matches as well
+ * ({@code note.normalized_title} and {@code note_input_search_tokens.search_tokens}), using the case folded search word. So this finds every note
+ * {@link InMemoryNoteSearchBackend} finds, including words that contain a search word somewhere in the middle. A case insensitive db
+ * collation may only add candidates, which get no rating points then. {@code FULLTEXT} indices ({@code MATCH ... AGAINST}) cannot prefilter
+ * the candidates, since neither word prefix matching nor stopwords are a superset of that.<p>
+ *
+ * If any search word may match fuzzy (see {@code NOTE_SEARCH_FUZZY}) every note is a candidate, since fuzzy matches cannot be expressed
+ * in sql.<p>
+ *
+ * Used if {@code NOTE_SEARCH_BACKEND} is "db-scan".
+ *
+ * @since 1.2.0
+ */
+@Service
+@ConditionalOnProperty(name = "NOTE_SEARCH_BACKEND", havingValue = "db-scan")
+@Log4j2
+public class DbScanNoteSearchBackend implements NoteSearchBackend {
+
+    /** Max number of ids to pass to a single {@code IN} clause */
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private static final char LIKE_ESCAPE_CHAR = '!';
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+
+    @Override
+    @NonNull
+    public List<SearchNoteJpaDto> findCandidates(AppUser appUser, SearchQuery searchQuery, @Nullable Set<Long> noteIds) throws IllegalArgumentException {
+        assertArgsNotNullAndNotBlankOrThrow(appUser, searchQuery);
+
+        // case: fuzzy matches may be anywhere
+        if (isAnyWordFuzzy(searchQuery))
+            return findAll(appUser, noteIds);
+
+        List<Long> candidateIds = findCandidateIds(appUser, searchQuery);
+        if (noteIds != null)
+            candidateIds = candidateIds
+                .stream()
+                .filter(noteIds::contains)
+                .toList();
+
+        List<SearchNoteJpaDto> candidateNoteDtos = new ArrayList<>();
+        for (int fromIndex = 0; fromIndex < candidateIds.size(); fromIndex += MAX_IDS_PER_QUERY) {
+            List<Long> candidateIdsChunk = candidateIds.subList(fromIndex, Math.min(fromIndex + MAX_IDS_PER_QUERY, candidateIds.size()));
+
+            candidateNoteDtos.addAll(this.noteRepository.findByAppUserEmailAndIdIn(appUser.getEmail(), candidateIdsChunk));
+        }
+
+        log.debug("Found {} candidates", candidateNoteDtos.size());
+
+        return candidateNoteDtos;
+    }
+
+    /**
+     * @param appUser
+     * @param noteIds to limit the result to, {@code null} for all notes
+     * @return all notes of {@code appUser} (with one of {@code noteIds}), ordered by id
+     */
+    private List<SearchNoteJpaDto> findAll(AppUser appUser, @Nullable Set<Long> noteIds) {
+        List<SearchNoteJpaDto> noteDtos = new ArrayList<>();
+        if (noteIds == null)
+            noteDtos.addAll(this.noteRepository.findByAppUserEmail(appUser.getEmail()));
+
+        else {
+            List<Long> noteIdList = new ArrayList<>(noteIds);
+            for (int fromIndex = 0; fromIndex < noteIdList.size(); fromIndex += MAX_IDS_PER_QUERY)
+                noteDtos.addAll(this.noteRepository.findByAppUserEmailAndIdIn(
+                    appUser.getEmail(), 
+                    noteIdList.subList(fromIndex, Math.min(fromIndex + MAX_IDS_PER_QUERY, noteIdList.size()))));
+        }
+
+        // same order as the other candidates
+        noteDtos.sort(Comparator.comparing(SearchNoteJpaDto::getId));
+
+        log.debug("Found {} candidates, search may match fuzzy", noteDtos.size());
+
+        return noteDtos;
+    }
+
+    /**
+     * @param appUser
+     * @param searchQuery
+     * @return ids of notes of {@code appUser} with a title or note input matching any search word, ordered by id
+     */
+    private List<Long> findCandidateIds(AppUser appUser, SearchQuery searchQuery) {
+        List<String> likePatterns = new ArrayList<>();
+
+        for (int i = 0; i < searchQuery.getWordCount(); i++) {
+            // case: search contained multiple consecutive whitespaces, matchPhrases ignores those
+            if (searchQuery.isBlankWord(i))
+                continue;
+
+            // folded like the columns, by code point in case of surrogate chars
+            likePatterns.add("%" + escapeLike(SearchStringUtils.foldCodePoints(searchQuery.getWord(i))) + "%");
+        }
+
+        List<Object> args = new ArrayList<>();
+        args.add(appUser.getEmail());
+        // case: title not normalized yet, the rating matches the title ignoring case then
+        String titleCondition = getMatchCondition("COALESCE(n.normalized_title, LOWER(n.title))", likePatterns, args);
+        String searchTokensCondition = getMatchCondition("t.search_tokens", likePatterns, args);
+
+        String sql =
+            "SELECT n.id FROM note n JOIN app_user u ON u.id = n.app_user_id WHERE u.email = ? AND (" +
+                titleCondition +
+                " OR EXISTS (SELECT 1 FROM note_input ni JOIN note_input_search_tokens t ON t.note_input_id = ni.id WHERE ni.note_id = n.id AND (" + searchTokensCondition + "))" +
+            ") ORDER BY n.id";
+
+        return this.jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+    }
+
+    /**
+     * @param column to match, case folded
+     * @param likePatterns escaped {@code LIKE} patterns, not empty
+     * @param args to add the query args to
+     * @return the sql condition matching {@code column} against any of given patterns
+     */
+    private static String getMatchCondition(String column, List<String> likePatterns, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+
+        for (String likePattern : likePatterns) {
+            conditions.add(column + " LIKE ? ESCAPE '" + LIKE_ESCAPE_CHAR + "'");
+            args.add(likePattern);
+        }
+
+        return String.join(" OR ", conditions);
+    }
+
+    private static boolean isAnyWordFuzzy(SearchQuery searchQuery) {
+        for (int i = 0; i < searchQuery.getWordCount(); i++)
+            if (!searchQuery.isBlankWord(i) && searchQuery.isFuzzyWord(i))
+                return true;
+
+        return false;
+    }
+
+    private static String escapeLike(String str) {
+        StringBuilder escapedStr = new StringBuilder(str.length());
+
+        for (char c : str.toCharArray()) {
+            if (c == LIKE_ESCAPE_CHAR || c == '%' || c == '_')
+                escapedStr.append(LIKE_ESCAPE_CHAR);
+
+            escapedStr.append(c);
+        }
+
+        return escapedStr.toString();
+    }
+}
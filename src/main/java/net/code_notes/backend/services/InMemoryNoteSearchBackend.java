@@ -0,0 +1,71 @@
+package net.code_notes.backend.services;
+
+import static net.code_notes.backend.helpers.Utils.assertArgsNotNullAndNotBlankOrThrow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.log4j.Log4j2;
+import net.code_notes.backend.abstracts.NoteSearchBackend;
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.helpers.search.SearchQuery;
+import net.code_notes.backend.repositories.NoteRepository;
+
+
+/**
+ * Loads the notes returned by the app user's {@link NoteSearchIndexService search index} (and allowed by the tag filter). Finds exactly
+ * the notes that will have rating points.<p>
+ * 
+ * Used if {@code NOTE_SEARCH_BACKEND} is "in-memory" (the default).
+ * 
+ * @since 1.2.0
+ */
+@Service
+@ConditionalOnProperty(name = "NOTE_SEARCH_BACKEND", havingValue = "in-memory", matchIfMissing = true)
+@Log4j2
+public class InMemoryNoteSearchBackend implements NoteSearchBackend {
+
+    /** Max number of ids to pass to a single {@code IN} clause */
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteSearchIndexService noteSearchIndexService;
+
+
+    @Override
+    @NonNull
+    public List<SearchNoteJpaDto> findCandidates(AppUser appUser, SearchQuery searchQuery, @Nullable Set<Long> noteIds) throws IllegalArgumentException {
+        assertArgsNotNullAndNotBlankOrThrow(appUser, searchQuery);
+
+        // only notes sharing a word with the search phrase can have rating points
+        List<Long> candidateIds = this.noteSearchIndexService
+            .findCandidateIds(appUser, searchQuery)
+            .stream()
+            .filter(candidateId -> noteIds == null || noteIds.contains(candidateId))
+            // same order as the db scan backend
+            .sorted()
+            .toList();
+
+        // load minimized notes
+        List<SearchNoteJpaDto> candidateNoteDtos = new ArrayList<>();
+        for (int fromIndex = 0; fromIndex < candidateIds.size(); fromIndex += MAX_IDS_PER_QUERY)
+            candidateNoteDtos.addAll(this.noteRepository.findByAppUserEmailAndIdIn(
+                appUser.getEmail(), 
+                candidateIds.subList(fromIndex, Math.min(fromIndex + MAX_IDS_PER_QUERY, candidateIds.size()))));
+
+        log.debug("Found {} candidates", candidateNoteDtos.size());
+
+        return candidateNoteDtos;
+    }
+}
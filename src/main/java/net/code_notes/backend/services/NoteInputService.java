@@ -1,23 +1,39 @@
 package net.code_notes.backend.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.Nullable;
+import lombok.extern.log4j.Log4j2;
 import net.code_notes.backend.dto.NoteInputValueJpaDto;
+import net.code_notes.backend.dto.SearchNoteInputTokensJpaDto;
 import net.code_notes.backend.entities.NoteInput;
+import net.code_notes.backend.entities.NoteInputSearchTokens;
 import net.code_notes.backend.repositories.NoteInputRepository;
+import net.code_notes.backend.repositories.NoteInputSearchTokensRepository;
 
 
 /**
  * @since 0.0.1
  */
 @Service
+@Log4j2
 public class NoteInputService {
 
     @Autowired
     private NoteInputRepository noteInputRepository;
 
+    @Autowired
+    private NoteInputSearchTokensRepository noteInputSearchTokensRepository;
+
     @Nullable
     public NoteInput loadById(@Nullable Long id) {
         if (id == null)
@@ -35,4 +51,76 @@ public class NoteInputService {
 
         return this.noteInputRepository.getValueById(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Load the search tokens of all inputs of given notes using a single query. Make sure the number of ids stays in a range the db can handle.
+     * 
+     * @param noteIds of the notes to load the input tokens of
+     * @return note id tokens pairs ordered by note id and then by input order, empty list if {@code noteIds} is {@code null} or empty
+     */
+    @NonNull
+    public List<SearchNoteInputTokensJpaDto> loadSearchTokensByNoteIds(@Nullable Collection<Long> noteIds) {
+        if (noteIds == null || noteIds.isEmpty())
+            return new ArrayList<>();
+
+        return this.noteInputSearchTokensRepository.findByNoteIdIn(noteIds);
+    }
+
+    /**
+     * Compute and save the search tokens of given note inputs, replacing the old ones. Call this whenever note inputs have been saved.
+     * 
+     * @param noteInputs persisted note inputs, may be {@code null}
+     */
+    public void saveSearchTokens(@Nullable Collection<NoteInput> noteInputs) {
+        if (noteInputs == null || noteInputs.isEmpty())
+            return;
+
+        List<Long> noteInputIds = noteInputs
+            .stream()
+            .map(NoteInput::getId)
+            .toList();
+
+        // note input id -> existing tokens
+        Map<Long, NoteInputSearchTokens> searchTokensByNoteInputId = new HashMap<>();
+        this.noteInputSearchTokensRepository
+            .findAllById(noteInputIds)
+            .forEach(searchTokens -> searchTokensByNoteInputId.put(searchTokens.getNoteInputId(), searchTokens));
+
+        List<NoteInputSearchTokens> searchTokensToSave = new ArrayList<>();
+        for (NoteInput noteInput : noteInputs) {
+            NoteInputSearchTokens searchTokens = searchTokensByNoteInputId.get(noteInput.getId());
+
+            if (searchTokens == null)
+                searchTokens = new NoteInputSearchTokens(noteInput);
+            else
+                searchTokens.updateSearchTokens(noteInput);
+
+            searchTokensToSave.add(searchTokens);
+        }
+
+        this.noteInputSearchTokensRepository.saveAll(searchTokensToSave);
+    }
+
+    /**
+     * Compute the search tokens of note inputs saved before {@link NoteInputSearchTokens} existed, 100 at a time. Inputs without
+     * tokens are ignored by the note search.
+     * 
+     * @return the number of migrated note inputs
+     */
+    public int migrateSearchTokens() {
+        log.info("Computing missing note input search tokens...");
+
+        int numMigrated = 0;
+        List<NoteInput> noteInputs;
+        // always the first page, migrated inputs don't match anymore
+        while (!(noteInputs = this.noteInputRepository.findAllWithoutSearchTokens(PageRequest.of(0, 100))).isEmpty()) {
+            saveSearchTokens(noteInputs);
+
+            numMigrated += noteInputs.size();
+        }
+
+        log.info("Computed search tokens of {} note inputs", numMigrated);
+
+        return numMigrated;
+    }
+}
@@ -0,0 +1,112 @@
+package net.code_notes.backend.services;
+
+import static net.code_notes.backend.helpers.Utils.isBlank;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.Nullable;
+import net.code_notes.backend.dto.SearchNoteDataDto;
+import net.code_notes.backend.dto.SearchNoteInputTokensJpaDto;
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+
+
+/**
+ * Data loading stage of the note search. Loads everything needed to rate the candidate notes with as few queries as possible,
+ * sothat rating itself works in memory only.<p>
+ * 
+ * Loads the precomputed {@code NoteInputSearchTokens} of all inputs (of any type) instead of the values, which may be much larger.
+ *
+ * @since 1.2.0
+ */
+@Service
+public class NoteSearchDataService {
+
+    /** Max number of ids to pass to a single {@code IN} clause */
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    /** Max number of search token chars to rate per note (summed up for all inputs of the note). Inputs exceeding it are cut off */
+    @Value("${NOTE_SEARCH_NOTE_SCAN_BUDGET}")
+    private int NOTE_SEARCH_NOTE_SCAN_BUDGET;
+
+    @Autowired
+    private NoteInputService noteInputService;
+
+
+    /**
+     * Load the search tokens of all inputs of given notes in chunks of {@link #MAX_IDS_PER_QUERY} notes. Neither loads note entities
+     * nor note input values.
+     *
+     * @param noteDtos candidate notes to load search data for
+     * @return the loaded search data, never {@code null}
+     */
+    @NonNull
+    public SearchNoteDataDto loadSearchData(@Nullable Collection<SearchNoteJpaDto> noteDtos) {
+        Map<Long, List<String>> noteInputSearchTokens = new HashMap<>();
+
+        if (noteDtos == null || noteDtos.isEmpty())
+            return new SearchNoteDataDto(noteInputSearchTokens, 0);
+
+        List<Long> noteIds = noteDtos
+            .stream()
+            .map(SearchNoteJpaDto::getId)
+            .toList();
+
+        int queryCount = 0;
+        // note id -> chars left to rate
+        Map<Long, Integer> remainingBudgetByNoteId = new HashMap<>();
+
+        for (int fromIndex = 0; fromIndex < noteIds.size(); fromIndex += MAX_IDS_PER_QUERY) {
+            List<Long> noteIdsChunk = noteIds.subList(fromIndex, Math.min(fromIndex + MAX_IDS_PER_QUERY, noteIds.size()));
+
+            // in input order
+            for (SearchNoteInputTokensJpaDto noteInputTokens : this.noteInputService.loadSearchTokensByNoteIds(noteIdsChunk))
+                addSearchTokens(noteInputTokens, noteInputSearchTokens, remainingBudgetByNoteId);
+
+            queryCount++;
+        }
+
+        return new SearchNoteDataDto(noteInputSearchTokens, queryCount);
+    }
+
+    /**
+     * Add the tokens of given input to the tokens of its note, as long as the note's {@code NOTE_SEARCH_NOTE_SCAN_BUDGET} is not exceeded.
+     * Needs to be called in input order.
+     *
+     * @param noteInputTokens loaded search tokens of one note input
+     * @param noteInputSearchTokens note id -> search tokens to add to
+     * @param remainingBudgetByNoteId note id -> chars left to rate, will be updated
+     */
+    private void addSearchTokens(SearchNoteInputTokensJpaDto noteInputTokens, Map<Long, List<String>> noteInputSearchTokens, Map<Long, Integer> remainingBudgetByNoteId) {
+        String searchTokens = noteInputTokens.getSearchTokens();
+        // case: no words
+        if (isBlank(searchTokens))
+            return;
+
+        Long noteId = noteInputTokens.getNoteId();
+        int remainingBudget = remainingBudgetByNoteId.getOrDefault(noteId, this.NOTE_SEARCH_NOTE_SCAN_BUDGET);
+        if (remainingBudget <= 0)
+            return;
+
+        // case: budget exceeded, cut off at the last whole word
+        if (searchTokens.length() > remainingBudget) {
+            int lastSeparatorIndex = searchTokens.lastIndexOf(' ', remainingBudget);
+            if (lastSeparatorIndex > 0)
+                noteInputSearchTokens.computeIfAbsent(noteId, id -> new ArrayList<>()).add(searchTokens.substring(0, lastSeparatorIndex));
+
+            remainingBudgetByNoteId.put(noteId, 0);
+            return;
+        }
+
+        noteInputSearchTokens.computeIfAbsent(noteId, id -> new ArrayList<>()).add(searchTokens);
+        remainingBudgetByNoteId.put(noteId, remainingBudget - searchTokens.length());
+    }
+}
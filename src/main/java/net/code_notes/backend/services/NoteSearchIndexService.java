@@ -0,0 +1,569 @@
+package net.code_notes.backend.services;
+
+import static net.code_notes.backend.helpers.Utils.assertArgsNotNullAndNotBlankOrThrow;
+import static net.code_notes.backend.helpers.Utils.isBlank;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import net.code_notes.backend.dto.NoteSearchIndexConsistencyDto;
+import net.code_notes.backend.dto.SearchNoteDataDto;
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.helpers.Utils;
+import net.code_notes.backend.helpers.search.NoteSearchIndex;
+import net.code_notes.backend.helpers.search.NoteSearchIndexSnapshot;
+import net.code_notes.backend.helpers.search.SearchQuery;
+import net.code_notes.backend.repositories.AppUserRepository;
+import net.code_notes.backend.repositories.NoteRepository;
+
+
+/**
+ * Holds one {@link NoteSearchIndex} per app user (by email). Indices are built lazily on the first search of an app user and
+ * updated incrementally whenever notes change (see {@code NoteSearchEventListener}).<p>
+ *
+ * Changed notes are marked "changing" right before commit and "dirty" right after, and returned as candidates by {@link #findCandidateIds(AppUser, SearchQuery)}
+ * until their index update has been applied in the background. That way searches never miss a change, they just rate a few more notes. 
+ * Not even searches that run after commit but before the after commit listeners, which read the new {@code appUser.notesVersion} already.<p>
+ *
+ * Indexes the same phrases the note search rates: {@code note.title} and the search tokens of every note input.<p>
+ *
+ * If {@code NOTE_SEARCH_SNAPSHOT_PATH} is set, indices are written to that dir periodically and on shutdown (see {@link NoteSearchIndexSnapshot})
+ * and read again on startup, replaying only the notes that have been updated since.
+ *
+ * @since 1.2.0
+ */
+@Service
+@Log4j2
+public class NoteSearchIndexService {
+
+    /**
+     * Subtracted from the time a snapshot is written to get it's watermark. Covers transactions that set {@code note.updated} before the
+     * snapshot but commit after it, and the clock being turned back by an hour when daylight saving time ends ({@code updated} is a local time).
+     * Replaying a few notes too many is cheap.
+     */
+    private static final Duration SNAPSHOT_WATERMARK_MARGIN = Duration.ofHours(2);
+
+    private static final String SNAPSHOT_FILE_EXTENSION = ".snapshot";
+
+    /** App user email -> search index of that app user's notes */
+    private final Map<String, NoteSearchIndex> indicesByAppUserEmail = new ConcurrentHashMap<>();
+
+    /** App user email -> index build in progress */
+    private final Map<String, CompletableFuture<NoteSearchIndex>> buildsByAppUserEmail = new ConcurrentHashMap<>();
+
+    /** App user email -> (id of changed note -> stamp of the latest change). Stamps prevent clearing changes that happened during an update */
+    private final Map<String, Map<Long, Long>> dirtyNoteIdsByAppUserEmail = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextDirtyStamp = new AtomicLong();
+
+    /** 
+     * App user email -> (id of note in an uncommitted transaction -> number of such transactions). Unlike dirty notes, not cleared when
+     * building an index, since the build might not see the changes
+     */
+    private final Map<String, Map<Long, Integer>> changingNoteIdsByAppUserEmail = new ConcurrentHashMap<>();
+
+    /** Emails of app users whose index has changed since it's last snapshot */
+    private final Set<String> unsnapshottedAppUserEmails = ConcurrentHashMap.newKeySet();
+
+    /** Dir to write index snapshots to. Blank disables snapshots */
+    @Value("${NOTE_SEARCH_SNAPSHOT_PATH}")
+    private String NOTE_SEARCH_SNAPSHOT_PATH;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteSearchDataService noteSearchDataService;
+
+
+    /**
+     * Builds outside the index map, concurrent calls for the same app user wait for the same build. Changes committed during the build
+     * are marked dirty (see {@link #markDirty(String, Collection)}) and applied once the index is present, since their updates may have
+     * run before.
+     *
+     * @param appUser to get the index for
+     * @return the search index of given {@code appUser}, building it if not present yet. Never {@code null}
+     * @throws IllegalArgumentException if {@code appUser} or it's email is {@code null}
+     */
+    @NonNull
+    public NoteSearchIndex getOrBuild(AppUser appUser) throws IllegalArgumentException {
+        assertArgsNotNullAndNotBlankOrThrow(appUser);
+        assertArgsNotNullAndNotBlankOrThrow(appUser.getEmail());
+
+        String appUserEmail = appUser.getEmail();
+        NoteSearchIndex noteSearchIndex = this.indicesByAppUserEmail.get(appUserEmail);
+        if (noteSearchIndex != null)
+            return noteSearchIndex;
+
+        CompletableFuture<NoteSearchIndex> build = new CompletableFuture<>();
+        CompletableFuture<NoteSearchIndex> runningBuild = this.buildsByAppUserEmail.putIfAbsent(appUserEmail, build);
+        // case: built by another thread, wait for it
+        if (runningBuild != null)
+            return joinBuild(runningBuild);
+
+        try {
+            noteSearchIndex = this.indicesByAppUserEmail.get(appUserEmail);
+            // case: built between get and putIfAbsent
+            if (noteSearchIndex == null) {
+                // changes committed from now on will be marked again, all others are in db already
+                this.dirtyNoteIdsByAppUserEmail.remove(appUserEmail);
+
+                NoteSearchIndex builtNoteSearchIndex = build(appUserEmail);
+                noteSearchIndex = Objects.requireNonNullElse(this.indicesByAppUserEmail.putIfAbsent(appUserEmail, builtNoteSearchIndex), builtNoteSearchIndex);
+                this.unsnapshottedAppUserEmails.add(appUserEmail);
+
+                // case: updates of changes committed during the build found no index
+                Map<Long, Long> dirtyNoteIds = this.dirtyNoteIdsByAppUserEmail.get(appUserEmail);
+                if (dirtyNoteIds != null && !dirtyNoteIds.isEmpty())
+                    update(appUserEmail, List.copyOf(dirtyNoteIds.keySet()));
+            }
+
+            build.complete(noteSearchIndex);
+
+            return noteSearchIndex;
+
+        } catch (RuntimeException e) {
+            build.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            this.buildsByAppUserEmail.remove(appUserEmail, build);
+        }
+    }
+
+    /**
+     * @param appUser whose notes to search
+     * @param searchQuery
+     * @return the ids of the notes returned by the app user's index plus all changing and dirty notes. Never {@code null}
+     * @throws IllegalArgumentException if {@code appUser} or it's email is {@code null}
+     * @see NoteSearchIndex#findCandidateIds(SearchQuery)
+     */
+    @NonNull
+    public Set<Long> findCandidateIds(AppUser appUser, @NonNull SearchQuery searchQuery) throws IllegalArgumentException {
+        Set<Long> candidateIds = getOrBuild(appUser).findCandidateIds(searchQuery);
+
+        Map<Long, Long> dirtyNoteIds = this.dirtyNoteIdsByAppUserEmail.get(appUser.getEmail());
+        if (dirtyNoteIds != null)
+            candidateIds.addAll(dirtyNoteIds.keySet());
+
+        Map<Long, Integer> changingNoteIds = this.changingNoteIdsByAppUserEmail.get(appUser.getEmail());
+        if (changingNoteIds != null)
+            candidateIds.addAll(changingNoteIds.keySet());
+
+        return candidateIds;
+    }
+
+    /**
+     * Mark given notes as changed by a transaction that is about to commit, until {@link #markDirty(String, Collection)} is called for them
+     * after completion. Wont throw.
+     *
+     * @param appUserEmail the notes belong to
+     * @param noteIds of changed or deleted notes
+     */
+    public void markChanging(@Nullable String appUserEmail, @Nullable Collection<Long> noteIds) {
+        if (appUserEmail == null || noteIds == null)
+            return;
+
+        Map<Long, Integer> changingNoteIds = this.changingNoteIdsByAppUserEmail.computeIfAbsent(appUserEmail, email -> new ConcurrentHashMap<>());
+        noteIds.forEach(noteId -> {
+            if (noteId != null)
+                changingNoteIds.merge(noteId, 1, Integer::sum);
+        });
+    }
+
+    /**
+     * Mark given notes as changed until {@link #update(String, Collection)} has been called for them. Removes one {@link #markChanging changing}
+     * mark of each note, if marked. Wont throw.
+     *
+     * @param appUserEmail the notes belong to
+     * @param noteIds of changed or deleted notes
+     */
+    public void markDirty(@Nullable String appUserEmail, @Nullable Collection<Long> noteIds) {
+        if (appUserEmail == null || noteIds == null)
+            return;
+
+        Map<Long, Long> dirtyNoteIds = this.dirtyNoteIdsByAppUserEmail.computeIfAbsent(appUserEmail, email -> new ConcurrentHashMap<>());
+        noteIds.forEach(noteId -> {
+            if (noteId != null)
+                dirtyNoteIds.put(noteId, this.nextDirtyStamp.incrementAndGet());
+        });
+
+        Map<Long, Integer> changingNoteIds = this.changingNoteIdsByAppUserEmail.get(appUserEmail);
+        if (changingNoteIds != null)
+            noteIds.forEach(noteId -> {
+                if (noteId != null)
+                    changingNoteIds.computeIfPresent(noteId, (id, count) -> count > 1 ? count - 1 : null);
+            });
+    }
+
+    /**
+     * Load given notes from db and update the app user's index accordingly: re-index notes that exist and remove the others. Does nothing
+     * if the app user's index has not been built (notes stay dirty until it is, see {@link #getOrBuild(AppUser)}).<p>
+     *
+     * Blocking, meant to be called in the background.
+     *
+     * @param appUserEmail the notes belong to
+     * @param noteIds of changed or deleted notes
+     */
+    public void update(@Nullable String appUserEmail, @Nullable Collection<Long> noteIds) {
+        if (appUserEmail == null || noteIds == null || noteIds.isEmpty())
+            return;
+
+        NoteSearchIndex noteSearchIndex = this.indicesByAppUserEmail.get(appUserEmail);
+        // case: not built yet, will contain the changes once built
+        if (noteSearchIndex == null)
+            return;
+
+        // remember stamps before loading, changes after that need another update
+        Map<Long, Long> dirtyNoteIds = this.dirtyNoteIdsByAppUserEmail.getOrDefault(appUserEmail, Map.of());
+        Map<Long, Long> dirtyStamps = new HashMap<>();
+        noteIds.forEach(noteId -> {
+            Long dirtyStamp = dirtyNoteIds.get(noteId);
+            if (dirtyStamp != null)
+                dirtyStamps.put(noteId, dirtyStamp);
+        });
+
+        List<SearchNoteJpaDto> noteDtos = this.noteRepository.findByAppUserEmailAndIdIn(appUserEmail, noteIds);
+        SearchNoteDataDto searchNoteData = this.noteSearchDataService.loadSearchData(noteDtos);
+
+        List<Long> removedNoteIds = new ArrayList<>(noteIds);
+        noteDtos.forEach(noteDto -> {
+            noteSearchIndex.put(noteDto.getId(), getPhrases(noteDto, searchNoteData));
+            removedNoteIds.remove(noteDto.getId());
+        });
+        removedNoteIds.forEach(noteSearchIndex::remove);
+
+        dirtyStamps.forEach(dirtyNoteIds::remove);
+        this.unsnapshottedAppUserEmails.add(appUserEmail);
+
+        log.debug("Updated note search index, re-indexed {} and removed {} notes", noteDtos.size(), removedNoteIds.size());
+    }
+
+    /**
+     * Drop the search index of given {@code appUser}. It will be rebuilt on next search. Wont throw.
+     *
+     * @param appUser whose index might be inconsistent
+     */
+    public void evict(@Nullable AppUser appUser) {
+        if (appUser == null)
+            return;
+
+        evict(appUser.getEmail());
+    }
+
+    /**
+     * Overload.
+     *
+     * @param appUserEmail
+     */
+    public void evict(@Nullable String appUserEmail) {
+        if (appUserEmail == null)
+            return;
+
+        this.indicesByAppUserEmail.remove(appUserEmail);
+        this.unsnapshottedAppUserEmails.remove(appUserEmail);
+        deleteSnapshot(appUserEmail);
+    }
+
+    /**
+     * Compare the index of given app user with a freshly built one. Evicts the index if it is inconsistent. Notes with pending updates
+     * are not compared.
+     *
+     * @param appUserEmail whose index to check
+     * @return the inconsistencies found, never {@code null}
+     * @throws IllegalArgumentException if {@code appUserEmail} is blank
+     */
+    @NonNull
+    public NoteSearchIndexConsistencyDto checkConsistency(String appUserEmail) throws IllegalArgumentException {
+        assertArgsNotNullAndNotBlankOrThrow(appUserEmail);
+
+        NoteSearchIndex noteSearchIndex = this.indicesByAppUserEmail.get(appUserEmail);
+        // case: nothing to check
+        if (noteSearchIndex == null)
+            return new NoteSearchIndexConsistencyDto(false, List.of(), List.of(), List.of(), List.of());
+
+        Set<Long> pendingNoteIds = new HashSet<>(this.dirtyNoteIdsByAppUserEmail.getOrDefault(appUserEmail, Map.of()).keySet());
+        pendingNoteIds.addAll(this.changingNoteIdsByAppUserEmail.getOrDefault(appUserEmail, Map.of()).keySet());
+        NoteSearchIndex expectedNoteSearchIndex = build(appUserEmail);
+        Set<Long> noteIds = noteSearchIndex.getNoteIds();
+        Set<Long> expectedNoteIds = expectedNoteSearchIndex.getNoteIds();
+
+        List<Long> missingNoteIds = new ArrayList<>();
+        List<Long> outdatedNoteIds = new ArrayList<>();
+        expectedNoteIds.forEach(noteId -> {
+            if (pendingNoteIds.contains(noteId))
+                return;
+
+            if (!noteIds.contains(noteId))
+                missingNoteIds.add(noteId);
+
+            else if (!Objects.equals(noteSearchIndex.getWords(noteId), expectedNoteSearchIndex.getWords(noteId)))
+                outdatedNoteIds.add(noteId);
+        });
+
+        List<Long> staleNoteIds = noteIds
+            .stream()
+            .filter(noteId -> !expectedNoteIds.contains(noteId) && !pendingNoteIds.contains(noteId))
+            .toList();
+
+        NoteSearchIndexConsistencyDto consistency = new NoteSearchIndexConsistencyDto(true, missingNoteIds, staleNoteIds, outdatedNoteIds, new ArrayList<>(pendingNoteIds));
+        if (!consistency.isConsistent()) {
+            log.warn("Note search index is inconsistent ({} missing, {} stale, {} outdated notes), evicting it", missingNoteIds.size(), staleNoteIds.size(), outdatedNoteIds.size());
+            if (this.indicesByAppUserEmail.remove(appUserEmail, noteSearchIndex))
+                deleteSnapshot(appUserEmail);
+        }
+
+        return consistency;
+    }
+
+    /**
+     * Write a snapshot of every index that changed since it's last snapshot and has no pending updates. Indices with pending updates
+     * are written next time. Wont throw.
+     */
+    @PreDestroy
+    public void writeSnapshots() {
+        if (!isSnapshotEnabled())
+            return;
+
+        LocalDateTime watermark = LocalDateTime.now().minus(SNAPSHOT_WATERMARK_MARGIN);
+        int numSnapshots = 0;
+
+        for (String appUserEmail : List.copyOf(this.unsnapshottedAppUserEmails)) {
+            // case: index does not reflect all committed changes yet
+            if (!this.dirtyNoteIdsByAppUserEmail.getOrDefault(appUserEmail, Map.of()).isEmpty())
+                continue;
+
+            this.unsnapshottedAppUserEmails.remove(appUserEmail);
+
+            NoteSearchIndex noteSearchIndex = this.indicesByAppUserEmail.get(appUserEmail);
+            if (noteSearchIndex == null)
+                continue;
+
+            try {
+                new NoteSearchIndexSnapshot(Utils.hashSha256(appUserEmail), watermark, noteSearchIndex).write(getSnapshotPath(appUserEmail));
+                numSnapshots++;
+
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to write note search index snapshot. {}", e.getMessage());
+                this.unsnapshottedAppUserEmails.add(appUserEmail);
+            }
+        }
+
+        log.debug("Wrote {} note search index snapshots", numSnapshots);
+    }
+
+    /**
+     * Read all snapshots from {@code NOTE_SEARCH_SNAPSHOT_PATH} and replay the notes that have changed since. Snapshots only contain the 
+     * hashed email, so they are matched with app users by hashing the email of every app user. Snapshots that cannot be read or don't match 
+     * an app user are deleted, those indices will be built on first search as usual. Blocking, wont throw.
+     */
+    public void loadSnapshots() {
+        if (!isSnapshotEnabled())
+            return;
+
+        Path snapshotDir = Path.of(this.NOTE_SEARCH_SNAPSHOT_PATH);
+        if (!Files.isDirectory(snapshotDir))
+            return;
+
+        log.info("Loading note search index snapshots...");
+
+        List<Path> snapshotPaths;
+        try (Stream<Path> paths = Files.list(snapshotDir)) {
+            snapshotPaths = paths
+                .filter(path -> path.getFileName().toString().endsWith(SNAPSHOT_FILE_EXTENSION))
+                .toList();
+
+        } catch (IOException e) {
+            log.error("Failed to list note search index snapshots. {}", e.getMessage());
+            return;
+        }
+
+        // case: nothing to match
+        if (snapshotPaths.isEmpty())
+            return;
+
+        Map<String, String> appUserEmailsByHash = new HashMap<>();
+        this.appUserRepository
+            .findAllEmails()
+            .forEach(appUserEmail -> appUserEmailsByHash.put(Utils.hashSha256(appUserEmail), appUserEmail));
+
+        int numLoaded = 0;
+        for (Path snapshotPath : snapshotPaths) {
+            try {
+                NoteSearchIndexSnapshot snapshot = NoteSearchIndexSnapshot.read(snapshotPath);
+                String appUserEmail = appUserEmailsByHash.get(snapshot.getAppUserEmailHash());
+
+                // case: app user has been deleted or file has been renamed
+                if (appUserEmail == null || !snapshotPath.getFileName().equals(getSnapshotPath(appUserEmail).getFileName())) {
+                    deleteSnapshot(snapshotPath);
+                    continue;
+                }
+
+                if (replay(appUserEmail, snapshot))
+                    numLoaded++;
+
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to load note search index snapshot, deleting it. {}", e.getMessage());
+                deleteSnapshot(snapshotPath);
+            }
+        }
+
+        log.info("Loaded {} of {} note search index snapshots", numLoaded, snapshotPaths.size());
+    }
+
+    /**
+     * Bring the index of given {@code snapshot} up to date with the db and use it, unless the app user's index has been built already.<p>
+     *
+     * Notes updated since the watermark are re-indexed, as well as notes of which only an input has been updated since (its search tokens
+     * are indexed too). Deleted notes are detected by comparing ids since deletions don't leave an {@code updated} timestamp behind.
+     *
+     * @param appUserEmail whose email hash matches the snapshot's
+     * @param snapshot to replay
+     * @return {@code true} if the snapshot's index is used now
+     */
+    private boolean replay(String appUserEmail, NoteSearchIndexSnapshot snapshot) {
+        NoteSearchIndex noteSearchIndex = snapshot.getNoteSearchIndex();
+
+        Set<Long> noteIds = new HashSet<>();
+        this.noteRepository
+            .findIdsByAppUserEmail(appUserEmail)
+            .forEach(noteIdDto -> noteIds.add(noteIdDto.getId()));
+
+        // case: app user has no notes anymore or has been deleted
+        if (noteIds.isEmpty()) {
+            deleteSnapshot(appUserEmail);
+            return false;
+        }
+
+        // remove deleted notes
+        List<Long> removedNoteIds = noteSearchIndex
+            .getNoteIds()
+            .stream()
+            .filter(noteId -> !noteIds.contains(noteId))
+            .toList();
+        removedNoteIds.forEach(noteSearchIndex::remove);
+
+        // re-index updated notes and notes missing in snapshot
+        List<SearchNoteJpaDto> noteDtos = new ArrayList<>(this.noteRepository.findUpdatedByAppUserEmailSince(appUserEmail, snapshot.getWatermark()));
+        noteDtos.forEach(noteDto -> noteIds.remove(noteDto.getId()));
+        noteIds.removeIf(noteSearchIndex::contains);
+        if (!noteIds.isEmpty())
+            noteDtos.addAll(this.noteRepository.findByAppUserEmailAndIdIn(appUserEmail, noteIds));
+
+        SearchNoteDataDto searchNoteData = this.noteSearchDataService.loadSearchData(noteDtos);
+        noteDtos.forEach(noteDto ->
+            noteSearchIndex.put(noteDto.getId(), getPhrases(noteDto, searchNoteData)));
+
+        // case: built meanwhile
+        if (this.indicesByAppUserEmail.putIfAbsent(appUserEmail, noteSearchIndex) != null)
+            return false;
+
+        if (!noteDtos.isEmpty() || !removedNoteIds.isEmpty())
+            this.unsnapshottedAppUserEmails.add(appUserEmail);
+
+        log.debug("Replayed note search index snapshot, re-indexed {} and removed {} notes", noteDtos.size(), removedNoteIds.size());
+
+        return true;
+    }
+
+    private boolean isSnapshotEnabled() {
+        return !isBlank(this.NOTE_SEARCH_SNAPSHOT_PATH);
+    }
+
+    /**
+     * @param appUserEmail
+     * @return the snapshot file of given app user, named by the hashed email sothat the file name does not contain personal data
+     */
+    private Path getSnapshotPath(String appUserEmail) {
+        return Path.of(this.NOTE_SEARCH_SNAPSHOT_PATH, Utils.hashSha256(appUserEmail) + SNAPSHOT_FILE_EXTENSION);
+    }
+
+    private void deleteSnapshot(String appUserEmail) {
+        if (isSnapshotEnabled())
+            deleteSnapshot(getSnapshotPath(appUserEmail));
+    }
+
+    private void deleteSnapshot(Path snapshotPath) {
+        try {
+            Files.deleteIfExists(snapshotPath);
+
+        } catch (IOException e) {
+            log.error("Failed to delete note search index snapshot. {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param build of another thread
+     * @return the built index
+     * @throws RuntimeException the exception the build failed with
+     */
+    private static NoteSearchIndex joinBuild(CompletableFuture<NoteSearchIndex> build) throws RuntimeException {
+        try {
+            return build.join();
+
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+
+            throw e;
+        }
+    }
+
+    private NoteSearchIndex build(String appUserEmail) {
+        log.debug("Building note search index for app user...");
+
+        List<SearchNoteJpaDto> noteDtos = this.noteRepository.findByAppUserEmail(appUserEmail);
+        SearchNoteDataDto searchNoteData = this.noteSearchDataService.loadSearchData(noteDtos);
+        NoteSearchIndex noteSearchIndex = new NoteSearchIndex();
+
+        noteDtos.forEach(noteDto -> noteSearchIndex.put(noteDto.getId(), getPhrases(noteDto, searchNoteData)));
+
+        log.debug("Built note search index with {} notes, {} words and {} trigrams", noteSearchIndex.size(), noteSearchIndex.getWordCount(), noteSearchIndex.getTrigramCount());
+
+        return noteSearchIndex;
+    }
+
+    /**
+     * @param noteDto
+     * @param searchNoteData loaded for {@code noteDto}
+     * @return the note title followed by the search tokens of every note input
+     */
+    private static String[] getPhrases(SearchNoteJpaDto noteDto, SearchNoteDataDto searchNoteData) {
+        List<String> noteInputSearchTokens = searchNoteData.getNoteInputSearchTokens(noteDto.getId());
+        String[] phrases = new String[noteInputSearchTokens.size() + 1];
+
+        phrases[0] = noteDto.getTitle();
+        for (int i = 0; i < noteInputSearchTokens.size(); i++)
+            phrases[i + 1] = noteInputSearchTokens.get(i);
+
+        return phrases;
+    }
+}
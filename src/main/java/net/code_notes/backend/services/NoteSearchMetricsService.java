@@ -0,0 +1,132 @@
+package net.code_notes.backend.services;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.code_notes.backend.config.QueryCountingStatementInspector;
+
+
+/**
+ * Records the duration and the number of db queries of every note search phase, as well as the number of candidates, loaded values
+ * and matches. Exposed through the actuator endpoints "/actuator/metrics" and "/actuator/prometheus".<p>
+ * 
+ * Phase durations are published as timer {@value #PHASE_TIMER_NAME} tagged with the {@code phase}, including a percentile histogram
+ * sothat quantiles can be aggregated across instances.
+ * 
+ * @since 1.2.0
+ */
+@Service
+public class NoteSearchMetricsService {
+
+    public static final String PHASE_TIMER_NAME = "note.search.phase";
+
+    public static final String QUERIES_COUNTER_NAME = "note.search.queries";
+
+    public static final String CANDIDATES_COUNTER_NAME = "note.search.candidates";
+
+    public static final String VALUES_LOADED_COUNTER_NAME = "note.search.values.loaded";
+
+    public static final String MATCHES_COUNTER_NAME = "note.search.matches";
+
+    public static final String PARTIAL_COUNTER_NAME = "note.search.partial";
+
+    /**
+     * Phases of {@code NoteService.loadByCurrentAppUserSortedAndSearch} in the order they are executed.
+     */
+    public enum Phase {
+        /** Finding the notes that might match, see {@code NoteSearchBackend} */
+        CANDIDATES,
+        /** Loading the input values to rate, see {@link NoteSearchDataService} */
+        SEARCH_DATA,
+        /** Rating the candidates, see {@link NoteSearchRatingService} */
+        RATING,
+        /** Sorting the best matches */
+        SORTING,
+        /** Loading the notes of the requested page */
+        HYDRATION
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+
+    /**
+     * Run given {@code phase} on the current thread and record it's duration and number of db queries.
+     * 
+     * @param <T> result type
+     * @param phase to record
+     * @param supplier executing the phase
+     * @return the result of {@code supplier}
+     */
+    public <T> T record(Phase phase, Supplier<T> supplier) {
+        long queryCountBefore = QueryCountingStatementInspector.getQueryCount();
+        long startTime = System.nanoTime();
+
+        try {
+            return supplier.get();
+
+        } finally {
+            Timer
+                .builder(PHASE_TIMER_NAME)
+                .description("Duration of one note search phase")
+                .tag("phase", getTagValue(phase))
+                .publishPercentileHistogram()
+                .register(this.meterRegistry)
+                .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+
+            Counter
+                .builder(QUERIES_COUNTER_NAME)
+                .description("Number of db queries issued by note search phases")
+                .tag("phase", getTagValue(phase))
+                .register(this.meterRegistry)
+                .increment(QueryCountingStatementInspector.getQueryCount() - queryCountBefore);
+        }
+    }
+
+    /**
+     * @param numCandidates number of notes scanned by the rating phase
+     */
+    public void countCandidates(long numCandidates) {
+        count(CANDIDATES_COUNTER_NAME, "Number of candidate notes rated by note search", numCandidates);
+    }
+
+    /**
+     * @param numValuesLoaded number of note input values loaded for rating
+     */
+    public void countValuesLoaded(long numValuesLoaded) {
+        count(VALUES_LOADED_COUNTER_NAME, "Number of note input values loaded by note search", numValuesLoaded);
+    }
+
+    /**
+     * @param numMatches number of notes with rating points
+     */
+    public void countMatches(long numMatches) {
+        count(MATCHES_COUNTER_NAME, "Number of notes matched by note search", numMatches);
+    }
+
+    /**
+     * Count a search that ran out of time.
+     */
+    public void countPartial() {
+        count(PARTIAL_COUNTER_NAME, "Number of note searches that ran out of time and returned partial results", 1);
+    }
+
+    private void count(String name, String description, long amount) {
+        Counter
+            .builder(name)
+            .description(description)
+            .register(this.meterRegistry)
+            .increment(amount);
+    }
+
+    private static String getTagValue(Phase phase) {
+        return phase.name().toLowerCase(Locale.ROOT);
+    }
+}
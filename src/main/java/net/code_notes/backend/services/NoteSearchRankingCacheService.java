@@ -0,0 +1,193 @@
+package net.code_notes.backend.services;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.Nullable;
+import net.code_notes.backend.abstracts.TagMatchMode;
+import net.code_notes.backend.dto.SearchNoteRankingDto;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.helpers.search.SearchStringUtils;
+
+
+/**
+ * Caches the rankings of recent note searches per app user (by email), sothat requesting another page of the same search does not rate
+ * all notes again. Each app user's cache holds at most {@code NOTE_SEARCH_RANKING_CACHE_SIZE} rankings and evicts the least recently used one.<p>
+ * 
+ * Rankings are keyed by the case folded search phrase and the set of tag names, since neither case nor tag order change the ranking.
+ * A ranking is only valid for the {@code appUser.notesVersion} it has been computed at, it's dropped on the first request with another 
+ * version. So a ranking never outlives a write of the app user's notes, not even until the write's after commit listeners have run. 
+ * {@link #evict(AppUser) Evicting} only frees the memory early.<p>
+ * 
+ * At most {@code NOTE_SEARCH_RANKING_CACHE_MAX_APP_USERS} app users have a cache, the one of the least recently searching app user is
+ * dropped first.
+ * 
+ * @since 1.2.0
+ */
+@Service
+public class NoteSearchRankingCacheService {
+
+    /** Max number of rankings per app user. 0 disables the cache */
+    @Value("${NOTE_SEARCH_RANKING_CACHE_SIZE}")
+    private int NOTE_SEARCH_RANKING_CACHE_SIZE;
+
+    /** Max number of app users with cached rankings */
+    @Value("${NOTE_SEARCH_RANKING_CACHE_MAX_APP_USERS}")
+    private int NOTE_SEARCH_RANKING_CACHE_MAX_APP_USERS;
+
+    /** App user email -> cache of that app user's rankings. Access ordered, least recently used first. Synchronize on the map before accessing it */
+    private final LinkedHashMap<String, AppUserRankingCache> cachesByAppUserEmail = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AppUserRankingCache> eldest) {
+            return size() > NOTE_SEARCH_RANKING_CACHE_MAX_APP_USERS;
+        }
+    };
+
+
+    /**
+     * @param appUser
+     * @param searchPhrase
+     * @param tagNames
+     * @param tagMatchMode
+     * @param notesVersion current {@code appUser.notesVersion}
+     * @return the cached ranking or {@code null} if not cached for {@code notesVersion}
+     */
+    @Nullable
+    public SearchNoteRankingDto get(@Nullable AppUser appUser, @Nullable String searchPhrase, @Nullable List<String> tagNames, @Nullable TagMatchMode tagMatchMode, long notesVersion) {
+        AppUserRankingCache appUserRankingCache = getAppUserRankingCache(appUser, false);
+        if (appUserRankingCache == null)
+            return null;
+
+        RankingKey key = getKey(searchPhrase, tagNames, tagMatchMode);
+        synchronized (appUserRankingCache) {
+            VersionedRanking versionedRanking = appUserRankingCache.rankings.get(key);
+            if (versionedRanking == null)
+                return null;
+
+            // case: notes have changed since ranking
+            if (versionedRanking.notesVersion() != notesVersion) {
+                appUserRankingCache.rankings.remove(key);
+                return null;
+            }
+
+            return versionedRanking.ranking();
+        }
+    }
+
+    /**
+     * Cache given {@code ranking} for {@code notesVersion}. Wont throw.
+     * 
+     * @param appUser
+     * @param searchPhrase
+     * @param tagNames
+     * @param tagMatchMode
+     * @param notesVersion {@code appUser.notesVersion} read before ranking, sothat the ranking is at least as new as that version
+     * @param ranking to cache
+     */
+    public void put(@Nullable AppUser appUser, @Nullable String searchPhrase, @Nullable List<String> tagNames, @Nullable TagMatchMode tagMatchMode, long notesVersion, @Nullable SearchNoteRankingDto ranking) {
+        AppUserRankingCache appUserRankingCache = getAppUserRankingCache(appUser, true);
+        if (appUserRankingCache == null || ranking == null)
+            return;
+
+        synchronized (appUserRankingCache) {
+            appUserRankingCache.rankings.put(getKey(searchPhrase, tagNames, tagMatchMode), new VersionedRanking(ranking, notesVersion));
+        }
+    }
+
+    /**
+     * Drop the cache of given {@code appUser}. Wont throw.
+     * 
+     * @param appUser whose notes have changed
+     */
+    public void evict(@Nullable AppUser appUser) {
+        if (appUser == null)
+            return;
+
+        evict(appUser.getEmail());
+    }
+
+    /**
+     * Overload.
+     * 
+     * @param appUserEmail
+     */
+    public void evict(@Nullable String appUserEmail) {
+        if (appUserEmail == null)
+            return;
+
+        synchronized (this.cachesByAppUserEmail) {
+            this.cachesByAppUserEmail.remove(appUserEmail);
+        }
+    }
+
+    /**
+     * @param appUser
+     * @param create whether to create the app user's cache if not present
+     * @return the cache of given app user, {@code null} if disabled or not present and not created
+     */
+    @Nullable
+    private AppUserRankingCache getAppUserRankingCache(@Nullable AppUser appUser, boolean create) {
+        if (this.NOTE_SEARCH_RANKING_CACHE_SIZE <= 0 || appUser == null || appUser.getEmail() == null)
+            return null;
+
+        synchronized (this.cachesByAppUserEmail) {
+            if (!create)
+                return this.cachesByAppUserEmail.get(appUser.getEmail());
+
+            return this.cachesByAppUserEmail.computeIfAbsent(appUser.getEmail(), email -> new AppUserRankingCache(this.NOTE_SEARCH_RANKING_CACHE_SIZE));
+        }
+    }
+
+    /**
+     * Case folding the search phrase does not change the word indices, which is why the ranking is the same (see 
+     * {@link SearchStringUtils#foldCase(String)}). Phrases containing surrogate chars are used as is.
+     * 
+     * @param searchPhrase
+     * @param tagNames
+     * @param tagMatchMode {@code null} is the same as {@link TagMatchMode#ANY}
+     * @return the cache key of the search
+     */
+    private static RankingKey getKey(@Nullable String searchPhrase, @Nullable List<String> tagNames, @Nullable TagMatchMode tagMatchMode) {
+        String normalizedSearchPhrase = Objects.toString(searchPhrase, "");
+        if (!SearchStringUtils.hasSurrogates(normalizedSearchPhrase))
+            normalizedSearchPhrase = SearchStringUtils.foldCase(normalizedSearchPhrase);
+
+        Set<String> normalizedTagNames = new HashSet<>();
+        if (tagNames != null)
+            normalizedTagNames.addAll(tagNames);
+
+        // match mode makes no difference for less than two tags
+        TagMatchMode normalizedTagMatchMode = tagMatchMode == null || normalizedTagNames.size() < 2 ? TagMatchMode.ANY : tagMatchMode;
+
+        return new RankingKey(normalizedSearchPhrase, normalizedTagNames, normalizedTagMatchMode);
+    }
+
+    private record RankingKey(String searchPhrase, Set<String> tagNames, TagMatchMode tagMatchMode) {}
+
+    private record VersionedRanking(SearchNoteRankingDto ranking, long notesVersion) {}
+
+    /**
+     * Rankings of one app user. Synchronize on the instance before accessing any field.
+     */
+    private static final class AppUserRankingCache {
+
+        /** Access ordered, least recently used first */
+        private final LinkedHashMap<RankingKey, VersionedRanking> rankings;
+
+        private AppUserRankingCache(int maxSize) {
+            this.rankings = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<RankingKey, VersionedRanking> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package net.code_notes.backend.services;
+
+import static net.code_notes.backend.helpers.Utils.assertArgsNotNullAndNotBlankOrThrow;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import net.code_notes.backend.dto.SearchNoteDataDto;
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.dto.SearchNoteRatingDto;
+import net.code_notes.backend.helpers.search.NoteSearchRatingTask;
+import net.code_notes.backend.helpers.search.SearchDeadline;
+import net.code_notes.backend.helpers.search.SearchQuery;
+import net.code_notes.backend.helpers.search.TopKSelector;
+
+
+/**
+ * Rating stage of the note search. Rates the candidate notes either on the request thread or, for large note collections,
+ * in parallel on the {@code noteSearchForkJoinPool} (see {@code NoteSearchConfig}).<p>
+ *
+ * Records the rating duration as timer {@value #RATING_TIMER_NAME} tagged with the {@code mode} used, sothat latency percentiles of both modes
+ * can be compared (e.g. by switching {@code NOTE_SEARCH_PARALLEL_MODE} between "never" and "always" on the same data).
+ *
+ * @since 1.2.0
+ */
+@Service
+@Log4j2
+public class NoteSearchRatingService {
+
+    public static final String RATING_TIMER_NAME = "note.search.rating";
+
+    /**
+     * Possible values:<p>
+     *
+     * - {@code auto}: rate in parallel if there are at least {@code NOTE_SEARCH_PARALLEL_THRESHOLD} notes to rate<p>
+     * - {@code always}: always rate in parallel<p>
+     * - {@code never}: always rate on the request thread
+     */
+    @Value("${NOTE_SEARCH_PARALLEL_MODE}")
+    private String NOTE_SEARCH_PARALLEL_MODE;
+
+    /** Min number of notes to rate in parallel if mode is "auto" */
+    @Value("${NOTE_SEARCH_PARALLEL_THRESHOLD}")
+    private int NOTE_SEARCH_PARALLEL_THRESHOLD;
+
+    /** Max number of notes rated by a single fork join task */
+    @Value("${NOTE_SEARCH_PARALLEL_CHUNK_SIZE}")
+    private int NOTE_SEARCH_PARALLEL_CHUNK_SIZE;
+
+    @Autowired
+    private ForkJoinPool noteSearchForkJoinPool;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+
+    /**
+     * Rate given notes and keep the best {@code k} matches.
+     *
+     * @param noteDtos candidate notes to rate
+     * @param searchNoteData the preloaded search data of {@code noteDtos}
+     * @param searchQuery to match notes against
+     * @param k max number of matches to keep
+     * @param deadline to stop rating at, see {@link SearchDeadline}
+     * @return the best {@code k} matches and the total number of matches (of the notes rated before the deadline). Never {@code null}
+     * @throws IllegalArgumentException if any arg is {@code null}
+     */
+    @NonNull
+    public TopKSelector<SearchNoteRatingDto> rate(List<SearchNoteJpaDto> noteDtos, SearchNoteDataDto searchNoteData, SearchQuery searchQuery, int k, SearchDeadline deadline) throws IllegalArgumentException {
+        assertArgsNotNullAndNotBlankOrThrow(noteDtos, searchNoteData, searchQuery, deadline);
+
+        NoteSearchRatingTask noteSearchRatingTask = new NoteSearchRatingTask(noteDtos, searchNoteData, searchQuery, k, Math.max(1, this.NOTE_SEARCH_PARALLEL_CHUNK_SIZE), deadline);
+        boolean isParallel = isParallel(noteDtos.size());
+
+        log.debug("Rating {} notes {}", noteDtos.size(), isParallel ? "in parallel" : "sequentially");
+
+        return Timer
+            .builder(RATING_TIMER_NAME)
+            .description("Duration of rating the candidate notes of one note search")
+            .tag("mode", isParallel ? "parallel" : "sequential")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(this.meterRegistry)
+            .record(() -> isParallel ? this.noteSearchForkJoinPool.invoke(noteSearchRatingTask) : noteSearchRatingTask.rateSequentially());
+    }
+
+    private boolean isParallel(int numNoteDtos) {
+        if ("always".equalsIgnoreCase(this.NOTE_SEARCH_PARALLEL_MODE))
+            return true;
+
+        if ("never".equalsIgnoreCase(this.NOTE_SEARCH_PARALLEL_MODE))
+            return false;
+
+        return numNoteDtos >= this.NOTE_SEARCH_PARALLEL_THRESHOLD;
+    }
+}
@@ -1,35 +1,54 @@
 package net.code_notes.backend.services;
 
 import static net.code_notes.backend.helpers.Utils.assertArgsNotNullAndNotBlankOrThrow;
-import static net.code_notes.backend.helpers.Utils.assertArgsNullOrBlank;
 import static net.code_notes.backend.helpers.Utils.isBlank;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 
 import org.jspecify.annotations.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.annotation.Nullable;
 import lombok.extern.log4j.Log4j2;
 import net.code_notes.backend.abstracts.AbstractService;
-import net.code_notes.backend.abstracts.NoteInputType;
-import net.code_notes.backend.dto.NoteInputValueJpaDto;
-import net.code_notes.backend.dto.SearchNoteInputJpaDto;
+import net.code_notes.backend.abstracts.NoteSearchBackend;
+import net.code_notes.backend.abstracts.TagMatchMode;
+import net.code_notes.backend.dto.AppUserNotesVersionJpaDto;
+import net.code_notes.backend.dto.NoteKeyJpaDto;
+import net.code_notes.backend.dto.NoteKeysetResultDto;
+import net.code_notes.backend.dto.ScoredNoteDto;
+import net.code_notes.backend.dto.SearchNoteDataDto;
 import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.dto.SearchNoteRankingDto;
+import net.code_notes.backend.dto.SearchNoteRatingDto;
 import net.code_notes.backend.dto.SearchNoteResultDto;
 import net.code_notes.backend.entities.AppUser;
 import net.code_notes.backend.entities.Note;
-import net.code_notes.backend.helpers.Utils;
-import net.code_notes.backend.helpers.search.SearchStringUtils;
+import net.code_notes.backend.events.NoteChangedEvent;
+import net.code_notes.backend.events.NoteDeletedEvent;
+import net.code_notes.backend.helpers.NoteContinuationToken;
+import net.code_notes.backend.helpers.search.NoteTagIndex;
+import net.code_notes.backend.helpers.search.SearchDeadline;
+import net.code_notes.backend.helpers.search.SearchQuery;
+import net.code_notes.backend.helpers.search.TopKSelector;
 import net.code_notes.backend.repositories.NoteRepository;
+import net.code_notes.backend.services.NoteSearchMetricsService.Phase;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 
 /**
@@ -38,6 +57,9 @@ import net.code_notes.backend.repositories.NoteRepository;
 @Service
 @Log4j2
 public class NoteService extends AbstractService<Note> {
+
+    /** Number of notes loaded with one query when streaming search results */
+    private static final int STREAM_BATCH_SIZE = 20;
     
     @Autowired
     private NoteRepository noteRepository;
@@ -51,22 +73,60 @@ public class NoteService extends AbstractService<Note> {
     @Autowired
     private NoteInputService noteInputService;
 
+    @Autowired
+    private NoteSearchDataService noteSearchDataService;
+
+    @Autowired
+    private NoteSearchBackend noteSearchBackend;
+
+    @Autowired
+    private NoteSearchRatingService noteSearchRatingService;
+
+    @Autowired
+    private NoteSearchRankingCacheService noteSearchRankingCacheService;
+
+    @Autowired
+    private NoteTagIndexService noteTagIndexService;
+
+    @Autowired
+    private NoteSearchMetricsService noteSearchMetricsService;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /** Min number of ranked ids to cache per search, sothat following pages can be served from cache */
+    @Value("${NOTE_SEARCH_RANKING_CACHE_MAX_RESULTS}")
+    private int NOTE_SEARCH_RANKING_CACHE_MAX_RESULTS;
+
+    /** Max time to spend rating notes per search, see {@link SearchDeadline}. 0 means no limit */
+    @Value("${NOTE_SEARCH_CPU_BUDGET_MILLIS}")
+    private long NOTE_SEARCH_CPU_BUDGET_MILLIS;
+
+    /** Whether search words may match with a few typos, see {@link SearchQuery#compile(String, boolean)} */
+    @Value("${NOTE_SEARCH_FUZZY}")
+    private boolean NOTE_SEARCH_FUZZY;
+
 
     /**
      * Loads notes of current app user and matches {@code searchPhrase} agains {@code note.title} and {@code note.codeNoteInputsWithVars.first.value}
-     * only returning results that have at least one match AND contain all {@code tagNames}.<p>
+     * only returning results that have at least one match AND match the tag filter (see {@link NoteTagIndexService}).<p>
      * 
      * If {@code searchPhrase} is not specified, just apply {@code tagNames} and if those are missing too, load notes unfiltered.<p>
      * 
-     * Sort by created desc and search accuracy (prioritise search accuracy).
+     * Sort by created desc and search accuracy (prioritise search accuracy). Only the best matches are kept and sorted. The ranking is cached
+     * (see {@link NoteSearchRankingCacheService}), requesting other pages of the same search wont rate the notes again.<p>
+     * 
+     * Only notes returned by the configured {@link NoteSearchBackend} are rated, all other notes would get 0 rating points anyway. Rating
+     * stops after {@code NOTE_SEARCH_CPU_BUDGET_MILLIS}, returning the best matches found so far flagged as {@code partial}.
      *  
      * @param pageRequest for pagination
      * @param searchPhrase e.g. user searchbar input
      * @param tagNames 
+     * @param tagMatchMode whether notes need any or all of the {@code tagNames}, {@code null} means {@link TagMatchMode#ANY}
      * @return matching notes or empty list, never {@code null}
      */
     @NonNull
-    public SearchNoteResultDto loadByCurrentAppUserSortedAndSearch(@NonNull PageRequest pageRequest, String searchPhrase, List<String> tagNames) {
+    public SearchNoteResultDto loadByCurrentAppUserSortedAndSearch(@NonNull PageRequest pageRequest, String searchPhrase, List<String> tagNames, @Nullable TagMatchMode tagMatchMode) {
         assertArgsNotNullAndNotBlankOrThrow(pageRequest);
 
         AppUser currentAppUser = this.appUserService.getCurrent();
@@ -83,92 +143,255 @@ public class NoteService extends AbstractService<Note> {
                 
             // case: only filter by tags, sort and pageable
             } else {
-                count = this.noteRepository.countByAppUserEmailAndTags_NameInOrderByCreatedDesc(currentAppUser.getEmail(), tagNames, pageRequest);
-                results = this.noteRepository.findByAppUserEmailAndTags_NameInOrderByCreatedDesc(currentAppUser.getEmail(), tagNames, pageRequest);
+                NoteTagIndex noteTagIndex = this.noteTagIndexService.getOrBuild(currentAppUser, loadNotesVersion(currentAppUser));
+                count = noteTagIndex.count(tagNames, tagMatchMode);
+                List<Long> resultIds = noteTagIndex.findNoteIds(tagNames, tagMatchMode, pageRequest.getOffset(), pageRequest.getPageSize());
+                results = loadAllByIdsInOrder(resultIds);
             }
             
             return new SearchNoteResultDto(results, count);
         }
             
-        // load minimized notes
-        List<SearchNoteJpaDto> noteDtos = null;
-        if (isFilterByTags)
-            noteDtos = this.noteRepository.findByAppUserEmailAndTags_NameIn(currentAppUser.getEmail(), tagNames);
-        else
-            noteDtos = this.noteRepository.findByAppUserEmail(currentAppUser.getEmail());
-
-        Map<SearchNoteJpaDto, Double> resultNoteDtos = new LinkedHashMap<>();        
-
-        // search
-        noteDtos.stream()
-            .forEach(noteDto -> {
-                // match note.title
-                double ratingPoints = SearchStringUtils.matchPhrases(searchPhrase, noteDto.getTitle());
-
-                // match note.codeNoteInputsWithVars.first.value
-                double ratingPointsCodeInputWithVariables = matchFirstCodeNoteInputWithVariablesValue(noteDto, searchPhrase);
-                // case: is a better match than note.title
-                if (ratingPointsCodeInputWithVariables > ratingPoints)
-                    ratingPoints = ratingPointsCodeInputWithVariables;
-                
-                // only show matches
-                if (ratingPoints > 0)
-                    resultNoteDtos.put(noteDto, ratingPoints);
-            });
+        long pageStartIndex = (long) pageRequest.getPageNumber() * pageRequest.getPageSize();
+        int pageEndIndex = (int) Math.min(Integer.MAX_VALUE, pageStartIndex + pageRequest.getPageSize());
 
-        count = resultNoteDtos.size();
+        SearchNoteRankingDto ranking = getOrRank(currentAppUser, searchPhrase, tagNames, tagMatchMode, pageEndIndex);
 
-        // sort by created desc and rating points (prioritise rating points)
-        List<Entry<SearchNoteJpaDto, Double>> sortedNoteDtos = resultNoteDtos.entrySet().stream()
-            .sorted((entry1, entry2) -> entry2.getKey().getCreated().compareTo(entry1.getKey().getCreated()))
-            .sorted((entry1, entry2) -> entry2.getValue().compareTo(entry1.getValue()))
-            .toList();
+        count = ranking.getTotalResults();
 
-        results = Utils
-            // paginate    
-            .paginate(sortedNoteDtos, pageRequest.getPageNumber(), pageRequest.getPageSize())
-            // load actual notes
-            .stream()
-            .map(entry -> loadById(entry.getKey().getId()))
-            .toList();
+        List<Long> rankedIds = ranking.getRankedIds();
+        List<Long> resultIds = rankedIds.size() <= pageStartIndex ? 
+            List.of() :
+            // paginate
+            rankedIds.subList((int) pageStartIndex, Math.min(pageEndIndex, rankedIds.size()));
+
+        // load actual notes
+        results = this.noteSearchMetricsService.record(Phase.HYDRATION, () -> loadAllByIdsInOrder(resultIds));
 
-        return new SearchNoteResultDto(results, count);
+        return new SearchNoteResultDto(results, count, ranking.isPartial());
     }
 
     /**
-     * Match {@code searchPhrase} against the firt code note input with vars if present. Use the inputs sanitized value.
+     * Load a page of notes of current app user sorted by created and id descending. Unlike {@link #loadByCurrentAppUserSortedAndSearch(PageRequest, String, List, TagMatchMode)}
+     * the page does not start at an offset but right after the last note of the previous page (keyset pagination), sothat the db does not 
+     * need to skip all notes of previous pages. Notes saved while paginating don't shift the following pages.
      * 
-     * @param noteDto possibly containing the code note input with vars
-     * @param searchPhrase to match input value against
-     * @return the rating points returned by {@code SearchUtils.matchPhrases}, 0 if invalid args or no input present
+     * @param pageSize max number of notes to return
+     * @param continuationToken as returned with the previous page, {@code null} or blank for the first page
+     * @return the page and the token of the next page, never {@code null}
+     * @throws ResponseStatusException 400 if {@code continuationToken} is malformed
      */
-    private double matchFirstCodeNoteInputWithVariablesValue(SearchNoteJpaDto noteDto, String searchPhrase) {
-        if (assertArgsNullOrBlank(noteDto, searchPhrase))
-            return 0;
+    @NonNull
+    public NoteKeysetResultDto loadByCurrentAppUserAfter(int pageSize, @Nullable String continuationToken) throws ResponseStatusException {
+        AppUser currentAppUser = this.appUserService.getCurrent();
+        // one more to know whether there's a next page
+        PageRequest pageRequest = PageRequest.of(0, Math.max(1, Math.min(pageSize, Integer.MAX_VALUE - 1)) + 1);
 
-        // find input with vars
-        SearchNoteInputJpaDto firstCodeNoteInputWithVariablesDto = noteDto.getNoteInputs()
-            .stream()
-            .filter(noteInput -> noteInput.getType().equals(NoteInputType.CODE_WITH_VARIABLES))
-            .findFirst()
-            .orElse(null);
+        List<NoteKeyJpaDto> noteKeys;
+        if (isBlank(continuationToken))
+            noteKeys = this.noteRepository.findKeysByAppUserEmailOrderByCreatedDescIdDesc(currentAppUser.getEmail(), pageRequest);
+
+        else {
+            NoteContinuationToken after;
+            try {
+                after = NoteContinuationToken.decode(continuationToken);
 
-        double ratingPointsCodeInputWithVariables = 0;
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(BAD_REQUEST, "Invalid 'continuationToken'");
+            }
 
-        // case: found an input with vars
-        if (firstCodeNoteInputWithVariablesDto != null) {
-            // load value
-            NoteInputValueJpaDto firstCodeNoteInputWithVariables = this.noteInputService.loadValueById(firstCodeNoteInputWithVariablesDto.getId());
+            noteKeys = this.noteRepository.findKeysByAppUserEmailAfter(currentAppUser.getEmail(), after.getCreated(), after.getId(), pageRequest);
+        }
 
-            ratingPointsCodeInputWithVariables = SearchStringUtils.matchPhrases(searchPhrase, firstCodeNoteInputWithVariables.getValue());
+        String nextContinuationToken = null;
+        if (noteKeys.size() >= pageRequest.getPageSize()) {
+            noteKeys = noteKeys.subList(0, pageRequest.getPageSize() - 1);
+            NoteKeyJpaDto lastNoteKey = noteKeys.get(noteKeys.size() - 1);
+            nextContinuationToken = new NoteContinuationToken(lastNoteKey.getCreated(), lastNoteKey.getId()).encode();
         }
 
-        return ratingPointsCodeInputWithVariables;
+        List<Note> results = loadAllByIdsInOrder(noteKeys.stream().map(NoteKeyJpaDto::getId).toList());
+
+        return new NoteKeysetResultDto(results, nextContinuationToken);
+    }
+
+    /**
+     * Identifies the state of all notes and tags of current app user: changes whenever one of them is written (see {@code appUser.notesVersion}).
+     * Any response derived from only those notes (and the request params) may be cached by the client under this etag. Weak, since equal 
+     * requests may still be answered differently, e.g. partial searches.<p>
+     * 
+     * Only queries the app user table.
+     * 
+     * @return the weak etag, e.g. {@code W/"3-42"} for app user id 3 and notes version 42. {@code null} if the app user does not exist in db
+     * @throws ResponseStatusException 401 if not logged in
+     */
+    @Nullable
+    public String getNotesETagOfCurrentAppUser() throws ResponseStatusException {
+        AppUserNotesVersionJpaDto notesVersion = this.appUserService.loadNotesVersion(this.appUserService.getCurrent().getEmail());
+        if (notesVersion == null)
+            return null;
+
+        // app user id, in case the app user is deleted and registered again
+        return "W/\"" + notesVersion.getId() + "-" + notesVersion.getNotesVersion() + "\"";
+    }
+
+    /**
+     * Rank the notes of current app user like {@link #loadByCurrentAppUserSortedAndSearch(PageRequest, String, List, TagMatchMode)} does, without loading them.
+     * Needs to be called on the request thread.
+     * 
+     * @param searchPhrase e.g. user searchbar input
+     * @param tagNames to filter notes by, may be {@code null}
+     * @param tagMatchMode whether notes need any or all of the {@code tagNames}, {@code null} means {@link TagMatchMode#ANY}
+     * @param minResults min number of ranked ids (if there are that many results)
+     * @return the ranking, never {@code null}
+     * @throws ResponseStatusException 400 if {@code searchPhrase} is blank
+     */
+    @NonNull
+    public SearchNoteRankingDto rankByCurrentAppUser(String searchPhrase, @Nullable List<String> tagNames, @Nullable TagMatchMode tagMatchMode, int minResults) throws ResponseStatusException {
+        if (isBlank(searchPhrase))
+            throw new ResponseStatusException(BAD_REQUEST, "'searchPhrase' cannot be blank");
+
+        return getOrRank(this.appUserService.getCurrent(), searchPhrase, tagNames, tagMatchMode, minResults);
+    }
+
+    /**
+     * Load the first {@code maxResults} notes of given {@code ranking} in batches of {@link #STREAM_BATCH_SIZE}, best match first. Each
+     * batch is loaded with one query on a thread suitable for blocking io, sothat the first notes are emitted before the rest is loaded.<p>
+     * 
+     * Does not access the security context, so the returned flux may be subscribed to on any thread.
+     * 
+     * @param ranking as returned by {@link #rankByCurrentAppUser(String, List, TagMatchMode, int)}
+     * @param maxResults max number of notes to emit
+     * @return the ranked notes with their rating points. Notes deleted since ranking are skipped
+     */
+    @NonNull
+    public Flux<ScoredNoteDto> streamRankedNotes(@NonNull SearchNoteRankingDto ranking, int maxResults) {
+        assertArgsNotNullAndNotBlankOrThrow(ranking);
+
+        List<Long> rankedIds = ranking.getRankedIds().subList(0, Math.max(0, Math.min(maxResults, ranking.getRankedIds().size())));
+        int numBatches = (rankedIds.size() + STREAM_BATCH_SIZE - 1) / STREAM_BATCH_SIZE;
+
+        return Flux
+            .range(0, numBatches)
+            .concatMap(batchIndex -> {
+                int fromIndex = batchIndex * STREAM_BATCH_SIZE;
+                int toIndex = Math.min(fromIndex + STREAM_BATCH_SIZE, rankedIds.size());
+
+                return Mono
+                    .fromCallable(() -> this.noteSearchMetricsService.record(Phase.HYDRATION, () -> loadAllByIdsInOrder(rankedIds.subList(fromIndex, toIndex))))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapIterable(notes -> {
+                        // case: some notes have been deleted, cannot use batch indices
+                        Map<Long, Double> ratingPointsById = new HashMap<>();
+                        for (int i = fromIndex; i < toIndex; i++)
+                            ratingPointsById.put(rankedIds.get(i), ranking.getRankedRatingPoints().get(i));
+
+                        return notes
+                            .stream()
+                            .map(note -> new ScoredNoteDto(note, ratingPointsById.get(note.getId())))
+                            .toList();
+                    });
+            });
+    }
+
+    /**
+     * Get the cached ranking of the search or rank and cache it if the cached ranking does not have {@code minResults} results.<p>
+     * 
+     * Rankings are cached for the {@code appUser.notesVersion} read before ranking, so the ranking is always at least as new as the etag 
+     * read before calling this (see {@link #getNotesETagOfCurrentAppUser()}).
+     * 
+     * @param appUser whose notes to search
+     * @param searchPhrase not blank
+     * @param tagNames to filter notes by, may be {@code null}
+     * @param tagMatchMode whether notes need any or all of the {@code tagNames}, may be {@code null}
+     * @param minResults min number of ranked ids (if there are that many results)
+     * @return the ranking, never {@code null}
+     */
+    private SearchNoteRankingDto getOrRank(AppUser appUser, String searchPhrase, List<String> tagNames, @Nullable TagMatchMode tagMatchMode, int minResults) {
+        long notesVersion = loadNotesVersion(appUser);
+
+        // case: cached ranking reaches the requested results
+        SearchNoteRankingDto ranking = this.noteSearchRankingCacheService.get(appUser, searchPhrase, tagNames, tagMatchMode, notesVersion);
+        if (ranking != null && (ranking.isComplete() || ranking.getRankedIds().size() >= minResults))
+            return ranking;
+
+        ranking = rank(appUser, searchPhrase, tagNames, tagMatchMode, Math.max(minResults, this.NOTE_SEARCH_RANKING_CACHE_MAX_RESULTS), notesVersion);
+
+        // case: ran out of time, try again next time
+        if (!ranking.isPartial())
+            this.noteSearchRankingCacheService.put(appUser, searchPhrase, tagNames, tagMatchMode, notesVersion, ranking);
+
+        return ranking;
+    }
+
+    /**
+     * Rate the notes of given {@code appUser} that might match {@code searchPhrase} and keep the best {@code maxResults}.
+     * 
+     * @param appUser whose notes to search
+     * @param searchPhrase not blank
+     * @param tagNames to filter notes by, may be {@code null}
+     * @param tagMatchMode whether notes need any or all of the {@code tagNames}, may be {@code null}
+     * @param maxResults max number of ranked ids to keep
+     * @param notesVersion current {@code appUser.notesVersion}
+     * @return the ranking, never {@code null}
+     */
+    private SearchNoteRankingDto rank(AppUser appUser, String searchPhrase, List<String> tagNames, @Nullable TagMatchMode tagMatchMode, int maxResults, long notesVersion) {
+        // split and fold the search phrase only once for all notes
+        SearchQuery searchQuery = SearchQuery.compile(searchPhrase, this.NOTE_SEARCH_FUZZY);
+
+        // case: filter by tags, null means all notes
+        Set<Long> tagFilteredNoteIds = tagNames == null || tagNames.isEmpty() ? 
+            null : 
+            this.noteTagIndexService.getOrBuild(appUser, notesVersion).getNoteIds(tagNames, tagMatchMode);
+
+        // only notes that might have rating points
+        List<SearchNoteJpaDto> candidateNoteDtos = this.noteSearchMetricsService.record(Phase.CANDIDATES, () -> 
+            this.noteSearchBackend.findCandidates(appUser, searchQuery, tagFilteredNoteIds));
+
+        // load everything needed for rating at once
+        SearchNoteDataDto searchNoteData = this.noteSearchMetricsService.record(Phase.SEARCH_DATA, () -> 
+            this.noteSearchDataService.loadSearchData(candidateNoteDtos));
+
+        // only keep the best notes instead of sorting all matches
+        SearchDeadline deadline = SearchDeadline.afterMillis(this.NOTE_SEARCH_CPU_BUDGET_MILLIS);
+        TopKSelector<SearchNoteRatingDto> topNoteRatings = this.noteSearchMetricsService.record(Phase.RATING, () -> 
+            this.noteSearchRatingService.rate(candidateNoteDtos, searchNoteData, searchQuery, maxResults, deadline));
+        boolean isPartial = deadline.wasExceeded();
+
+        log.debug("Rated {} notes{}, loading search data took {} queries", candidateNoteDtos.size(), isPartial ? " (out of time)" : "", searchNoteData.getQueryCount());
+
+        this.noteSearchMetricsService.countCandidates(candidateNoteDtos.size());
+        this.noteSearchMetricsService.countValuesLoaded(searchNoteData.getNoteInputSearchTokens().values().stream().mapToInt(List::size).sum());
+        this.noteSearchMetricsService.countMatches(topNoteRatings.getCount());
+        if (isPartial)
+            this.noteSearchMetricsService.countPartial();
+
+        List<SearchNoteRatingDto> sortedNoteRatings = this.noteSearchMetricsService.record(Phase.SORTING, topNoteRatings::toSortedList);
+        List<Long> rankedIds = sortedNoteRatings
+            .stream()
+            .map(noteRating -> noteRating.getNoteDto().getId())
+            .toList();
+        List<Double> rankedRatingPoints = sortedNoteRatings
+            .stream()
+            .map(SearchNoteRatingDto::getRatingPoints)
+            .toList();
+
+        return new SearchNoteRankingDto(rankedIds, rankedRatingPoints, topNoteRatings.getCount(), isPartial);
+    }
+
+    /**
+     * @param appUser
+     * @return the current {@code appUser.notesVersion} or {@code -1} if the app user does not exist in db
+     */
+    private long loadNotesVersion(AppUser appUser) {
+        AppUserNotesVersionJpaDto notesVersion = this.appUserService.loadNotesVersion(appUser.getEmail());
+
+        return notesVersion == null ? -1 : notesVersion.getNotesVersion();
     }
 
     /**
      * Save or create given {@code note} and reference it to given {@code appUser}.
-     * Also save or delete tags if necessary.
+     * Also save or delete tags if necessary and increment the app user's notes version, all in one transaction.
      * 
      * @param note to save. {@code appUser} field might not be present because of {@code @JsonIgnore}
      * @return saved {@code note}
@@ -176,24 +399,48 @@ public class NoteService extends AbstractService<Note> {
      * @throws IllegalArgumentException if a param is {@code null}
      */
     @Override
+    @Transactional
     public Note save(Note note) throws ResponseStatusException, IllegalArgumentException {
         assertArgsNotNullAndNotBlankOrThrow(note);
 
-        validateAndThrow(note);
-
         AppUser currentAppUser = this.appUserService.loadCurrentFromDb();
 
-        setIgnoredFields(note, currentAppUser);
+        note = save(note, currentAppUser);
 
-        this.tagService.handleSaveNote(note, currentAppUser);
+        this.tagService.removeOrphanTags(currentAppUser);
 
-        note = this.noteRepository.save(note);
+        this.appUserService.incrementNotesVersion(currentAppUser.getEmail());
 
-        this.tagService.removeOrphanTags(currentAppUser);
+        this.applicationEventPublisher.publishEvent(new NoteChangedEvent(currentAppUser.getEmail(), List.of(note.getId())));
 
         return note;
     }
 
+    /**
+     * Save given {@code note} without removing orphan tags or publishing events.
+     * 
+     * @param note to save
+     * @param appUser the note belongs to
+     * @return saved {@code note}
+     * @throws ResponseStatusException if note is invalid
+     * @throws IllegalArgumentException if a param is {@code null}
+     */
+    private Note save(Note note, AppUser appUser) throws ResponseStatusException, IllegalArgumentException {
+        assertArgsNotNullAndNotBlankOrThrow(note);
+
+        validateAndThrow(note);
+
+        setIgnoredFields(note, appUser);
+
+        this.tagService.handleSaveNote(note, appUser);
+
+        Note savedNote = this.noteRepository.save(note);
+
+        this.noteInputService.saveSearchTokens(savedNote.getNoteInputs());
+
+        return savedNote;
+    }
+
     @Override
     protected Note saveNew(Note note) throws ResponseStatusException, IllegalArgumentException {
         return save(note);
@@ -205,20 +452,49 @@ public class NoteService extends AbstractService<Note> {
     }
 
     /**
-     * Save all notes from given list using {@link #save(Note)} method.
+     * Save all notes from given list in one transaction, like {@link #save(Note)} would. Loads the app user and the tags once for all notes,
+     * saves the notes with one {@code saveAll} and removes orphan tags once. Increments the app user's notes version once.
      * 
      * @param notes may be empty
      * @return list of saved notes, empty list if {@code notes} is empty
      * @throws ResponseStatusException see {@link #save(Note)}
      * @throws IllegalArgumentException if arg is null
      */
+    @Transactional
     public Collection<Note> saveAll(Collection<Note> notes) throws ResponseStatusException, IllegalArgumentException {
         assertArgsNotNullAndNotBlankOrThrow(notes);
 
-        return notes
+        AppUser currentAppUser = this.appUserService.loadCurrentFromDb();
+
+        notes.forEach(note -> {
+            assertArgsNotNullAndNotBlankOrThrow(note);
+
+            validateAndThrow(note);
+
+            setIgnoredFields(note, currentAppUser);
+        });
+
+        this.tagService.handleSaveNotes(notes, currentAppUser);
+
+        List<Note> savedNotes = this.noteRepository.saveAll(notes);
+
+        this.noteInputService.saveSearchTokens(savedNotes
             .stream()
-            .map(note -> save(note))
-            .toList();
+            .filter(note -> note.getNoteInputs() != null)
+            .flatMap(note -> note.getNoteInputs().stream())
+            .toList());
+
+        this.tagService.removeOrphanTags(currentAppUser);
+
+        this.appUserService.incrementNotesVersion(currentAppUser.getEmail());
+
+        // one event for all notes
+        this.applicationEventPublisher.publishEvent(new NoteChangedEvent(
+            currentAppUser.getEmail(), 
+            savedNotes.stream().map(Note::getId).toList()
+        ));
+
+        return savedNotes;
     }
 
     /**
@@ -233,6 +509,7 @@ public class NoteService extends AbstractService<Note> {
         assertArgsNotNullAndNotBlankOrThrow(note, appUser);
 
         note.setAppUser(appUser);
+        note.updateNormalizedTitle();
 
         return note;
     }
@@ -249,16 +526,75 @@ public class NoteService extends AbstractService<Note> {
     }
 
     /**
-     * Delete note with given id if not {@code null} (wont throw).
+     * Load all notes with given ids using a single query and sort them like the {@code ids}.
+     * 
+     * @param ids of the notes to load, the order of this list determines the order of the results
+     * @return the notes in the same order as their {@code ids}. Ids that don't exist are skipped. Empty list if {@code ids} is {@code null} or empty
+     */
+    @NonNull
+    public List<Note> loadAllByIdsInOrder(@Nullable List<Long> ids) {
+        if (ids == null || ids.isEmpty())
+            return new ArrayList<>();
+
+        Map<Long, Note> notesById = new HashMap<>();
+        this.noteRepository
+            .findAllByIdIn(ids)
+            .forEach(note -> notesById.put(note.getId(), note));
+
+        return ids
+            .stream()
+            .map(notesById::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Delete note with given id if not {@code null} and if it belongs to the current app user (wont throw). Increments the app user's notes 
+     * version in the same transaction, if a note has been deleted.
      * 
      * @param id of the note to delete
      */
+    @Transactional
     public void delete(@Nullable Long id) {
         if (id == null)
             return;
 
-        this.noteRepository.deleteById(id);
+        AppUser currentAppUser = this.appUserService.getCurrent();
+
+        // case: no such note or note of another app user, nothing changed
+        if (this.noteRepository.deleteByIdAndAppUserEmail(id, currentAppUser.getEmail()) == 0)
+            return;
+
+        this.tagService.removeOrphanTags(currentAppUser);
+
+        this.appUserService.incrementNotesVersion(currentAppUser.getEmail());
+
+        this.applicationEventPublisher.publishEvent(new NoteDeletedEvent(currentAppUser.getEmail(), List.of(id)));
+    }
+
+    /**
+     * Compute the normalized title of notes saved before {@code note.normalizedTitle} existed, 100 at a time. Does not change 
+     * {@code note.updated}. Notes without normalized title are still found by the note search, just slower.
+     * 
+     * @return the number of updated notes
+     */
+    public int migrateNormalizedTitles() {
+        log.info("Computing missing normalized note titles...");
+
+        int numMigrated = 0;
+        List<Note> notes;
+        // always the first page, updated notes don't match anymore
+        while (!(notes = this.noteRepository.findAllByNormalizedTitleIsNull(PageRequest.of(0, 100))).isEmpty()) {
+            notes.forEach(note -> {
+                note.updateNormalizedTitle();
+                this.noteRepository.updateNormalizedTitleById(note.getId(), note.getNormalizedTitle());
+            });
+
+            numMigrated += notes.size();
+        }
+
+        log.info("Computed normalized titles of {} notes", numMigrated);
 
-        this.tagService.removeOrphanTags();
+        return numMigrated;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,242 @@
+package net.code_notes.backend.services;
+
+import static net.code_notes.backend.helpers.Utils.assertArgsNotNullAndNotBlankOrThrow;
+import static net.code_notes.backend.helpers.Utils.isBlank;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.log4j.Log4j2;
+import net.code_notes.backend.dto.SuggestionDto;
+import net.code_notes.backend.dto.SuggestionNoteJpaDto;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.helpers.search.SuggestionTrie;
+import net.code_notes.backend.repositories.NoteRepository;
+
+
+/**
+ * Completes the word an app user is typing in the search bar from the words of their note titles and their tag names. Holds one
+ * {@link SuggestionTrie} per app user (by email), built on the first suggestion request of an app user and updated in the background
+ * whenever notes change (see {@code NoteSearchEventListener}). Apart from that first request, suggestions never touch the db.
+ *
+ * @since 1.2.0
+ */
+@Service
+@Log4j2
+public class NoteSuggestionService {
+
+    /** Max number of suggestions per request */
+    public static final int MAX_SUGGESTIONS = 50;
+
+    /** App user email -> suggestion trie of that app user's notes */
+    private final Map<String, SuggestionTrie> triesByAppUserEmail = new ConcurrentHashMap<>();
+
+    /** App user email -> trie build in progress */
+    private final Map<String, CompletableFuture<SuggestionTrie>> buildsByAppUserEmail = new ConcurrentHashMap<>();
+
+    /** App user email -> ids of notes changed while that app user's trie is being built. Only modified within {@code compute} methods */
+    private final Map<String, Set<Long>> changedNoteIdsByAppUserEmail = new ConcurrentHashMap<>();
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+
+    /**
+     * Needs to be called on the request thread.
+     *
+     * @param prefix start of the word to complete
+     * @param maxResults max number of suggestions, capped at {@link #MAX_SUGGESTIONS}
+     * @return the best completions of {@code prefix}, empty list if {@code prefix} is blank. Never {@code null}
+     */
+    @NonNull
+    public List<SuggestionDto> suggestByCurrentAppUser(@Nullable String prefix, int maxResults) {
+        if (isBlank(prefix))
+            return new ArrayList<>();
+
+        return getOrBuild(this.appUserService.getCurrent()).complete(prefix, Math.min(maxResults, MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Builds outside the trie map, concurrent calls for the same app user wait for the same build. Changes committed during the build
+     * are applied once the trie is present, since their updates may have run before.
+     *
+     * @param appUser to get the trie for
+     * @return the suggestion trie of given {@code appUser}, building it if not present yet. Never {@code null}
+     * @throws IllegalArgumentException if {@code appUser} or it's email is {@code null}
+     */
+    @NonNull
+    public SuggestionTrie getOrBuild(AppUser appUser) throws IllegalArgumentException {
+        assertArgsNotNullAndNotBlankOrThrow(appUser);
+        assertArgsNotNullAndNotBlankOrThrow(appUser.getEmail());
+
+        String appUserEmail = appUser.getEmail();
+        SuggestionTrie suggestionTrie = this.triesByAppUserEmail.get(appUserEmail);
+        if (suggestionTrie != null)
+            return suggestionTrie;
+
+        CompletableFuture<SuggestionTrie> build = new CompletableFuture<>();
+        CompletableFuture<SuggestionTrie> runningBuild = this.buildsByAppUserEmail.putIfAbsent(appUserEmail, build);
+        // case: built by another thread, wait for it
+        if (runningBuild != null)
+            return joinBuild(runningBuild);
+
+        try {
+            suggestionTrie = this.triesByAppUserEmail.get(appUserEmail);
+            // case: built between get and putIfAbsent
+            if (suggestionTrie == null) {
+                // collect changes committed from now on
+                this.changedNoteIdsByAppUserEmail.put(appUserEmail, new HashSet<>());
+
+                SuggestionTrie builtSuggestionTrie = build(appUserEmail);
+                suggestionTrie = Objects.requireNonNullElse(this.triesByAppUserEmail.putIfAbsent(appUserEmail, builtSuggestionTrie), builtSuggestionTrie);
+
+                // after put, sothat updates find either the trie or the collected changes
+                Set<Long> changedNoteIds = this.changedNoteIdsByAppUserEmail.remove(appUserEmail);
+                if (changedNoteIds != null)
+                    update(appUserEmail, changedNoteIds);
+
+                // case: evicted during the build, changes might be missing
+                else
+                    this.triesByAppUserEmail.remove(appUserEmail, suggestionTrie);
+            }
+
+            build.complete(suggestionTrie);
+
+            return suggestionTrie;
+
+        } catch (RuntimeException e) {
+            this.changedNoteIdsByAppUserEmail.remove(appUserEmail);
+            build.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            this.buildsByAppUserEmail.remove(appUserEmail, build);
+        }
+    }
+
+    /**
+     * Load given notes from db and update the app user's trie accordingly: re-add notes that exist and remove the others. Does nothing
+     * if the app user's trie has not been built. If it is being built, the notes are updated once it is (see {@link #getOrBuild(AppUser)}).<p>
+     *
+     * Blocking, meant to be called in the background.
+     *
+     * @param appUserEmail the notes belong to
+     * @param noteIds of changed or deleted notes
+     */
+    public void update(@Nullable String appUserEmail, @Nullable Collection<Long> noteIds) {
+        if (appUserEmail == null || noteIds == null || noteIds.isEmpty())
+            return;
+
+        SuggestionTrie suggestionTrie = getForUpdate(appUserEmail, noteIds);
+        if (suggestionTrie == null)
+            return;
+
+        List<Long> removedNoteIds = new ArrayList<>(noteIds);
+        this.noteRepository
+            .findSuggestionsByAppUserEmailAndIdIn(appUserEmail, noteIds)
+            .forEach(noteDto -> {
+                suggestionTrie.put(noteDto.getId(), getTerms(noteDto));
+                removedNoteIds.remove(noteDto.getId());
+            });
+        removedNoteIds.forEach(suggestionTrie::remove);
+    }
+
+    /**
+     * Drop the suggestion trie of given app user. It will be rebuilt on next request. Wont throw.
+     *
+     * @param appUserEmail
+     */
+    public void evict(@Nullable String appUserEmail) {
+        if (appUserEmail == null)
+            return;
+
+        // case: being built, dont keep the result. Before removing the trie, in case the build is putting it right now
+        this.changedNoteIdsByAppUserEmail.remove(appUserEmail);
+        this.triesByAppUserEmail.remove(appUserEmail);
+    }
+
+    /**
+     * @param build of another thread
+     * @return the built trie
+     * @throws RuntimeException the exception the build failed with
+     */
+    private static SuggestionTrie joinBuild(CompletableFuture<SuggestionTrie> build) throws RuntimeException {
+        try {
+            return build.join();
+
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+
+            throw e;
+        }
+    }
+
+    /**
+     * @param appUserEmail
+     * @param noteIds changed notes to collect if the trie is being built
+     * @return the trie of given app user, {@code null} if not built yet or if {@code noteIds} have been collected for the running build
+     */
+    @Nullable
+    private SuggestionTrie getForUpdate(String appUserEmail, Collection<Long> noteIds) {
+        SuggestionTrie suggestionTrie = this.triesByAppUserEmail.get(appUserEmail);
+        if (suggestionTrie != null)
+            return suggestionTrie;
+
+        // case: being built, the build might not see the changes
+        Set<Long> changedNoteIds = this.changedNoteIdsByAppUserEmail.computeIfPresent(appUserEmail, (email, noteIdsOfBuild) -> {
+            noteIdsOfBuild.addAll(noteIds);
+            return noteIdsOfBuild;
+        });
+        if (changedNoteIds != null)
+            return null;
+
+        // case: built between get and computeIfPresent, else not built yet and will contain the changes once built
+        return this.triesByAppUserEmail.get(appUserEmail);
+    }
+
+    private SuggestionTrie build(String appUserEmail) {
+        log.debug("Building suggestion trie for app user...");
+
+        SuggestionTrie suggestionTrie = new SuggestionTrie();
+        this.noteRepository
+            .findSuggestionsByAppUserEmail(appUserEmail)
+            .forEach(noteDto -> suggestionTrie.put(noteDto.getId(), getTerms(noteDto)));
+
+        log.debug("Built suggestion trie with {} notes and {} terms", suggestionTrie.size(), suggestionTrie.getTermCount());
+
+        return suggestionTrie;
+    }
+
+    /**
+     * @param noteDto
+     * @return the words of the note title and the tag names of the note
+     */
+    private static List<String> getTerms(SuggestionNoteJpaDto noteDto) {
+        List<String> terms = new ArrayList<>();
+
+        if (!isBlank(noteDto.getTitle()))
+            terms.addAll(List.of(noteDto.getTitle().strip().split("\\s+")));
+
+        if (noteDto.getTags() != null)
+            noteDto.getTags().forEach(tag -> terms.add(tag.getName()));
+
+        return terms;
+    }
+}
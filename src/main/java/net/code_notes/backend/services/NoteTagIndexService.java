@@ -0,0 +1,95 @@
+package net.code_notes.backend.services;
+
+import static net.code_notes.backend.helpers.Utils.assertArgsNotNullAndNotBlankOrThrow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.log4j.Log4j2;
+import net.code_notes.backend.dto.NoteTagNameJpaDto;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.helpers.search.NoteTagIndex;
+import net.code_notes.backend.repositories.NoteRepository;
+
+
+/**
+ * Filters notes by tags in memory. Holds one {@link NoteTagIndex} per app user (by email), built on the first tag filtered request of an
+ * app user.<p>
+ *
+ * Unlike the search index, a tag index is keyed on {@code appUser.notesVersion} and rebuilt on the first request with another version,
+ * since listing notes by tags does not tolerate a stale index. Not even until the after commit listeners have run, the etag of the
+ * listing is the notes version.
+ *
+ * @since 1.2.0
+ */
+@Service
+@Log4j2
+public class NoteTagIndexService {
+
+    /** App user email -> tag index of that app user's notes */
+    private final Map<String, VersionedNoteTagIndex> indicesByAppUserEmail = new ConcurrentHashMap<>();
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+
+    /**
+     * @param appUser to get the tag index for
+     * @param notesVersion current {@code appUser.notesVersion}, needs to be read before calling this
+     * @return the tag index of given {@code appUser} at least as new as {@code notesVersion}, building it if not present or built for
+     * another version. Never {@code null}
+     * @throws IllegalArgumentException if {@code appUser} or it's email is {@code null}
+     */
+    @NonNull
+    public NoteTagIndex getOrBuild(AppUser appUser, long notesVersion) throws IllegalArgumentException {
+        assertArgsNotNullAndNotBlankOrThrow(appUser);
+        assertArgsNotNullAndNotBlankOrThrow(appUser.getEmail());
+
+        VersionedNoteTagIndex versionedNoteTagIndex = this.indicesByAppUserEmail.get(appUser.getEmail());
+        if (versionedNoteTagIndex != null && versionedNoteTagIndex.notesVersion() == notesVersion)
+            return versionedNoteTagIndex.noteTagIndex();
+
+        // contains all changes up to notesVersion, since that has been read before loading the notes
+        NoteTagIndex noteTagIndex = build(appUser.getEmail());
+
+        // case: concurrent build for a newer version, dont replace it
+        this.indicesByAppUserEmail.merge(
+            appUser.getEmail(),
+            new VersionedNoteTagIndex(noteTagIndex, notesVersion),
+            (oldIndex, newIndex) -> oldIndex.notesVersion() > newIndex.notesVersion() ? oldIndex : newIndex);
+
+        return noteTagIndex;
+    }
+
+    private NoteTagIndex build(String appUserEmail) {
+        log.debug("Building note tag index for app user...");
+
+        NoteTagIndex noteTagIndex = new NoteTagIndex();
+        List<NoteTagNameJpaDto> noteTagNameDtos = this.noteRepository.findNoteTagNamesByAppUserEmail(appUserEmail);
+
+        // rows of one note are consecutive, in created order
+        for (int fromIndex = 0; fromIndex < noteTagNameDtos.size();) {
+            NoteTagNameJpaDto noteDto = noteTagNameDtos.get(fromIndex);
+            List<String> tagNames = new ArrayList<>();
+
+            int toIndex = fromIndex;
+            for (; toIndex < noteTagNameDtos.size() && noteTagNameDtos.get(toIndex).getNoteId().equals(noteDto.getNoteId()); toIndex++)
+                tagNames.add(noteTagNameDtos.get(toIndex).getTagName());
+
+            noteTagIndex.add(noteDto.getNoteId(), noteDto.getCreated(), tagNames);
+            fromIndex = toIndex;
+        }
+
+        log.debug("Built note tag index with {} notes and {} tags", noteTagIndex.size(), noteTagIndex.getTagCount());
+
+        return noteTagIndex;
+    }
+
+    private record VersionedNoteTagIndex(NoteTagIndex noteTagIndex, long notesVersion) {}
+}
@@ -1,10 +1,18 @@
 package net.code_notes.backend.services;
 
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.annotation.Nullable;
@@ -12,6 +20,7 @@ import net.code_notes.backend.abstracts.AbstractService;
 import net.code_notes.backend.entities.AppUser;
 import net.code_notes.backend.entities.Note;
 import net.code_notes.backend.entities.Tag;
+import net.code_notes.backend.events.TagsDeletedEvent;
 import net.code_notes.backend.helpers.Utils;
 import net.code_notes.backend.repositories.TagRepository;
 
@@ -28,17 +37,25 @@ public class TagService extends AbstractService<Tag> {
     @Autowired 
     private AppUserService appUserService;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
 
+    /**
+     * Also increments the app user's notes version.
+     */
     @Override
+    @Transactional
     public Tag save(Tag tag) {
         Utils.assertArgsNotNullAndNotBlankOrThrow(tag);
 
         AppUser appUser = this.appUserService.getCurrent();
 
-        if (existsByNameAndAppUser(tag, appUser))
-            return update(tag, appUser);
+        tag = existsByNameAndAppUser(tag, appUser) ? update(tag, appUser) : saveNew(tag, appUser);
+
+        this.appUserService.incrementNotesVersion(appUser.getEmail());
 
-        return saveNew(tag, appUser);
+        return tag;
     }
 
 
@@ -53,47 +70,76 @@ public class TagService extends AbstractService<Tag> {
         
         Utils.assertArgsNotNullAndNotBlankOrThrow(note, appUser);
         
-        // contains only tags from db
-        List<Tag> tags = getOrCreateNoteTags(note, appUser);
-
-        if (tags != null)
-            note.setTags(tags);
+        handleSaveNotes(List.of(note), appUser);
     }
 
 
     /**
-     * Find every tag from given {@code note} in db and either save it if it didn't exist or replace the tag in the list with the
-     * tag from the db.
+     * Batch version of {@link #handleSaveNote(Note, AppUser)}. Loads the existing tags of all {@code notes} with one query and saves the
+     * new ones together. Tags with the same name are the same instance, for all notes.<p>
      * 
-     * @param note to update tags for
-     * @return updated {@code note} tags or {@code null} if {@code note.tags} is {@code null}
-     * @throws IllegalArgumentException if {@code note} or {@code appUser} is {@code null}
+     * A tag is matched by exact name first. Otherwise by a tag the db returned for that name, i.e. ignoring case if the db collation does,
+     * or by a new tag of this batch with the same name ignoring case, sothat e.g. "Java" and "java" don't create two tags.
+     * 
+     * @param notes to update the tags for, notes without tags are skipped
+     * @param appUser referenced by the {@code notes}
+     * @throws IllegalArgumentException if {@code notes} or {@code appUser} is {@code null}
+     * @throws ResponseStatusException if a new tag is invalid
      */
-    private List<Tag> getOrCreateNoteTags(Note note, AppUser appUser) {
+    public void handleSaveNotes(Collection<Note> notes, AppUser appUser) throws IllegalArgumentException, ResponseStatusException {
 
-        Utils.assertArgsNotNullAndNotBlankOrThrow(note, appUser);
+        Utils.assertArgsNotNullAndNotBlankOrThrow(notes, appUser);
 
-        // case: has no tags
-        if (note.getTags() == null)
-            return null;
-            
-        // map tags from db
-        return note.getTags()
+        // first instance per name
+        Map<String, Tag> requestedTagsByName = new LinkedHashMap<>();
+        notes
             .stream()
-            .map(tag -> {
-                Tag tagFromDb = this.tagRepository
-                    .findByNameAndAppUser(tag.getName(), appUser)
-                    .orElse(null);
-
-                // case: new tag
-                if (tagFromDb == null)
-                    return saveNew(tag, appUser);
-                    
-                // case: existing tag
-                else
-                    return tagFromDb;
-            })
-            .toList();
+            .filter(note -> note.getTags() != null)
+            .flatMap(note -> note.getTags().stream())
+            .forEach(tag -> requestedTagsByName.putIfAbsent(tag.getName(), tag));
+
+        // case: no tags at all
+        if (requestedTagsByName.isEmpty())
+            return;
+
+        List<Tag> tagsFromDb = this.tagRepository.findAllByAppUserAndNameIn(appUser, requestedTagsByName.keySet());
+        Map<String, Tag> tagsByName = new HashMap<>();
+        // tags from db and new tags
+        Map<String, Tag> tagsByNameIgnoreCase = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        tagsFromDb.forEach(tagFromDb -> {
+            tagsByName.putIfAbsent(tagFromDb.getName(), tagFromDb);
+            tagsByNameIgnoreCase.putIfAbsent(tagFromDb.getName(), tagFromDb);
+        });
+
+        // case: new tag
+        List<Tag> newTags = new ArrayList<>();
+        for (Tag requestedTag : requestedTagsByName.values()) {
+            String tagName = requestedTag.getName();
+            if (tagsByName.containsKey(tagName))
+                continue;
+
+            Tag tag = tagName == null ? null : tagsByNameIgnoreCase.get(tagName);
+            if (tag == null) {
+                tag = requestedTag;
+                validateAndThrow(tag);
+                setIgnoredFields(tag, appUser);
+                // make sure this tag is saved as new instance
+                tag.setId(null);
+                newTags.add(tag);
+
+                if (tagName != null)
+                    tagsByNameIgnoreCase.put(tagName, tag);
+            }
+
+            tagsByName.put(tagName, tag);
+        }
+
+        this.tagRepository.saveAll(newTags);
+
+        notes.forEach(note -> {
+            if (note.getTags() != null)
+                note.setTags(note.getTags().stream().map(tag -> tagsByName.get(tag.getName())).toList());
+        });
     }
 
 
@@ -109,16 +155,30 @@ public class TagService extends AbstractService<Tag> {
     }
 
     /**
-     * Remove all tags of given appUser that don't have any notes (which means that the tag is useless).
+     * Remove all tags of given appUser that don't have any notes (which means that the tag is useless). Increments the app user's notes 
+     * version if any tag was removed.
      * 
      * @param appUser to check the tags for
      */
+    @Transactional
     public void removeOrphanTags(@Nullable AppUser appUser) {
         // case: falsy param
         if (appUser == null)
             return;
 
-        this.tagRepository.deleteByNotesIsEmpty();
+        List<Tag> orphanTags = this.tagRepository.findAllByAppUserAndNotesIsEmpty(appUser);
+        // case: nothing to remove
+        if (orphanTags.isEmpty())
+            return;
+
+        this.tagRepository.deleteAll(orphanTags);
+
+        this.appUserService.incrementNotesVersion(appUser.getEmail());
+
+        this.applicationEventPublisher.publishEvent(new TagsDeletedEvent(
+            appUser.getEmail(), 
+            orphanTags.stream().map(Tag::getId).toList()
+        ));
     }
     
     /**
@@ -126,6 +186,7 @@ public class TagService extends AbstractService<Tag> {
      * @throws ResponseStatusException 401 if not logged in
      * @throws IllegalStateException if the logged in principal is not of a handled type
      */
+    @Transactional
     public void removeOrphanTags() throws ResponseStatusException, IllegalStateException {
         removeOrphanTags(this.appUserService.getCurrent());
     }
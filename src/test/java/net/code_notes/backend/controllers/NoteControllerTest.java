@@ -0,0 +1,101 @@
+package net.code_notes.backend.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import net.code_notes.backend.dto.NoteKeysetResultDto;
+import net.code_notes.backend.dto.SearchNoteResultDto;
+import net.code_notes.backend.services.NoteService;
+
+/**
+ * Tests the 'ETag' and 'If-None-Match' handling of the note listing endpoints.
+ *
+ * @since 1.2.0
+ */
+@ExtendWith(MockitoExtension.class)
+public class NoteControllerTest {
+
+    private static final String ETAG = "W/\"1-42\"";
+
+    @Mock
+    private NoteService noteService;
+
+    @InjectMocks
+    private NoteController noteController;
+
+
+    @Test
+    void getByAppUserKeyset_shouldRespondNotModifiedIfETagMatches() {
+        when(this.noteService.getNotesETagOfCurrentAppUser()).thenReturn(ETAG);
+
+        for (String ifNoneMatch : List.of(ETAG, "\"1-42\"", "W/\"1-41\", W/\"1-42\"", "*")) {
+            ResponseEntity<NoteKeysetResultDto> response = this.noteController.getByAppUserKeyset(10, Optional.empty(), Optional.of(ifNoneMatch)).block();
+
+            assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode(), ifNoneMatch);
+            assertEquals(ETAG, response.getHeaders().getETag(), ifNoneMatch);
+            assertNull(response.getBody(), ifNoneMatch);
+        }
+
+        verify(this.noteService, never()).loadByCurrentAppUserAfter(anyInt(), any());
+    }
+
+    @Test
+    void getByAppUserKeyset_shouldRespondWithETagIfNotMatching() {
+        when(this.noteService.getNotesETagOfCurrentAppUser()).thenReturn(ETAG);
+        when(this.noteService.loadByCurrentAppUserAfter(10, null)).thenReturn(new NoteKeysetResultDto(List.of(), null));
+
+        for (Optional<String> ifNoneMatch : List.of(Optional.<String> empty(), Optional.of("W/\"1-41\""), Optional.of("W/\"2-42\""))) {
+            ResponseEntity<NoteKeysetResultDto> response = this.noteController.getByAppUserKeyset(10, Optional.empty(), ifNoneMatch).block();
+
+            assertEquals(HttpStatus.OK, response.getStatusCode(), ifNoneMatch.toString());
+            assertEquals(ETAG, response.getHeaders().getETag(), ifNoneMatch.toString());
+        }
+    }
+
+    @Test
+    void getByAppUserKeyset_shouldNeverRespondNotModifiedWithoutETag() {
+        // case: app user not found
+        when(this.noteService.getNotesETagOfCurrentAppUser()).thenReturn(null);
+        when(this.noteService.loadByCurrentAppUserAfter(10, null)).thenReturn(new NoteKeysetResultDto(List.of(), null));
+
+        ResponseEntity<NoteKeysetResultDto> response = this.noteController.getByAppUserKeyset(10, Optional.empty(), Optional.of("*")).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void getByAppUserPageable_shouldNotRespondWithETagIfPartial() {
+        when(this.noteService.getNotesETagOfCurrentAppUser()).thenReturn(ETAG);
+        when(this.noteService.loadByCurrentAppUserSortedAndSearch(any(), any(), any(), any()))
+            .thenReturn(new SearchNoteResultDto(List.of(), 0, true))
+            .thenReturn(new SearchNoteResultDto(List.of(), 0, false));
+
+        ResponseEntity<SearchNoteResultDto> partialResponse = this.noteController.getByAppUserPageable(0, 10, Optional.of("linux"), Optional.empty(), Optional.empty(), Optional.empty()).block();
+        assertEquals(HttpStatus.OK, partialResponse.getStatusCode());
+        assertNull(partialResponse.getHeaders().getETag());
+
+        ResponseEntity<SearchNoteResultDto> response = this.noteController.getByAppUserPageable(0, 10, Optional.of("linux"), Optional.empty(), Optional.empty(), Optional.empty()).block();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+
+        ResponseEntity<SearchNoteResultDto> notModifiedResponse = this.noteController.getByAppUserPageable(0, 10, Optional.of("linux"), Optional.empty(), Optional.empty(), Optional.of(ETAG)).block();
+        assertEquals(HttpStatus.NOT_MODIFIED, notModifiedResponse.getStatusCode());
+    }
+}
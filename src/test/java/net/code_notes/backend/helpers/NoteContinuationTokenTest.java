@@ -0,0 +1,47 @@
+package net.code_notes.backend.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 1.2.0
+ */
+public class NoteContinuationTokenTest {
+
+    @Test
+    void decode_shouldReturnEncodedToken() {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123456000);
+        String token = new NoteContinuationToken(created, 42l).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+
+        NoteContinuationToken decodedToken = NoteContinuationToken.decode(token);
+        assertEquals(created, decodedToken.getCreated());
+        assertEquals(Long.valueOf(42), decodedToken.getId());
+
+        // whole seconds are formatted without nanos
+        created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        assertEquals(created, NoteContinuationToken.decode(new NoteContinuationToken(created, 1l).encode()).getCreated());
+    }
+
+    @Test
+    void decode_shouldThrowIfMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> NoteContinuationToken.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> NoteContinuationToken.decode("not base 64!"));
+        assertThrows(IllegalArgumentException.class, () -> NoteContinuationToken.decode(encode("2024-01-01T12:00")));
+        assertThrows(IllegalArgumentException.class, () -> NoteContinuationToken.decode(encode("2024-01-01T12:00_abc")));
+        assertThrows(IllegalArgumentException.class, () -> NoteContinuationToken.decode(encode("yesterday_1")));
+        assertThrows(IllegalArgumentException.class, () -> new NoteContinuationToken(null, 1l));
+    }
+
+    private static String encode(String plainToken) {
+        return Base64.getUrlEncoder().encodeToString(plainToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
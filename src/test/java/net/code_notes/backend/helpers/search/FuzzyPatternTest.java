@@ -0,0 +1,103 @@
+package net.code_notes.backend.helpers.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 1.2.0
+ */
+public class FuzzyPatternTest {
+
+    private static final String ALPHABET = "abcde\u00DF\u00E9";
+
+
+    @Test
+    void compile_shouldReturnNullIfWordCannotMatchFuzzy() {
+        assertNull(FuzzyPattern.compile(null));
+        assertNull(FuzzyPattern.compile("linu"));
+        assertNull(FuzzyPattern.compile("a".repeat(FuzzyPattern.MAX_LENGTH + 1)));
+        assertNull(FuzzyPattern.compile("lin ux"));
+        assertNull(FuzzyPattern.compile("linu\uD801\uDC28"));
+
+        assertNotNull(FuzzyPattern.compile("linux"));
+        assertNotNull(FuzzyPattern.compile("a".repeat(FuzzyPattern.MAX_LENGTH)));
+    }
+
+    @Test
+    void indexOf_shouldFindSubstringWithFewestEdits() {
+        FuzzyPattern fuzzyPattern = FuzzyPattern.compile("configuration");
+
+        assertEquals(0, FuzzyPattern.getEdits(fuzzyPattern.indexOf("myConfiguration", 0, 15, false)));
+        assertEquals(2, FuzzyPattern.getStartIndex(fuzzyPattern.indexOf("myConfiguration", 0, 15, false)));
+        assertEquals(1, FuzzyPattern.getEdits(fuzzyPattern.indexOf("configuraton", 0, 12, false)));
+        assertEquals(2, FuzzyPattern.getEdits(fuzzyPattern.indexOf("confgiuration", 0, 13, false)));
+        assertEquals(FuzzyPattern.NO_MATCH, fuzzyPattern.indexOf("cnfgiuration", 0, 12, false));
+        // only within start and end
+        assertEquals(FuzzyPattern.NO_MATCH, fuzzyPattern.indexOf("configuration", 0, 10, false));
+
+        // 1 edit only for shorter words
+        fuzzyPattern = FuzzyPattern.compile("linux");
+        assertEquals(1, FuzzyPattern.getEdits(fuzzyPattern.indexOf("LINNUX", 0, 6, false)));
+        assertEquals(FuzzyPattern.NO_MATCH, fuzzyPattern.indexOf("lunix", 0, 5, false));
+    }
+
+    @Test
+    void indexOf_shouldFindFewestEditsLikeDynamicProgramming() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            String searchWord = randomWord(random, FuzzyPattern.MIN_LENGTH + random.nextInt(12));
+            String compareWord = randomWord(random, random.nextInt(20));
+            FuzzyPattern fuzzyPattern = FuzzyPattern.compile(searchWord);
+
+            int expectedEdits = minEdits(searchWord, compareWord);
+            long match = fuzzyPattern.indexOf(compareWord, 0, compareWord.length(), true);
+
+            if (expectedEdits > FuzzyPattern.getMaxEdits(searchWord.length()))
+                assertEquals(FuzzyPattern.NO_MATCH, match, "'" + searchWord + "' / '" + compareWord + "'");
+            else
+                assertEquals(expectedEdits, FuzzyPattern.getEdits(match), "'" + searchWord + "' / '" + compareWord + "'");
+        }
+    }
+
+    /**
+     * Edit distance between {@code searchWord} and it's closest substring of {@code compareWord}, computing the whole matrix.
+     */
+    private static int minEdits(String searchWord, String compareWord) {
+        // column of the compare word char, row of the search word char
+        int[] column = new int[searchWord.length() + 1];
+        for (int i = 0; i <= searchWord.length(); i++)
+            column[i] = i;
+
+        int minEdits = column[searchWord.length()];
+        for (int j = 0; j < compareWord.length(); j++) {
+            // match may start anywhere
+            int diagonal = 0;
+            column[0] = 0;
+
+            for (int i = 1; i <= searchWord.length(); i++) {
+                int left = column[i];
+                int cost = searchWord.charAt(i - 1) == compareWord.charAt(j) ? 0 : 1;
+                column[i] = Math.min(diagonal + cost, Math.min(left, column[i - 1]) + 1);
+                diagonal = left;
+            }
+
+            minEdits = Math.min(minEdits, column[searchWord.length()]);
+        }
+
+        return minEdits;
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++)
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+
+        return word.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package net.code_notes.backend.helpers.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.apache.commons.lang3.Strings;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests of the selected kernel against {@code Strings.CI}. Tests the vector kernel if the test JVM has the vector module
+ * (see {@code build.gradle}) and the cpu supports it.
+ *
+ * @since 1.2.0
+ */
+public class IgnoreCaseKernelTest {
+
+    /** ASCII letters and chars that equal ASCII letters ignoring case (dotted I, dotless i, kelvin sign, long s), surrogate pairs */
+    private static final String[] CHARS = { "a", "A", "b", "B", "i", "I", "k", "K", "s", "S", " ", "\u0130", "\u0131", "\u212A", "\u017F", "\u00DF", "\uD801\uDC00", "\uD801\uDC28", "\uD801" };
+
+
+    @Test
+    void getInstance_shouldMatchLikeStringsCI() {
+        assertMatchesLikeStringsCI(IgnoreCaseKernel.getInstance(), false);
+        assertMatchesLikeStringsCI(IgnoreCaseKernel.getInstance(), true);
+    }
+
+    /**
+     * @param ignoreCaseKernel to test
+     * @param isAsciiOnly whether to only use the first few chars of {@link #CHARS}
+     */
+    private static void assertMatchesLikeStringsCI(IgnoreCaseKernel ignoreCaseKernel, boolean isAsciiOnly) {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            // long enough to vectorize most of the time
+            String compareWord = randomString(random, random.nextInt(600), isAsciiOnly);
+            String searchWord = random.nextBoolean() ?
+                randomString(random, 1 + random.nextInt(4), isAsciiOnly) :
+                randomSubstring(random, compareWord);
+            String message = "'" + searchWord + "' / '" + compareWord + "'";
+
+            assertEquals(Strings.CI.indexOf(compareWord, searchWord), ignoreCaseKernel.indexOfIgnoreCase(compareWord, searchWord), message);
+
+            String otherWord = swapCase(random, compareWord);
+            // differ by one char sometimes
+            if (!otherWord.isEmpty() && random.nextBoolean()) {
+                int index = random.nextInt(otherWord.length());
+                otherWord = otherWord.substring(0, index) + CHARS[random.nextInt(CHARS.length)].charAt(0) + otherWord.substring(index + 1);
+            }
+            message = "'" + otherWord + "' / '" + compareWord + "'";
+
+            assertEquals(Strings.CI.equals(otherWord, compareWord), ignoreCaseKernel.equalsIgnoreCase(otherWord, compareWord), message);
+        }
+    }
+
+    private static String randomString(Random random, int length, boolean isAsciiOnly) {
+        int numChars = isAsciiOnly ? 11 : CHARS.length;
+        StringBuilder str = new StringBuilder();
+        while (str.length() < length)
+            str.append(CHARS[random.nextInt(numChars)]);
+
+        return str.toString();
+    }
+
+    private static String randomSubstring(Random random, String str) {
+        if (str.isEmpty())
+            return str;
+
+        int start = random.nextInt(str.length());
+        int end = start + 1 + random.nextInt(Math.min(40, str.length() - start));
+
+        return swapCase(random, str.substring(start, end));
+    }
+
+    /**
+     * @return {@code str} with the case of some code points swapped
+     */
+    private static String swapCase(Random random, String str) {
+        StringBuilder swapped = new StringBuilder();
+        str.codePoints().forEach(codePoint -> {
+            if (random.nextInt(3) == 0)
+                codePoint = Character.isUpperCase(codePoint) ? Character.toLowerCase(codePoint) : Character.toUpperCase(codePoint);
+
+            swapped.appendCodePoint(codePoint);
+        });
+
+        return swapped.toString();
+    }
+}
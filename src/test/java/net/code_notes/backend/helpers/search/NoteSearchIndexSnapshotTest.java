@@ -0,0 +1,63 @@
+package net.code_notes.backend.helpers.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @since 1.2.0
+ */
+public class NoteSearchIndexSnapshotTest {
+
+    /** Of "user@user.com" */
+    private static final String APP_USER_EMAIL_HASH = "b238c595b84321b35b8e57610c49523d4e3b9b5b5d090923e9e54f4b929bedba";
+
+    @TempDir
+    private Path tempDir;
+
+
+    @Test
+    void read_shouldReturnWrittenIndex() throws IOException {
+        NoteSearchIndex noteSearchIndex = new NoteSearchIndex();
+        noteSearchIndex.put(1l, "linux Autostart configuration", "stra\u00DFe");
+        noteSearchIndex.put(2l, "linux x\uD801\uDC28");
+        noteSearchIndex.put(3l, " ");
+        LocalDateTime watermark = LocalDateTime.of(2024, 10, 27, 2, 30, 0, 123456789);
+        Path path = this.tempDir.resolve("snapshots").resolve("user.snapshot");
+
+        new NoteSearchIndexSnapshot(APP_USER_EMAIL_HASH, watermark, noteSearchIndex).write(path);
+        NoteSearchIndexSnapshot snapshot = NoteSearchIndexSnapshot.read(path);
+
+        assertEquals(APP_USER_EMAIL_HASH, snapshot.getAppUserEmailHash());
+        assertEquals(watermark, snapshot.getWatermark());
+        assertEquals(noteSearchIndex.copyWordsByNoteId(), snapshot.getNoteSearchIndex().copyWordsByNoteId());
+        assertEquals(noteSearchIndex.getTrigramCount(), snapshot.getNoteSearchIndex().getTrigramCount());
+        assertEquals(Set.of(1l, 2l), snapshot.getNoteSearchIndex().findCandidateIds("LINUX"));
+        assertEquals(Set.of(2l), snapshot.getNoteSearchIndex().findCandidateIds("X\uD801\uDC00"));
+        assertFalse(Files.exists(path.resolveSibling("user.snapshot.tmp")));
+    }
+
+    @Test
+    void read_shouldThrowIfNotASnapshotOrCorrupt() throws IOException {
+        Path path = this.tempDir.resolve("user.snapshot");
+        Files.writeString(path, "no snapshot");
+        assertThrows(IOException.class, () -> NoteSearchIndexSnapshot.read(path));
+
+        NoteSearchIndex noteSearchIndex = new NoteSearchIndex();
+        noteSearchIndex.put(1l, "linux autostart");
+        new NoteSearchIndexSnapshot(APP_USER_EMAIL_HASH, LocalDateTime.now(), noteSearchIndex).write(path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> NoteSearchIndexSnapshot.read(path));
+    }
+}
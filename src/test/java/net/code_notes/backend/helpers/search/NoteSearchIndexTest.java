@@ -0,0 +1,128 @@
+package net.code_notes.backend.helpers.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 1.2.0
+ */
+public class NoteSearchIndexTest {
+
+    private static final String[] WORDS = { "linux", "Autostart", "CONFIGURATION", "config", "input", "searchInput", "stra\u00DFe", "\u0130stanbul", "\u0131", "\uD801\uDC00", "x\uD801\uDC28", "a", "\t", "" };
+
+    @Test
+    void findCandidateIds_shouldFindExactAndApproximateMatchesIgnoringCase() {
+        NoteSearchIndex noteSearchIndex = new NoteSearchIndex();
+        noteSearchIndex.put(1l, "linux autostart configuration", null);
+        noteSearchIndex.put(2l, "some title", "searchInput");
+        noteSearchIndex.put(3l, "no match");
+
+        assertEquals(Set.of(1l), noteSearchIndex.findCandidateIds("AUTOSTART"));
+        assertEquals(Set.of(1l), noteSearchIndex.findCandidateIds("configurat"));
+        assertEquals(Set.of(2l), noteSearchIndex.findCandidateIds("input"));
+        assertEquals(Set.of(1l, 2l), noteSearchIndex.findCandidateIds("linux  input"));
+        assertTrue(noteSearchIndex.findCandidateIds("nothing").isEmpty());
+        assertTrue(noteSearchIndex.findCandidateIds(" ").isEmpty());
+    }
+
+    @Test
+    void remove_shouldRemoveAllWordsOfNote() {
+        NoteSearchIndex noteSearchIndex = new NoteSearchIndex();
+        noteSearchIndex.put(1l, "linux autostart");
+        noteSearchIndex.put(2l, "linux");
+
+        noteSearchIndex.remove(1l);
+        assertFalse(noteSearchIndex.contains(1l));
+        assertEquals(Set.of(2l), noteSearchIndex.findCandidateIds("linux autostart"));
+        assertEquals(1, noteSearchIndex.getWordCount());
+
+        // replace words on put
+        noteSearchIndex.put(2l, "autostart");
+        assertEquals(Set.of(2l), noteSearchIndex.findCandidateIds("autostart"));
+        assertTrue(noteSearchIndex.findCandidateIds("linux").isEmpty());
+    }
+
+    @Test
+    void remove_shouldRemoveTrigramsOfRemovedWordsOnly() {
+        NoteSearchIndex noteSearchIndex = new NoteSearchIndex();
+        noteSearchIndex.put(1l, "configuration");
+        noteSearchIndex.put(2l, "config");
+        int numConfigTrigrams = "config".length() - NoteSearchIndex.TRIGRAM_LENGTH + 1;
+
+        noteSearchIndex.remove(1l);
+        assertEquals(numConfigTrigrams, noteSearchIndex.getTrigramCount());
+        assertEquals(Set.of(2l), noteSearchIndex.findCandidateIds("onfig"));
+        assertTrue(noteSearchIndex.findCandidateIds("configurat").isEmpty());
+
+        noteSearchIndex.remove(2l);
+        assertEquals(0, noteSearchIndex.getTrigramCount());
+    }
+
+    @Test
+    void findCandidateIds_shouldReturnExactlyTheNotesMatchPhrasesRates() {
+        Random random = RandomPhrases.newRandom();
+        NoteSearchIndex noteSearchIndex = new NoteSearchIndex();
+        Map<Long, String> titles = new HashMap<>();
+
+        for (long noteId = 0; noteId < 200; noteId++) {
+            String title = randomPhrase(random);
+            titles.put(noteId, title);
+            noteSearchIndex.put(noteId, title);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            String searchPhrase = randomPhrase(random);
+            if (searchPhrase.isBlank())
+                continue;
+
+            Set<Long> expectedIds = new HashSet<>();
+            titles.forEach((noteId, title) -> {
+                if (SearchStringUtils.matchPhrases(searchPhrase, title) > 0)
+                    expectedIds.add(noteId);
+            });
+
+            assertEquals(expectedIds, noteSearchIndex.findCandidateIds(searchPhrase), "Search phrase: '" + searchPhrase + "'");
+        }
+    }
+
+    @Test
+    void findCandidateIds_shouldReturnExactlyTheNotesMatchPhrasesRatesIfFuzzy() {
+        Random random = RandomPhrases.newRandom();
+        NoteSearchIndex noteSearchIndex = new NoteSearchIndex();
+        Map<Long, String> titles = new HashMap<>();
+
+        for (long noteId = 0; noteId < 200; noteId++) {
+            String title = randomPhrase(random);
+            titles.put(noteId, title);
+            noteSearchIndex.put(noteId, title);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            // typos
+            SearchQuery searchQuery = SearchQuery.compile(randomPhrase(random).replace("ig", "gi").replace("ut", "tu"), true);
+            if (searchQuery.getPhrase().isBlank())
+                continue;
+
+            Set<Long> expectedIds = new HashSet<>();
+            titles.forEach((noteId, title) -> {
+                if (SearchStringUtils.matchPhrases(searchQuery, title) > 0)
+                    expectedIds.add(noteId);
+            });
+
+            assertEquals(expectedIds, noteSearchIndex.findCandidateIds(searchQuery), "Search phrase: '" + searchQuery.getPhrase() + "'");
+        }
+    }
+
+    private static String randomPhrase(Random random) {
+        return RandomPhrases.randomPhrase(random, WORDS, 1 + random.nextInt(4));
+    }
+}
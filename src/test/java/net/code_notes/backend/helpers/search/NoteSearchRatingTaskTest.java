@@ -0,0 +1,160 @@
+package net.code_notes.backend.helpers.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import net.code_notes.backend.dto.SearchNoteDataDto;
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.dto.SearchNoteRatingDto;
+import net.code_notes.backend.entities.NoteInput;
+import net.code_notes.backend.entities.NoteInputSearchTokens;
+
+/**
+ * @since 1.2.0
+ */
+public class NoteSearchRatingTaskTest {
+
+    private static final String[] WORDS = { "linux", "autostart", "config", "configuration", "input", "search", "docker", "compose" };
+
+    @Test
+    void invoke_shouldRateLikeRateSequentially() {
+        Random random = new Random(42);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+        try {
+            for (int i = 0; i < 50; i++) {
+                List<SearchNoteJpaDto> noteDtos = new ArrayList<>();
+                Map<Long, List<String>> noteInputSearchTokens = new HashMap<>();
+                int numNotes = random.nextInt(500);
+    
+                for (long noteId = 0; noteId < numNotes; noteId++) {
+                    // few distinct dates and words to get many ties
+                    noteDtos.add(new TestSearchNoteJpaDto(noteId, LocalDateTime.of(2025, 1, 1 + random.nextInt(3), 0, 0), randomPhrase(random)));
+                    int numNoteInputs = random.nextInt(3);
+                    if (numNoteInputs > 0)
+                        noteInputSearchTokens.put(noteId, Stream.generate(() -> SearchStringUtils.normalize(randomPhrase(random), Integer.MAX_VALUE)).limit(numNoteInputs).toList());
+                }
+    
+                SearchNoteDataDto searchNoteData = new SearchNoteDataDto(noteInputSearchTokens, 1);
+                SearchQuery searchQuery = SearchQuery.compile(randomPhrase(random));
+                int k = random.nextInt(100);
+                int chunkSize = 1 + random.nextInt(50);
+    
+                TopKSelector<SearchNoteRatingDto> expected = new NoteSearchRatingTask(noteDtos, searchNoteData, searchQuery, k, chunkSize).rateSequentially();
+                TopKSelector<SearchNoteRatingDto> actual = forkJoinPool.invoke(new NoteSearchRatingTask(noteDtos, searchNoteData, searchQuery, k, chunkSize));
+    
+                assertEquals(expected.getCount(), actual.getCount());
+                assertEquals(toNoteIds(expected), toNoteIds(actual));
+                assertEquals(rateAll(noteDtos, searchNoteData, searchQuery, k), toNoteIds(expected));
+            }
+
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    void rate_shouldMatchWordsAtTheEndOfLongNoteInputs() {
+        NoteInput noteInput = new NoteInput();
+        // 7 chars per word, "autostart" starts after ~10.000 chars
+        noteInput.setValue("docker\n".repeat(1_500) + "AutoStart");
+        String searchTokens = new NoteInputSearchTokens(noteInput).getSearchTokens();
+
+        SearchNoteJpaDto noteDto = new TestSearchNoteJpaDto(1L, LocalDateTime.of(2025, 1, 1, 0, 0), "linux");
+        SearchNoteDataDto searchNoteData = new SearchNoteDataDto(Map.of(1L, List.of(searchTokens)), 1);
+
+        assertTrue(searchTokens.endsWith(" autostart"));
+        assertTrue(NoteSearchRatingTask.rate(noteDto, searchNoteData, SearchQuery.compile("autostart")) > 0);
+        assertEquals(0, NoteSearchRatingTask.rate(noteDto, searchNoteData, SearchQuery.compile("compose")));
+    }
+
+    /**
+     * Rate every note without skipping any and sort all matches.
+     */
+    private static List<Long> rateAll(List<SearchNoteJpaDto> noteDtos, SearchNoteDataDto searchNoteData, SearchQuery searchQuery, int k) {
+        List<SearchNoteRatingDto> noteRatings = new ArrayList<>();
+        for (SearchNoteJpaDto noteDto : noteDtos) {
+            double ratingPoints = NoteSearchRatingTask.rate(noteDto, searchNoteData, searchQuery);
+            if (ratingPoints > 0)
+                noteRatings.add(new SearchNoteRatingDto(noteDto, ratingPoints));
+        }
+
+        // stable, ties keep the order of noteDtos
+        noteRatings.sort(SearchNoteRatingDto.BEST_FIRST);
+
+        return noteRatings
+            .stream()
+            .limit(k)
+            .map(noteRating -> noteRating.getNoteDto().getId())
+            .toList();
+    }
+
+    private static List<Long> toNoteIds(TopKSelector<SearchNoteRatingDto> topNoteRatings) {
+        return topNoteRatings
+            .toSortedList()
+            .stream()
+            .map(noteRating -> noteRating.getNoteDto().getId())
+            .toList();
+    }
+
+    private static String randomPhrase(Random random) {
+        StringBuilder phrase = new StringBuilder();
+        int numWords = 1 + random.nextInt(3);
+
+        for (int i = 0; i < numWords; i++)
+            phrase.append(WORDS[random.nextInt(WORDS.length)].substring(0, 3 + random.nextInt(3))).append(" ");
+
+        return phrase.toString();
+    }
+
+    private static class TestSearchNoteJpaDto implements SearchNoteJpaDto {
+
+        private final Long id;
+        private final LocalDateTime created;
+        private final String title;
+        private final String normalizedTitle;
+
+        private TestSearchNoteJpaDto(Long id, LocalDateTime created, String title) {
+            this.id = id;
+            this.created = created;
+            this.title = title;
+            this.normalizedTitle = SearchStringUtils.normalize(title, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public Long getId() {
+            return this.id;
+        }
+
+        @Override
+        public LocalDateTime getCreated() {
+            return this.created;
+        }
+
+        @Override
+        public LocalDateTime getUpdated() {
+            return this.created;
+        }
+
+        @Override
+        public String getTitle() {
+            return this.title;
+        }
+
+        @Override
+        public String getNormalizedTitle() {
+            return this.normalizedTitle;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package net.code_notes.backend.helpers.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import net.code_notes.backend.abstracts.TagMatchMode;
+
+/**
+ * @since 1.2.0
+ */
+public class NoteTagIndexTest {
+
+    private static final String[] TAG_NAMES = { "linux", "docker", "git", "java", "stra\u00DFe" };
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+
+    @Test
+    void findNoteIds_shouldCombineTagsAndSortByCreatedDesc() {
+        NoteTagIndex noteTagIndex = new NoteTagIndex();
+        noteTagIndex.add(2l, NOW.plusMinutes(1), List.of("linux"));
+        noteTagIndex.add(3l, NOW.plusMinutes(2), List.of("git", "docker"));
+        noteTagIndex.add(1l, NOW.plusMinutes(3), List.of("linux", "git"));
+        noteTagIndex.add(4l, NOW.plusMinutes(4), List.of());
+
+        assertEquals(List.of(1l, 3l, 2l), noteTagIndex.findNoteIds(List.of("linux", "git"), TagMatchMode.ANY, 0, 10));
+        assertEquals(List.of(1l, 3l, 2l), noteTagIndex.findNoteIds(List.of("linux", "git"), null, 0, 10));
+        assertEquals(List.of(1l), noteTagIndex.findNoteIds(List.of("linux", "git"), TagMatchMode.ALL, 0, 10));
+        assertEquals(List.of(3l), noteTagIndex.findNoteIds(List.of("linux", "git"), TagMatchMode.ANY, 1, 1));
+        assertEquals(List.of(4l, 1l, 3l, 2l), noteTagIndex.findNoteIds(List.of(), TagMatchMode.ALL, 0, 10));
+        assertTrue(noteTagIndex.findNoteIds(List.of("git", "unknown"), TagMatchMode.ALL, 0, 10).isEmpty());
+
+        assertEquals(3, noteTagIndex.count(List.of("linux", "git", "linux"), TagMatchMode.ANY));
+        assertEquals(Set.of(1l, 3l), noteTagIndex.getNoteIds(List.of("git"), TagMatchMode.ALL));
+    }
+
+    @Test
+    void add_shouldThrowIfOutOfCreatedOrderOrAddedTwice() {
+        NoteTagIndex noteTagIndex = new NoteTagIndex();
+        noteTagIndex.add(1l, NOW, List.of("linux"));
+        noteTagIndex.add(2l, NOW, null);
+
+        assertThrows(IllegalArgumentException.class, () -> noteTagIndex.add(3l, NOW.minusMinutes(1), List.of("git")));
+        assertThrows(IllegalArgumentException.class, () -> noteTagIndex.add(1l, NOW.plusMinutes(1), List.of("git")));
+        assertThrows(IllegalArgumentException.class, () -> noteTagIndex.add(null, NOW.plusMinutes(1), List.of("git")));
+
+        assertEquals(List.of(2l, 1l), noteTagIndex.findNoteIds(null, null, 0, 10));
+        assertEquals(1, noteTagIndex.getTagCount());
+    }
+
+    @Test
+    void findNoteIds_shouldMatchTagNamesIgnoringCase() {
+        NoteTagIndex noteTagIndex = new NoteTagIndex();
+        noteTagIndex.add(1l, NOW, List.of("Java"));
+        noteTagIndex.add(2l, NOW.plusMinutes(1), List.of("java", "LINUX"));
+        noteTagIndex.add(3l, NOW.plusMinutes(2), List.of("\u0130stanbul"));
+
+        assertEquals(List.of(2l, 1l), noteTagIndex.findNoteIds(List.of("java"), TagMatchMode.ANY, 0, 10));
+        assertEquals(List.of(2l, 1l), noteTagIndex.findNoteIds(List.of("JAVA"), TagMatchMode.ANY, 0, 10));
+        assertEquals(List.of(2l), noteTagIndex.findNoteIds(List.of("Java", "linux"), TagMatchMode.ALL, 0, 10));
+        assertEquals(List.of(3l), noteTagIndex.findNoteIds(List.of("\u0130STANBUL"), TagMatchMode.ANY, 0, 10));
+        assertEquals(3, noteTagIndex.getTagCount());
+    }
+
+    @Test
+    void findNoteIds_shouldReturnSameAsFilteringAllNotes() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200; i++) {
+            Map<Long, LocalDateTime> createdByNoteId = new HashMap<>();
+            Map<Long, List<String>> tagNamesByNoteId = new HashMap<>();
+
+            for (int j = random.nextInt(100); j > 0; j--) {
+                long noteId = random.nextInt(1000);
+                // same created dates for some notes
+                createdByNoteId.put(noteId, NOW.plusMinutes(random.nextInt(50)));
+
+                List<String> tagNames = new ArrayList<>();
+                for (int k = random.nextInt(4); k > 0; k--)
+                    tagNames.add(TAG_NAMES[random.nextInt(TAG_NAMES.length)]);
+                tagNamesByNoteId.put(noteId, tagNames);
+            }
+
+            // like the db query
+            NoteTagIndex noteTagIndex = new NoteTagIndex();
+            createdByNoteId
+                .keySet()
+                .stream()
+                .sorted(Comparator.comparing((Long noteId) -> createdByNoteId.get(noteId)).thenComparing(noteId -> noteId))
+                .forEach(noteId -> noteTagIndex.add(noteId, createdByNoteId.get(noteId), tagNamesByNoteId.get(noteId)));
+
+            for (int j = 0; j < 10; j++) {
+                List<String> filterTagNames = new ArrayList<>();
+                for (int k = random.nextInt(3); k > 0; k--)
+                    filterTagNames.add(TAG_NAMES[random.nextInt(TAG_NAMES.length)]);
+                TagMatchMode tagMatchMode = random.nextBoolean() ? TagMatchMode.ANY : TagMatchMode.ALL;
+                int offset = random.nextInt(5);
+                int limit = 1 + random.nextInt(10);
+
+                List<Long> expectedNoteIds = expectedNoteIds(createdByNoteId, tagNamesByNoteId, filterTagNames, tagMatchMode);
+                assertEquals(expectedNoteIds.stream().skip(offset).limit(limit).toList(), noteTagIndex.findNoteIds(filterTagNames, tagMatchMode, offset, limit));
+                assertEquals(expectedNoteIds.size(), noteTagIndex.count(filterTagNames, tagMatchMode));
+            }
+        }
+    }
+
+    private static List<Long> expectedNoteIds(Map<Long, LocalDateTime> createdByNoteId, Map<Long, List<String>> tagNamesByNoteId, List<String> filterTagNames, TagMatchMode tagMatchMode) {
+        return createdByNoteId
+            .keySet()
+            .stream()
+            .filter(noteId ->
+                filterTagNames.isEmpty() ||
+                (tagMatchMode == TagMatchMode.ALL ?
+                    tagNamesByNoteId.get(noteId).containsAll(filterTagNames) :
+                    filterTagNames.stream().anyMatch(tagNamesByNoteId.get(noteId)::contains)))
+            .sorted(Comparator.comparing((Long noteId) -> createdByNoteId.get(noteId)).thenComparing(noteId -> noteId).reversed())
+            .toList();
+    }
+}
@@ -0,0 +1,70 @@
+package net.code_notes.backend.helpers.search;
+
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+/**
+ * Seeded random phrases for tests comparing an optimized search implementation with a simpler one. Seeded, sothat a failing phrase can
+ * be reproduced.
+ *
+ * @since 1.2.0
+ */
+final class RandomPhrases {
+
+    /** Words covering case, prefixes, special case folding, surrogates and blank words */
+    static final String[] WORDS = { "input1", "Input2", "input3", "INPUT", "put", "linux", "autostart", "configuration", "Configurat", "\u0130stanbul", "\u0131", "stra\u00DFe", "\uD801\uDC00", "x\uD801\uDC28", "\t", "" };
+
+    /** Words and the same words with typos */
+    static final String[] FUZZY_WORDS = { "input1", "Input2", "INPUT", "linux", "linnux", "autostart", "autsotart", "configuration", "confgiuration", "\u0130stanbul", "stra\u00DFe", "x\uD801\uDC28", "" };
+
+    private static final long SEED = 42;
+
+    private static final int NUM_PHRASE_PAIRS = 20_000;
+
+
+    private RandomPhrases() {}
+
+    /**
+     * @param words to build the phrases of
+     * @param test called with a search phrase of 1 to 4 words and a compare phrase of 0 to 11 words
+     */
+    static void forEachPhrasePair(String[] words, BiConsumer<String, String> test) {
+        Random random = new Random(SEED);
+
+        for (int i = 0; i < NUM_PHRASE_PAIRS; i++) {
+            String searchPhrase = randomPhrase(random, words, 1 + random.nextInt(4));
+            String comparePhrase = randomPhrase(random, words, random.nextInt(12));
+
+            test.accept(searchPhrase, comparePhrase);
+        }
+    }
+
+    /**
+     * @return a new random seeded like the one of {@link #forEachPhrasePair(String[], BiConsumer)}
+     */
+    static Random newRandom() {
+        return new Random(SEED);
+    }
+
+    /**
+     * Random words or parts of words joined with one or more spaces. Words may be concatenated without space.
+     */
+    static String randomPhrase(Random random, String[] words, int numWords) {
+        StringBuilder phrase = new StringBuilder();
+
+        for (int i = 0; i < numWords; i++) {
+            String word = words[random.nextInt(words.length)];
+            if (word.length() > 2 && random.nextBoolean())
+                word = word.substring(random.nextInt(2), word.length() - random.nextInt(2));
+            if (random.nextBoolean())
+                word = random.nextBoolean() ? word.toUpperCase() : word.toLowerCase();
+
+            phrase.append(word);
+
+            int numSpaces = random.nextInt(6) == 0 ? random.nextInt(3) : 1;
+            phrase.append(" ".repeat(numSpaces));
+        }
+
+        return phrase.toString();
+    }
+}
@@ -3,6 +3,7 @@ package net.code_notes.backend.helpers.search;
 import static net.code_notes.backend.helpers.Utils.SEARCH_ADJACENT_MATCH_RATING_POINTS;
 import static net.code_notes.backend.helpers.Utils.SEARCH_APPROXIMATE_RATING_POINTS;
 import static net.code_notes.backend.helpers.Utils.SEARCH_EXACT_MATCH_RATING_POINTS;
+import static net.code_notes.backend.helpers.Utils.SEARCH_FUZZY_MATCH_RATING_POINTS;
 import static net.code_notes.backend.helpers.Utils.SEARCH_WORD_MIN_LENGTH_FOR_CONTAINS;
 import static net.code_notes.backend.helpers.Utils.isBlank;
 import static net.code_notes.backend.helpers.Utils.isEmpty;
@@ -14,6 +15,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.LinkedList;
+import java.util.List;
+
 import org.apache.commons.lang3.Strings;
 import org.junit.jupiter.api.Test;
 
@@ -304,6 +308,28 @@ public class SearchStringUtilsTest {
         assertEquals(compareWordSubstringStartIndex, searchStringMatch.getCompareWordSubstringStartIndex());
     }
 
+    @Test
+    void matchWords_assertFuzzyMatchRatingPoints() {
+        String searchWord = "confgiuration";
+        String compareWord = "myConfiguration";
+
+        // 2 edits
+        SearchStringMatch searchStringMatch = SearchStringUtils.matchWords(searchWord, compareWord, true);
+        assertInstanceOf(FuzzySearchStringMatchRating.class, searchStringMatch.getRating());
+        assertEquals(SEARCH_FUZZY_MATCH_RATING_POINTS / 2, searchStringMatch.getRating().getPoints());
+        assertEquals(2, searchStringMatch.getCompareWordSubstringStartIndex());
+
+        // 1 edit
+        assertEquals(SEARCH_FUZZY_MATCH_RATING_POINTS, SearchStringUtils.matchWords("linnux", "Linux", true).getRating().getPoints());
+
+        // not fuzzy
+        assertEquals(0, SearchStringUtils.matchWords(searchWord, compareWord).getRating().getPoints());
+        // too short to match fuzzy
+        assertEquals(0, SearchStringUtils.matchWords("gti", "git", true).getRating().getPoints());
+        // exact match is still exact
+        assertInstanceOf(ExactSearchStringMatchRating.class, SearchStringUtils.matchWords("linux", "linux", true).getRating());
+    }
+
     @Test
     void matchWords_noMatchShouldReturnNegativeIndexAndRatingOf0() {
         String searchWord = "input";
@@ -412,4 +438,185 @@ public class SearchStringUtilsTest {
         compareWord = "input1AndSomeMore containsInput2 input1AndSomeMore containsInput2 input3 containsInput3";
         assertEquals((SEARCH_APPROXIMATE_RATING_POINTS * numApproximateMatches) + SEARCH_EXACT_MATCH_RATING_POINTS + (SEARCH_ADJACENT_MATCH_RATING_POINTS * numAdjacentMatches), SearchStringUtils.matchPhrases(searchWord, compareWord));
     }
+
+    @Test
+    void matchPhrases_shouldRateLikeReferenceImplementation() {
+        assertEquals(0, referenceMatchPhrases("linux", "docker compose"));
+        assertEquals(SEARCH_EXACT_MATCH_RATING_POINTS, referenceMatchPhrases("LINUX", "linux"));
+        assertEquals(2 * SEARCH_EXACT_MATCH_RATING_POINTS + SEARCH_ADJACENT_MATCH_RATING_POINTS, referenceMatchPhrases("linux autostart", "Linux Autostart"));
+
+        for (String[] phrases : new String[][] {
+            { "linux", "linux linux" },
+            { "input", "input1 Input2 INPUT" },
+            { "linux auto", "linuxautostart linux autostart" },
+            { "autostart linux", "linux autostart" },
+            { "  linux\t", "\tlinux " },
+            { "x\uD801\uDC00", "X\uD801\uDC28" },
+            { "\u0130stanbul \u0131", "\u0130STANBUL \u0131" }
+        })
+            assertEquals(referenceMatchPhrases(phrases[0], phrases[1]), SearchStringUtils.matchPhrases(phrases[0], phrases[1]), "'" + phrases[0] + "' / '" + phrases[1] + "'");
+
+        RandomPhrases.forEachPhrasePair(RandomPhrases.WORDS, (searchPhrase, comparePhrase) -> 
+            assertEquals(referenceMatchPhrases(searchPhrase, comparePhrase), SearchStringUtils.matchPhrases(searchPhrase, comparePhrase), "'" + searchPhrase + "' / '" + comparePhrase + "'"));
+    }
+
+    @Test
+    void matchNormalizedPhrases_shouldRateLikeMatchPhrases() {
+        assertEquals(SEARCH_EXACT_MATCH_RATING_POINTS, matchNormalizedPhrases("LINUX", "Linux", false));
+        assertEquals(2 * SEARCH_EXACT_MATCH_RATING_POINTS + SEARCH_ADJACENT_MATCH_RATING_POINTS, matchNormalizedPhrases("linux autostart", "Linux\n\tAutostart", false));
+        assertEquals(SEARCH_EXACT_MATCH_RATING_POINTS, matchNormalizedPhrases("x\uD801\uDC00", "X\uD801\uDC28", false));
+        assertEquals(0, matchNormalizedPhrases("linux", "", false));
+        assertEquals(0, matchNormalizedPhrases("linux", null, false));
+
+        assertRatesLikeMatchPhrases("\u0130stanbul", "\u0130STANBUL \u0131stanbul", false);
+        assertRatesLikeMatchPhrases("stra\u00DFe", "STRASSE stra\u00DFe", false);
+        assertRatesLikeMatchPhrases("put in", "input1 INPUT", false);
+
+        RandomPhrases.forEachPhrasePair(RandomPhrases.WORDS, (searchPhrase, comparePhrase) -> 
+            assertRatesLikeMatchPhrases(searchPhrase, comparePhrase, false));
+    }
+
+    @Test
+    void getMaxNormalizedPhrasesPoints_shouldBeUpperBoundAndZeroIfNoMatch() {
+        assertEquals(0, SearchStringUtils.getMaxNormalizedPhrasesPoints(SearchQuery.compile("docker"), "linux autostart"));
+        assertEquals(0, SearchStringUtils.getMaxNormalizedPhrasesPoints(SearchQuery.compile("linux"), ""));
+        assertEquals(0, SearchStringUtils.getMaxNormalizedPhrasesPoints(SearchQuery.compile("linux"), null));
+
+        assertMaxPointsAreUpperBound("linux", "linux");
+        // same words many times, adjacent within and across compare words
+        assertMaxPointsAreUpperBound("linux autostart", "linuxautostart linux autostart linux autostart");
+        assertMaxPointsAreUpperBound("put", "input1 input2 input3");
+        assertMaxPointsAreUpperBound("x\uD801\uDC00 \u0131", "x\uD801\uDC28 \u0131");
+
+        RandomPhrases.forEachPhrasePair(RandomPhrases.WORDS, (searchPhrase, comparePhrase) -> 
+            assertMaxPointsAreUpperBound(searchPhrase, comparePhrase));
+    }
+
+    @Test
+    void matchNormalizedPhrases_shouldRateLikeMatchPhrasesIfFuzzy() {
+        assertTrue(matchNormalizedPhrases("autsotart", "autostart", true) > 0);
+        assertEquals(0, matchNormalizedPhrases("autsotart", "autostart", false));
+        // exact match is rated higher than a typo
+        assertTrue(matchNormalizedPhrases("linux", "linux", true) > matchNormalizedPhrases("linnux", "linux", true));
+        assertEquals(0, matchNormalizedPhrases("docker", "linux autostart", true));
+
+        assertRatesLikeMatchPhrases("confgiuration linnux", "configuration linux", true);
+        assertRatesLikeMatchPhrases("lnux", "linux", true);
+        assertRatesLikeMatchPhrases("x\uD801\uDC00", "X\uD801\uDC28", true);
+
+        RandomPhrases.forEachPhrasePair(RandomPhrases.FUZZY_WORDS, (searchPhrase, comparePhrase) -> 
+            assertRatesLikeMatchPhrases(searchPhrase, comparePhrase, true));
+    }
+
+    @Test
+    void normalize_shouldFoldCaseAndCollapseWhitespace() {
+        assertEquals("", SearchStringUtils.normalize(null, 10));
+        assertEquals("linux autostart stra\u00DFe", SearchStringUtils.normalize(" Linux\n\tAUTOSTART  Stra\u00DFe", 100));
+        assertEquals("x\uD801\uDC28", SearchStringUtils.normalize("X\uD801\uDC00", 100));
+    }
+
+    @Test
+    void toSearchTokens_shouldJoinWordsWithSingleWhitespace() {
+        assertEquals("", SearchStringUtils.toSearchTokens(null, 10));
+        assertEquals("", SearchStringUtils.toSearchTokens(" \n\t ", 10));
+        assertEquals("public static\u00A0void main()", SearchStringUtils.toSearchTokens("  public  static\u00A0void\r\n\tmain() \n", 100));
+    }
+
+    @Test
+    void toSearchTokens_shouldStopBeforeWordExceedingMaxLength() {
+        assertEquals("linux", SearchStringUtils.toSearchTokens("linux autostart", 14));
+        assertEquals("linux autostart", SearchStringUtils.toSearchTokens("linux\n\nautostart", 15));
+        assertEquals("", SearchStringUtils.toSearchTokens("configuration", 4));
+        assertEquals("", SearchStringUtils.toSearchTokens("linux", 0));
+    }
+
+    private static double matchNormalizedPhrases(String searchPhrase, String comparePhrase, boolean isFuzzy) {
+        return SearchStringUtils.matchNormalizedPhrases(SearchQuery.compile(searchPhrase, isFuzzy), SearchStringUtils.normalize(comparePhrase, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Assert that rating the normalized {@code comparePhrase} yields the same as rating it with single spaces only, and that the max 
+     * points are an upper bound. If fuzzy, also assert that fuzzy matching rates at least as high as matching exactly.
+     */
+    private static void assertRatesLikeMatchPhrases(String searchPhrase, String comparePhrase, boolean isFuzzy) {
+        SearchQuery searchQuery = SearchQuery.compile(searchPhrase, isFuzzy);
+        // single spaces only
+        String searchTokens = SearchStringUtils.toSearchTokens(comparePhrase, Integer.MAX_VALUE);
+        String normalizedComparePhrase = SearchStringUtils.normalize(comparePhrase, Integer.MAX_VALUE);
+        String message = "'" + searchPhrase + "' / '" + comparePhrase + "', fuzzy: " + isFuzzy;
+
+        double ratingPoints = SearchStringUtils.matchNormalizedPhrases(searchQuery, normalizedComparePhrase);
+        assertEquals(SearchStringUtils.matchPhrases(searchQuery, searchTokens), ratingPoints, message);
+
+        if (isFuzzy) {
+            assertTrue(ratingPoints >= SearchStringUtils.matchPhrases(searchPhrase, searchTokens), message);
+            assertMaxPointsAreUpperBound(searchQuery, normalizedComparePhrase);
+        }
+    }
+
+    private static void assertMaxPointsAreUpperBound(String searchPhrase, String comparePhrase) {
+        assertMaxPointsAreUpperBound(SearchQuery.compile(searchPhrase), SearchStringUtils.normalize(comparePhrase, Integer.MAX_VALUE));
+    }
+
+    private static void assertMaxPointsAreUpperBound(SearchQuery searchQuery, String normalizedComparePhrase) {
+        double ratingPoints = SearchStringUtils.matchNormalizedPhrases(searchQuery, normalizedComparePhrase);
+        double maxRatingPoints = SearchStringUtils.getMaxNormalizedPhrasesPoints(searchQuery, normalizedComparePhrase);
+        String message = "'" + searchQuery.getPhrase() + "' / '" + normalizedComparePhrase + "'";
+
+        assertTrue(maxRatingPoints >= ratingPoints, message);
+        assertEquals(ratingPoints == 0, maxRatingPoints == 0, message);
+    }
+
+    /**
+     * The original implementation of {@link SearchStringUtils#matchPhrases(String, String)} using {@code String.split} and one {@link SearchStringMatch} per match. 
+     */
+    private static double referenceMatchPhrases(String searchPhrase, String comparePhrase) {
+        if (isBlank(searchPhrase) || isBlank(comparePhrase))
+            return SearchStringUtils.matchWords(searchPhrase, comparePhrase).getRating().getPoints();
+
+        String[] searchWords = searchPhrase.split(" ");
+        String[] compareWords = comparePhrase.split(" ");
+
+        double totalRatingPoints = 0;    
+        List<SearchStringMatch> prevSearchWordMatches = new LinkedList<>();
+        
+        for (int searchWordIndex = 0; searchWordIndex < searchWords.length; searchWordIndex++) {
+            String searchWord = searchWords[searchWordIndex];
+            if (isBlank(searchWord))
+                continue;
+
+            double currentSearchWordRatingPoints = 0;    
+            List<SearchStringMatch> currentSearchWordMatches = new LinkedList<>();
+
+            for (int compareWordIndex = 0; compareWordIndex < compareWords.length; compareWordIndex++) {
+                String compareWord = compareWords[compareWordIndex];
+                if (isBlank(compareWord))
+                    continue;
+
+                SearchStringMatch searchWordMatch = SearchStringUtils.matchWords(searchWord, compareWord);
+                searchWordMatch.setSearchWordLength(searchWord.length());
+                searchWordMatch.setSearchWordIndex(searchWordIndex);
+                searchWordMatch.setCompareWordIndex(compareWordIndex);
+                
+                if (searchWordMatch.isNotAMatch())
+                    continue;
+
+                currentSearchWordMatches.add(searchWordMatch);
+                
+                double searchWordRatingPoints = searchWordMatch.getRating().getPoints();
+                if (searchWordRatingPoints > currentSearchWordRatingPoints)
+                    currentSearchWordRatingPoints = searchWordRatingPoints;
+            }
+
+            for (SearchStringMatch leftSearchWordMatch : prevSearchWordMatches)
+                for (SearchStringMatch rightSearchWordMatch : currentSearchWordMatches)
+                    if (SearchStringUtils.isMatchAdjacent(leftSearchWordMatch, rightSearchWordMatch))
+                        currentSearchWordRatingPoints += SEARCH_ADJACENT_MATCH_RATING_POINTS;
+
+            totalRatingPoints += currentSearchWordRatingPoints;
+            prevSearchWordMatches = currentSearchWordMatches;
+        }
+
+        return totalRatingPoints;
+    }
 }
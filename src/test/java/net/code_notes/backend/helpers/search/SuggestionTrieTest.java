@@ -0,0 +1,113 @@
+package net.code_notes.backend.helpers.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import net.code_notes.backend.dto.SuggestionDto;
+
+/**
+ * @since 1.2.0
+ */
+public class SuggestionTrieTest {
+
+    private static final String[] WORDS = { "linux", "lint", "link", "li", "Autostart", "auto", "CONFIGURATION", "config", "docker compose", "stra\u00DFe", "x\uD801\uDC28" };
+
+    @Test
+    void complete_shouldRankByFrequencyThenAlphabetically() {
+        SuggestionTrie suggestionTrie = new SuggestionTrie();
+        suggestionTrie.put(1l, List.of("linux", "Autostart", "config"));
+        suggestionTrie.put(2l, List.of("Linux", "lint", "linux"));
+        suggestionTrie.put(3l, List.of("link", "lint", "docker compose"));
+
+        assertEquals(List.of("lint 2", "linux 2", "link 1"), toStrings(suggestionTrie.complete("LIN", 10)));
+        assertEquals(List.of("lint 2"), toStrings(suggestionTrie.complete("lin", 1)));
+        assertEquals(List.of("linux 2"), toStrings(suggestionTrie.complete("linux", 10)));
+        assertEquals(List.of("docker compose 1"), toStrings(suggestionTrie.complete(" docker co", 10)));
+        assertTrue(suggestionTrie.complete("linuxx", 10).isEmpty());
+        assertTrue(suggestionTrie.complete(" ", 10).isEmpty());
+        assertTrue(suggestionTrie.complete("lin", 0).isEmpty());
+    }
+
+    @Test
+    void remove_shouldDecrementFrequencies() {
+        SuggestionTrie suggestionTrie = new SuggestionTrie();
+        suggestionTrie.put(1l, List.of("linux", "autostart"));
+        suggestionTrie.put(2l, List.of("linux"));
+
+        suggestionTrie.remove(1l);
+        assertEquals(1, suggestionTrie.getFrequency("linux"));
+        assertEquals(0, suggestionTrie.getFrequency("autostart"));
+        assertTrue(suggestionTrie.complete("auto", 10).isEmpty());
+        assertEquals(1, suggestionTrie.getTermCount());
+
+        // replace terms on put
+        suggestionTrie.put(2l, List.of("autostart"));
+        assertEquals(List.of("autostart 1"), toStrings(suggestionTrie.complete("a", 10)));
+        assertTrue(suggestionTrie.complete("l", 10).isEmpty());
+        assertEquals(1, suggestionTrie.size());
+    }
+
+    @Test
+    void complete_shouldReturnSameAsSortingAllTerms() {
+        Random random = new Random(42);
+        SuggestionTrie suggestionTrie = new SuggestionTrie();
+        Map<Long, Set<String>> termsByNoteId = new HashMap<>();
+
+        for (int i = 0; i < 2000; i++) {
+            long noteId = random.nextInt(100);
+
+            if (random.nextInt(4) == 0) {
+                suggestionTrie.remove(noteId);
+                termsByNoteId.remove(noteId);
+                continue;
+            }
+
+            List<String> terms = new ArrayList<>();
+            for (int j = random.nextInt(4); j > 0; j--)
+                terms.add(WORDS[random.nextInt(WORDS.length)]);
+
+            suggestionTrie.put(noteId, terms);
+            Set<String> foldedTerms = new HashSet<>();
+            terms.forEach(term -> foldedTerms.add(SearchStringUtils.foldCodePoints(term)));
+            termsByNoteId.put(noteId, foldedTerms);
+
+            String prefix = WORDS[random.nextInt(WORDS.length)].substring(0, 1 + random.nextInt(2));
+            int maxResults = 1 + random.nextInt(5);
+            assertEquals(expectedCompletions(termsByNoteId, prefix, maxResults), toStrings(suggestionTrie.complete(prefix, maxResults)));
+        }
+    }
+
+    private static List<String> expectedCompletions(Map<Long, Set<String>> termsByNoteId, String prefix, int maxResults) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        termsByNoteId.values().forEach(terms -> terms.forEach(term -> frequencies.merge(term, 1, Integer::sum)));
+
+        String foldedPrefix = SearchStringUtils.foldCodePoints(prefix);
+
+        return frequencies
+            .entrySet()
+            .stream()
+            .filter(entry -> entry.getKey().startsWith(foldedPrefix))
+            .sorted(Comparator.comparing((Map.Entry<String, Integer> entry) -> -entry.getValue()).thenComparing(Map.Entry::getKey))
+            .limit(maxResults)
+            .map(entry -> entry.getKey() + " " + entry.getValue())
+            .toList();
+    }
+
+    private static List<String> toStrings(List<SuggestionDto> suggestions) {
+        return suggestions
+            .stream()
+            .map(suggestion -> suggestion.getText() + " " + suggestion.getFrequency())
+            .toList();
+    }
+}
@@ -0,0 +1,113 @@
+package net.code_notes.backend.helpers.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @since 1.2.0
+ */
+public class TopKSelectorTest {
+
+    /** Desc by tens only, sothat there are many ties */
+    private static final Comparator<Integer> TENS_DESC = (i1, i2) -> Integer.compare(i2 / 10, i1 / 10);
+
+    @Test
+    void constructor_shouldThrowIfInvalidArgs() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelector<>(-1, TENS_DESC));
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelector<Integer>(1, null));
+    }
+
+    @Test
+    void toSortedList_shouldEqualStableSortPrefix() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200; i++) {
+            List<Integer> elements = randomElements(random);
+            int k = random.nextInt(elements.size() + 5);
+
+            TopKSelector<Integer> topKSelector = new TopKSelector<>(k, TENS_DESC);
+            elements.forEach(topKSelector::offer);
+
+            assertEquals(expectedTopK(elements, k), topKSelector.toSortedList());
+            assertEquals(elements.size(), topKSelector.getCount());
+        }
+    }
+
+    @Test
+    void merge_shouldEqualSingleSelector() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200; i++) {
+            List<Integer> elements = randomElements(random);
+            int k = random.nextInt(elements.size() + 5);
+            int chunkSize = 1 + random.nextInt(10);
+
+            TopKSelector<Integer> mergedSelector = new TopKSelector<>(k, TENS_DESC);
+            for (int fromIndex = 0; fromIndex < elements.size(); fromIndex += chunkSize) {
+                TopKSelector<Integer> chunkSelector = new TopKSelector<>(k, TENS_DESC);
+                for (int index = fromIndex; index < Math.min(fromIndex + chunkSize, elements.size()); index++)
+                    chunkSelector.offer(elements.get(index), index);
+
+                mergedSelector.merge(chunkSelector);
+            }
+
+            assertEquals(expectedTopK(elements, k), mergedSelector.toSortedList());
+            assertEquals(elements.size(), mergedSelector.getCount());
+        }
+    }
+
+    @Test
+    void offer_shouldOnlyCountIfKIsZero() {
+        TopKSelector<Integer> topKSelector = new TopKSelector<>(0, TENS_DESC);
+        topKSelector.offer(1);
+        topKSelector.offer(2);
+
+        assertTrue(topKSelector.toSortedList().isEmpty());
+        assertEquals(2, topKSelector.getCount());
+    }
+
+    @Test
+    void peekWorst_shouldReturnWorstKeptOnceFull() {
+        TopKSelector<Integer> topKSelector = new TopKSelector<>(2, TENS_DESC);
+        assertFalse(topKSelector.isFull());
+        assertNull(topKSelector.peekWorst());
+
+        topKSelector.offer(50);
+        topKSelector.offer(10);
+        assertTrue(topKSelector.isFull());
+        assertEquals(Integer.valueOf(10), topKSelector.peekWorst());
+
+        topKSelector.offer(30);
+        topKSelector.skip();
+        assertEquals(Integer.valueOf(30), topKSelector.peekWorst());
+        assertEquals(List.of(50, 30), topKSelector.toSortedList());
+        assertEquals(4, topKSelector.getCount());
+    }
+
+    private static List<Integer> randomElements(Random random) {
+        int numElements = random.nextInt(100);
+        List<Integer> elements = new ArrayList<>(numElements);
+        for (int i = 0; i < numElements; i++)
+            elements.add(random.nextInt(100));
+
+        return elements;
+    }
+
+    private static List<Integer> expectedTopK(List<Integer> elements, int k) {
+        List<Integer> sortedElements = new ArrayList<>(elements);
+        // List.sort is stable
+        sortedElements.sort(TENS_DESC);
+
+        return sortedElements.subList(0, Math.min(k, sortedElements.size()));
+    }
+}
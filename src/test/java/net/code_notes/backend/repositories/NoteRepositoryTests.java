@@ -0,0 +1,106 @@
+package net.code_notes.backend.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import net.code_notes.backend.CodeNotesBackendApplication;
+import net.code_notes.backend.SecurityTestConfig;
+import net.code_notes.backend.abstracts.AppUserRole;
+import net.code_notes.backend.abstracts.NoteInputType;
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.entities.Note;
+import net.code_notes.backend.entities.NoteInput;
+import net.code_notes.backend.helpers.Utils;
+
+/**
+ * Rolls back every test.
+ *
+ * @since 1.2.0
+ */
+@SpringBootTest
+@Import({
+    SecurityTestConfig.class
+})
+@Transactional
+public class NoteRepositoryTests {
+
+    private static final String APP_USER_EMAIL = "note-repository-tests@code-notes.net";
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+
+    @BeforeAll
+    static void init() throws IOException {
+        CodeNotesBackendApplication.readEnvFiles("./.env.version");
+
+        if (Utils.isCI())
+            System.setProperty("spring.datasource.url", "jdbc:h2:mem:cidb");
+    }
+
+    @Test
+    void findUpdatedByAppUserEmailSince_shouldFindNotesWithOnlyAnInputUpdated() throws InterruptedException {
+        AppUser appUser = this.appUserRepository.save(new AppUser(APP_USER_EMAIL, "Abc123,.", AppUserRole.USER));
+
+        NoteInput noteInput = new NoteInput();
+        noteInput.setType(NoteInputType.PLAIN_TEXT);
+        noteInput.setValue("linux autostart");
+
+        Note note = new Note();
+        note.setTitle("linux");
+        note.setAppUser(appUser);
+        note.setNoteInputs(new ArrayList<>(List.of(noteInput)));
+        note = this.noteRepository.saveAndFlush(note);
+
+        // timestamps are compared with microseconds at most
+        Thread.sleep(10);
+        LocalDateTime watermark = LocalDateTime.now();
+        Thread.sleep(10);
+
+        assertTrue(this.noteRepository.findUpdatedByAppUserEmailSince(APP_USER_EMAIL, watermark).isEmpty());
+
+        // only the input's row is updated
+        note.getNoteInputs().get(0).setValue("linux docker");
+        this.noteRepository.saveAndFlush(note);
+
+        List<SearchNoteJpaDto> updatedNoteDtos = this.noteRepository.findUpdatedByAppUserEmailSince(APP_USER_EMAIL, watermark);
+
+        assertTrue(note.getUpdated().isBefore(watermark));
+        assertEquals(1, updatedNoteDtos.size());
+        assertEquals(note.getId(), updatedNoteDtos.get(0).getId());
+    }
+
+    @Test
+    void deleteByIdAndAppUserEmail_shouldOnlyDeleteNotesOfAppUser() {
+        AppUser appUser = this.appUserRepository.save(new AppUser(APP_USER_EMAIL, "Abc123,.", AppUserRole.USER));
+
+        Note note = new Note();
+        note.setTitle("linux");
+        note.setAppUser(appUser);
+        note = this.noteRepository.saveAndFlush(note);
+
+        assertEquals(0, this.noteRepository.deleteByIdAndAppUserEmail(note.getId(), "other-" + APP_USER_EMAIL));
+        assertEquals(0, this.noteRepository.deleteByIdAndAppUserEmail(note.getId() + 1, APP_USER_EMAIL));
+        assertTrue(this.noteRepository.existsById(note.getId()));
+
+        assertEquals(1, this.noteRepository.deleteByIdAndAppUserEmail(note.getId(), APP_USER_EMAIL));
+        assertFalse(this.noteRepository.existsById(note.getId()));
+    }
+}
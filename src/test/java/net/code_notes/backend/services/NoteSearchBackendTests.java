@@ -0,0 +1,191 @@
+package net.code_notes.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import net.code_notes.backend.CodeNotesBackendApplication;
+import net.code_notes.backend.SecurityTestConfig;
+import net.code_notes.backend.abstracts.AppUserRole;
+import net.code_notes.backend.abstracts.NoteInputType;
+import net.code_notes.backend.abstracts.NoteSearchBackend;
+import net.code_notes.backend.dto.SearchNoteDataDto;
+import net.code_notes.backend.dto.SearchNoteJpaDto;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.entities.Note;
+import net.code_notes.backend.entities.NoteInput;
+import net.code_notes.backend.helpers.Utils;
+import net.code_notes.backend.helpers.search.NoteSearchRatingTask;
+import net.code_notes.backend.helpers.search.SearchQuery;
+import net.code_notes.backend.repositories.AppUserRepository;
+import net.code_notes.backend.repositories.NoteRepository;
+
+/**
+ * Runs both {@link NoteSearchBackend}s on the same notes, regardless of {@code NOTE_SEARCH_BACKEND}. Rolls back every test.
+ *
+ * @since 1.2.0
+ */
+@SpringBootTest
+@Import({
+    SecurityTestConfig.class
+})
+@Transactional
+public class NoteSearchBackendTests {
+
+    private static final String APP_USER_EMAIL = "note-search-backend-tests@code-notes.net";
+
+    /** Title and note input values, covering infix matches, stopwords, short words, case and special chars */
+    private static final String[][] NOTES = {
+        { "Linux autostart", "sudo systemctl enable docker" },
+        { "Input validation", "the user input is a string" },
+        { "Configuration", "docker-compose.yml\n\tservices: { }" },
+        { "Stra\u00DFe", "I \u0130 \u0131 i" },
+        { "Surrogates", "x\uD801\uDC00 y" },
+        { "Escaping", "100% a_b !x" },
+        { "No inputs" }
+    };
+
+    private static final String[] SEARCH_PHRASES = {
+        "put", "figur", "the", "a", "i", "is", "CONFIG", "docker compose", "-compose.", "stra\u00DFe", "STRASSE", "\u0130", "x\uD801\uDC28",
+        "100%", "a_b", "!x", "%", "_", "autostart linux", "input  nothing", "nothing"
+    };
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteInputService noteInputService;
+
+    @Autowired
+    private NoteSearchDataService noteSearchDataService;
+
+    private NoteSearchBackend inMemoryNoteSearchBackend;
+
+    private NoteSearchBackend dbScanNoteSearchBackend;
+
+    private AppUser appUser;
+
+
+    @BeforeAll
+    static void init() throws IOException {
+        CodeNotesBackendApplication.readEnvFiles("./.env.version");
+
+        if (Utils.isCI())
+            System.setProperty("spring.datasource.url", "jdbc:h2:mem:cidb");
+    }
+
+    @BeforeEach
+    void setup() {
+        // at most one of them is a bean
+        this.inMemoryNoteSearchBackend = this.applicationContext.getAutowireCapableBeanFactory().createBean(InMemoryNoteSearchBackend.class);
+        this.dbScanNoteSearchBackend = this.applicationContext.getAutowireCapableBeanFactory().createBean(DbScanNoteSearchBackend.class);
+
+        this.appUser = this.appUserRepository.save(new AppUser(APP_USER_EMAIL, "Abc123,.", AppUserRole.USER));
+
+        for (String[] titleAndValues : NOTES) {
+            List<NoteInput> noteInputs = new ArrayList<>();
+            for (int i = 1; i < titleAndValues.length; i++) {
+                NoteInput noteInput = new NoteInput();
+                noteInput.setType(NoteInputType.PLAIN_TEXT);
+                noteInput.setValue(titleAndValues[i]);
+                noteInputs.add(noteInput);
+            }
+
+            Note note = new Note();
+            note.setTitle(titleAndValues[0]);
+            note.updateNormalizedTitle();
+            note.setAppUser(this.appUser);
+            note.setNoteInputs(noteInputs);
+            this.noteInputService.saveSearchTokens(this.noteRepository.save(note).getNoteInputs());
+        }
+
+        this.noteRepository.flush();
+    }
+
+    @Test
+    void findCandidates_dbScanShouldFindAllNotesInMemoryFinds() {
+        for (String searchPhrase : SEARCH_PHRASES)
+            for (boolean fuzzy : new boolean[] { false, true })
+                assertCandidates(SearchQuery.compile(searchPhrase, fuzzy), null);
+
+        Set<Long> noteIds = Set.of(getNoteId("Input validation"), getNoteId("Configuration"));
+        assertCandidates(SearchQuery.compile("put", false), noteIds);
+        assertCandidates(SearchQuery.compile("nothing", true), noteIds);
+    }
+
+    @Test
+    void findCandidates_dbScanShouldFindInfixesAndStopwords() {
+        assertEquals(
+            Set.of(getNoteId("Input validation")),
+            getCandidateIds(this.dbScanNoteSearchBackend, SearchQuery.compile("put", false), null));
+
+        assertTrue(getCandidateIds(this.dbScanNoteSearchBackend, SearchQuery.compile("figur", false), null).contains(getNoteId("Configuration")));
+        assertTrue(getCandidateIds(this.dbScanNoteSearchBackend, SearchQuery.compile("the", false), null).contains(getNoteId("Input validation")));
+    }
+
+    /**
+     * Assert that the db scan backend finds every note the in-memory backend finds and that both find every note with rating points.
+     */
+    private void assertCandidates(SearchQuery searchQuery, Set<Long> noteIds) {
+        Set<Long> inMemoryCandidateIds = getCandidateIds(this.inMemoryNoteSearchBackend, searchQuery, noteIds);
+        Set<Long> dbScanCandidateIds = getCandidateIds(this.dbScanNoteSearchBackend, searchQuery, noteIds);
+        String message = "'" + searchQuery.getPhrase() + "', fuzzy: " + searchQuery.isFuzzy();
+
+        assertTrue(dbScanCandidateIds.containsAll(inMemoryCandidateIds), message + ", in-memory: " + inMemoryCandidateIds + ", db-scan: " + dbScanCandidateIds);
+        assertTrue(inMemoryCandidateIds.containsAll(getRatedNoteIds(searchQuery, noteIds)), message);
+    }
+
+    private Set<Long> getCandidateIds(NoteSearchBackend noteSearchBackend, SearchQuery searchQuery, Set<Long> noteIds) {
+        Set<Long> candidateIds = new TreeSet<>();
+        noteSearchBackend
+            .findCandidates(this.appUser, searchQuery, noteIds)
+            .forEach(noteDto -> candidateIds.add(noteDto.getId()));
+
+        return candidateIds;
+    }
+
+    /**
+     * @return ids of all notes with rating points, rated without any backend
+     */
+    private Set<Long> getRatedNoteIds(SearchQuery searchQuery, Set<Long> noteIds) {
+        List<SearchNoteJpaDto> noteDtos = this.noteRepository.findByAppUserEmail(APP_USER_EMAIL);
+        SearchNoteDataDto searchNoteData = this.noteSearchDataService.loadSearchData(noteDtos);
+
+        Set<Long> ratedNoteIds = new TreeSet<>();
+        for (SearchNoteJpaDto noteDto : noteDtos)
+            if ((noteIds == null || noteIds.contains(noteDto.getId())) && NoteSearchRatingTask.rate(noteDto, searchNoteData, searchQuery) > 0)
+                ratedNoteIds.add(noteDto.getId());
+
+        return ratedNoteIds;
+    }
+
+    private Long getNoteId(String title) {
+        return this.noteRepository
+            .findByAppUserEmail(APP_USER_EMAIL)
+            .stream()
+            .filter(noteDto -> title.equals(noteDto.getTitle()))
+            .findFirst()
+            .orElseThrow()
+            .getId();
+    }
+}
@@ -0,0 +1,221 @@
+package net.code_notes.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import net.code_notes.backend.CodeNotesBackendApplication;
+import net.code_notes.backend.SecurityTestConfig;
+import net.code_notes.backend.abstracts.AppUserRole;
+import net.code_notes.backend.abstracts.NoteInputType;
+import net.code_notes.backend.entities.AppUser;
+import net.code_notes.backend.entities.Note;
+import net.code_notes.backend.entities.NoteInput;
+import net.code_notes.backend.helpers.Utils;
+import net.code_notes.backend.helpers.search.NoteSearchIndex;
+import net.code_notes.backend.helpers.search.SearchQuery;
+import net.code_notes.backend.repositories.AppUserRepository;
+import net.code_notes.backend.repositories.NoteRepository;
+
+/**
+ * Uses a new {@link NoteSearchIndexService} per test, sothat the indices and marks of the bean don't interfere. Rolls back every test.
+ *
+ * @since 1.2.0
+ */
+@SpringBootTest
+@Import({
+    SecurityTestConfig.class
+})
+@Transactional
+public class NoteSearchIndexServiceTests {
+
+    private static final String APP_USER_EMAIL = "note-search-index-service-tests@code-notes.net";
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteInputService noteInputService;
+
+    private NoteSearchIndexService noteSearchIndexService;
+
+    private AppUser appUser;
+
+    @TempDir
+    Path snapshotDir;
+
+
+    @BeforeAll
+    static void init() throws IOException {
+        CodeNotesBackendApplication.readEnvFiles("./.env.version");
+
+        if (Utils.isCI())
+            System.setProperty("spring.datasource.url", "jdbc:h2:mem:cidb");
+    }
+
+    @BeforeEach
+    void setup() {
+        this.noteSearchIndexService = newNoteSearchIndexService();
+        this.appUser = this.appUserRepository.save(new AppUser(APP_USER_EMAIL, "Abc123,.", AppUserRole.USER));
+    }
+
+    @Test
+    void findCandidateIds_shouldReturnChangingAndDirtyNotesUntilUpdated() {
+        Note note = saveNote("linux", "autostart");
+        this.noteSearchIndexService.getOrBuild(this.appUser);
+
+        note.setTitle("docker");
+        note = saveNote(note);
+
+        // two transactions changing the note
+        this.noteSearchIndexService.markChanging(APP_USER_EMAIL, List.of(note.getId()));
+        this.noteSearchIndexService.markChanging(APP_USER_EMAIL, List.of(note.getId()));
+        assertTrue(findCandidateIds("docker").contains(note.getId()));
+        assertEquals(List.of(note.getId()), getPendingNoteIds());
+
+        // first one committed, second one still changing
+        this.noteSearchIndexService.markDirty(APP_USER_EMAIL, List.of(note.getId()));
+        this.noteSearchIndexService.update(APP_USER_EMAIL, List.of(note.getId()));
+        assertEquals(List.of(note.getId()), getPendingNoteIds());
+
+        this.noteSearchIndexService.markDirty(APP_USER_EMAIL, List.of(note.getId()));
+        assertEquals(List.of(note.getId()), getPendingNoteIds());
+
+        this.noteSearchIndexService.update(APP_USER_EMAIL, List.of(note.getId()));
+        assertTrue(getPendingNoteIds().isEmpty());
+        assertTrue(findCandidateIds("docker").contains(note.getId()));
+        assertFalse(findCandidateIds("linux").contains(note.getId()));
+    }
+
+    @Test
+    void update_shouldRemoveDeletedNotes() {
+        Note note = saveNote("linux", "autostart");
+        this.noteSearchIndexService.getOrBuild(this.appUser);
+
+        deleteNote(note);
+        this.noteSearchIndexService.markDirty(APP_USER_EMAIL, List.of(note.getId()));
+        this.noteSearchIndexService.update(APP_USER_EMAIL, List.of(note.getId()));
+
+        assertFalse(this.noteSearchIndexService.getOrBuild(this.appUser).contains(note.getId()));
+        assertTrue(getPendingNoteIds().isEmpty());
+    }
+
+    @Test
+    void getOrBuild_shouldClearDirtyNotesWhoseUpdateFoundNoIndex() {
+        Note note = saveNote("linux", "autostart");
+
+        // case: committed before the index is built, the update does nothing
+        this.noteSearchIndexService.markDirty(APP_USER_EMAIL, List.of(note.getId()));
+        this.noteSearchIndexService.update(APP_USER_EMAIL, List.of(note.getId()));
+
+        NoteSearchIndex noteSearchIndex = this.noteSearchIndexService.getOrBuild(this.appUser);
+
+        assertTrue(noteSearchIndex.contains(note.getId()));
+        assertTrue(getPendingNoteIds().isEmpty());
+        assertTrue(this.noteSearchIndexService.checkConsistency(APP_USER_EMAIL).isConsistent());
+    }
+
+    @Test
+    void loadSnapshots_shouldReplayUpdatedAndDeletedNotes() throws IOException {
+        Note updatedNote = saveNote("linux", "autostart");
+        Note deletedNote = saveNote("git", "rebase");
+        Note unchangedNote = saveNote("java", "stream");
+
+        ReflectionTestUtils.setField(this.noteSearchIndexService, "NOTE_SEARCH_SNAPSHOT_PATH", this.snapshotDir.toString());
+        this.noteSearchIndexService.getOrBuild(this.appUser);
+        this.noteSearchIndexService.writeSnapshots();
+        try (Stream<Path> snapshotPaths = Files.list(this.snapshotDir)) {
+            assertEquals(1, snapshotPaths.count());
+        }
+
+        // changed while the app is down
+        updatedNote.getNoteInputs().get(0).setValue("docker compose");
+        saveNote(updatedNote);
+        deleteNote(deletedNote);
+        Note newNote = saveNote("maven", "dependency");
+
+        NoteSearchIndexService restartedNoteSearchIndexService = newNoteSearchIndexService();
+        ReflectionTestUtils.setField(restartedNoteSearchIndexService, "NOTE_SEARCH_SNAPSHOT_PATH", this.snapshotDir.toString());
+        restartedNoteSearchIndexService.loadSnapshots();
+        NoteSearchIndex noteSearchIndex = restartedNoteSearchIndexService.getOrBuild(this.appUser);
+
+        assertEquals(Set.of(updatedNote.getId(), unchangedNote.getId(), newNote.getId()), noteSearchIndex.getNoteIds());
+        assertTrue(noteSearchIndex.findCandidateIds(SearchQuery.compile("compose", false)).contains(updatedNote.getId()));
+        assertFalse(noteSearchIndex.findCandidateIds(SearchQuery.compile("autostart", false)).contains(updatedNote.getId()));
+        assertTrue(restartedNoteSearchIndexService.checkConsistency(APP_USER_EMAIL).isConsistent());
+    }
+
+    private NoteSearchIndexService newNoteSearchIndexService() {
+        NoteSearchIndexService noteSearchIndexService = this.applicationContext.getAutowireCapableBeanFactory().createBean(NoteSearchIndexService.class);
+        // dont write to the configured dir
+        ReflectionTestUtils.setField(noteSearchIndexService, "NOTE_SEARCH_SNAPSHOT_PATH", "");
+
+        return noteSearchIndexService;
+    }
+
+    private Note saveNote(String title, String value) {
+        NoteInput noteInput = new NoteInput();
+        noteInput.setType(NoteInputType.PLAIN_TEXT);
+        noteInput.setValue(value);
+
+        Note note = new Note();
+        note.setTitle(title);
+        note.setAppUser(this.appUser);
+        note.setNoteInputs(new ArrayList<>(List.of(noteInput)));
+
+        return saveNote(note);
+    }
+
+    /**
+     * Save like {@code NoteService.save} does, without events.
+     */
+    private Note saveNote(Note note) {
+        note.updateNormalizedTitle();
+        note = this.noteRepository.save(note);
+        this.noteInputService.saveSearchTokens(note.getNoteInputs());
+        this.noteRepository.flush();
+
+        return note;
+    }
+
+    /**
+     * Delete like {@code NoteService.delete} does, without events.
+     */
+    private void deleteNote(Note note) {
+        this.noteRepository.deleteByIdAndAppUserEmail(note.getId(), APP_USER_EMAIL);
+        this.noteRepository.flush();
+    }
+
+    private Set<Long> findCandidateIds(String searchPhrase) {
+        return this.noteSearchIndexService.findCandidateIds(this.appUser, SearchQuery.compile(searchPhrase, false));
+    }
+
+    private List<Long> getPendingNoteIds() {
+        return this.noteSearchIndexService.checkConsistency(APP_USER_EMAIL).getPendingNoteIds();
+    }
+}
@@ -0,0 +1,78 @@
+package net.code_notes.backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import net.code_notes.backend.abstracts.AppUserRole;
+import net.code_notes.backend.abstracts.TagMatchMode;
+import net.code_notes.backend.dto.SearchNoteRankingDto;
+import net.code_notes.backend.entities.AppUser;
+
+/**
+ * @since 1.2.0
+ */
+public class NoteSearchRankingCacheServiceTest {
+
+    private static final AppUser APP_USER = new AppUser("ranking-cache-test@code-notes.net", "Abc123,.", AppUserRole.USER);
+
+    private static final SearchNoteRankingDto RANKING = new SearchNoteRankingDto(List.of(1l, 2l), List.of(2.0, 1.0), 2, false);
+
+    private NoteSearchRankingCacheService noteSearchRankingCacheService;
+
+
+    @BeforeEach
+    void beforeEach() {
+        this.noteSearchRankingCacheService = new NoteSearchRankingCacheService();
+        ReflectionTestUtils.setField(this.noteSearchRankingCacheService, "NOTE_SEARCH_RANKING_CACHE_SIZE", 2);
+        ReflectionTestUtils.setField(this.noteSearchRankingCacheService, "NOTE_SEARCH_RANKING_CACHE_MAX_APP_USERS", 2);
+    }
+
+    @Test
+    void get_shouldOnlyReturnRankingOfSameNotesVersion() {
+        this.noteSearchRankingCacheService.put(APP_USER, "Linux", List.of("docker", "git"), TagMatchMode.ALL, 3, RANKING);
+
+        // case and tag order don't change the ranking
+        assertSame(RANKING, this.noteSearchRankingCacheService.get(APP_USER, "linux", List.of("git", "docker"), TagMatchMode.ALL, 3));
+        assertNull(this.noteSearchRankingCacheService.get(APP_USER, "linux", List.of("git", "docker"), TagMatchMode.ANY, 3));
+
+        // notes changed since, ranking is dropped
+        assertNull(this.noteSearchRankingCacheService.get(APP_USER, "linux", List.of("git", "docker"), TagMatchMode.ALL, 4));
+        assertNull(this.noteSearchRankingCacheService.get(APP_USER, "linux", List.of("git", "docker"), TagMatchMode.ALL, 3));
+    }
+
+    @Test
+    void evict_shouldDropRankingsOfAppUserOnly() {
+        AppUser otherAppUser = new AppUser("other-ranking-cache-test@code-notes.net", "Abc123,.", AppUserRole.USER);
+        this.noteSearchRankingCacheService.put(APP_USER, "linux", null, null, 1, RANKING);
+        this.noteSearchRankingCacheService.put(otherAppUser, "linux", null, null, 1, RANKING);
+
+        this.noteSearchRankingCacheService.evict(APP_USER);
+
+        assertNull(this.noteSearchRankingCacheService.get(APP_USER, "linux", null, null, 1));
+        assertSame(RANKING, this.noteSearchRankingCacheService.get(otherAppUser, "linux", null, null, 1));
+    }
+
+    @Test
+    void put_shouldDropLeastRecentlyUsedAppUserCache() {
+        AppUser appUser2 = new AppUser("ranking-cache-test2@code-notes.net", "Abc123,.", AppUserRole.USER);
+        AppUser appUser3 = new AppUser("ranking-cache-test3@code-notes.net", "Abc123,.", AppUserRole.USER);
+
+        this.noteSearchRankingCacheService.put(APP_USER, "linux", null, null, 1, RANKING);
+        this.noteSearchRankingCacheService.put(appUser2, "linux", null, null, 1, RANKING);
+        // evicting app users without cache does not create one
+        this.noteSearchRankingCacheService.evict("no-cache@code-notes.net");
+        assertSame(RANKING, this.noteSearchRankingCacheService.get(APP_USER, "linux", null, null, 1));
+
+        this.noteSearchRankingCacheService.put(appUser3, "linux", null, null, 1, RANKING);
+
+        assertSame(RANKING, this.noteSearchRankingCacheService.get(APP_USER, "linux", null, null, 1));
+        assertNull(this.noteSearchRankingCacheService.get(appUser2, "linux", null, null, 1));
+        assertSame(RANKING, this.noteSearchRankingCacheService.get(appUser3, "linux", null, null, 1));
+    }
+}
@@ -0,0 +1,202 @@
+package net.code_notes.backend.helpers.search;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Compares {@link #LANES} chars at once using the vector API ({@code jdk.incubator.vector}). Only loaded by
+ * {@link IgnoreCaseKernel#getInstance()} if the module is present.<p>
+ *
+ * Vector lanes only fold ASCII letters. A lane is never used to reject a match if it contains a non ASCII char (e.g. the dotted capital I
+ * equals {@code 'i'} ignoring case), those positions are compared with {@link String#regionMatches(boolean, int, String, int, int)}
+ * like {@code Strings.CI} does:
+ * <ul>
+ *  <li><b>equals:</b> compares both words lane by lane and falls back to {@code regionMatches} from the first block that differs.</li>
+ *  <li><b>indexOf:</b> only positions where both the first and the last char of the search word may match are candidates (see Mula's
+ *      "SIMD-friendly algorithms for substring searching"). Candidates are verified with {@code regionMatches}.</li>
+ * </ul>
+ *
+ * Words shorter than {@link #MIN_LENGTH} are delegated to {@link ScalarIgnoreCaseKernel}.
+ *
+ * @since 1.2.0
+ */
+final class VectorIgnoreCaseKernel extends IgnoreCaseKernel {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    /** Number of chars compared at once */
+    static final int LANES = SPECIES.length();
+
+    /** Fewer lanes are slower than the scalar kernel */
+    private static final int MIN_LANES = 8;
+
+    /** Min length of the compare word to vectorize, shorter ones are faster to compare scalar */
+    static final int MIN_LENGTH = 4 * LANES;
+
+    /** Set in non ASCII chars */
+    private static final short NON_ASCII_BITS = (short) 0xFF80;
+
+    private static final short ASCII_CASE_BIT = 0x20;
+
+    private static final IgnoreCaseKernel SCALAR_KERNEL = new ScalarIgnoreCaseKernel();
+
+    /** Reusable char buffers for the compared strings, one instance per thread */
+    private static final ThreadLocal<CharBuffers> CHAR_BUFFERS = ThreadLocal.withInitial(CharBuffers::new);
+
+
+    /**
+     * @throws UnsupportedOperationException if the cpu has too few vector lanes for this kernel to be faster than the scalar one
+     */
+    VectorIgnoreCaseKernel() throws UnsupportedOperationException {
+        if (LANES < MIN_LANES)
+            throw new UnsupportedOperationException("Preferred vector species has " + LANES + " char lanes, need at least " + MIN_LANES);
+    }
+
+    @Override
+    boolean equalsIgnoreCase(String searchWord, String compareWord) {
+        int length = compareWord.length();
+        if (searchWord.length() != length)
+            return false;
+
+        if (length < MIN_LENGTH)
+            return SCALAR_KERNEL.equalsIgnoreCase(searchWord, compareWord);
+
+        CharBuffers charBuffers = CHAR_BUFFERS.get();
+        char[] searchChars = charBuffers.getSearchChars(searchWord);
+        char[] compareChars = charBuffers.getCompareChars(compareWord);
+
+        int i = 0;
+        for (; i <= length - LANES; i += LANES) {
+            ShortVector searchVector = foldAscii(ShortVector.fromCharArray(SPECIES, searchChars, i));
+            ShortVector compareVector = foldAscii(ShortVector.fromCharArray(SPECIES, compareChars, i));
+
+            if (searchVector.compare(VectorOperators.NE, compareVector).anyTrue())
+                break;
+        }
+
+        // case: all equal
+        if (i == length)
+            return true;
+
+        // chars before i are equal or ASCII letters of different case, don't split a surrogate pair though
+        if (i > 0 && Character.isHighSurrogate(searchChars[i - 1]))
+            i--;
+
+        return searchWord.regionMatches(true, i, compareWord, i, length - i);
+    }
+
+    @Override
+    int indexOfIgnoreCase(String compareWord, String searchWord) {
+        int searchWordLength = searchWord.length();
+        int lastPossibleStart = compareWord.length() - searchWordLength;
+
+        // case: vectorizing wont pay off or first and last char cannot be folded in lanes
+        if (searchWordLength == 0 ||
+            compareWord.length() < MIN_LENGTH ||
+            lastPossibleStart < LANES ||
+            !isAscii(searchWord.charAt(0)) ||
+            !isAscii(searchWord.charAt(searchWordLength - 1)))
+            return SCALAR_KERNEL.indexOfIgnoreCase(compareWord, searchWord);
+
+        char[] compareChars = CHAR_BUFFERS.get().getCompareChars(compareWord);
+        char foldedFirstChar = foldAscii(searchWord.charAt(0));
+        char foldedLastChar = foldAscii(searchWord.charAt(searchWordLength - 1));
+        ShortVector foldedFirstChars = ShortVector.broadcast(SPECIES, (short) foldedFirstChar);
+        ShortVector foldedLastChars = ShortVector.broadcast(SPECIES, (short) foldedLastChar);
+        int lastCharOffset = searchWordLength - 1;
+
+        int i = 0;
+        for (; i <= lastPossibleStart - LANES + 1; i += LANES) {
+            VectorMask<Short> candidates = getCandidates(compareChars, i, foldedFirstChars)
+                .and(getCandidates(compareChars, i + lastCharOffset, foldedLastChars));
+
+            // lowest lane first, sothat the first match is returned
+            for (long candidateBits = candidates.toLong(); candidateBits != 0; candidateBits &= candidateBits - 1) {
+                int candidate = i + Long.numberOfTrailingZeros(candidateBits);
+                if (compareWord.regionMatches(true, candidate, searchWord, 0, searchWordLength))
+                    return candidate;
+            }
+        }
+
+        for (; i <= lastPossibleStart; i++)
+            if (isCandidate(compareChars[i], foldedFirstChar) &&
+                isCandidate(compareChars[i + lastCharOffset], foldedLastChar) &&
+                compareWord.regionMatches(true, i, searchWord, 0, searchWordLength))
+                return i;
+
+        return -1;
+    }
+
+    /**
+     * @param chars to load the lanes from
+     * @param offset index of the first lane in {@code chars}
+     * @param foldedChars the folded ASCII char to look for in every lane
+     * @return lanes that equal {@code foldedChars} ignoring case or that contain a non ASCII char
+     */
+    private static VectorMask<Short> getCandidates(char[] chars, int offset, ShortVector foldedChars) {
+        ShortVector vector = ShortVector.fromCharArray(SPECIES, chars, offset);
+
+        return foldAscii(vector)
+            .compare(VectorOperators.EQ, foldedChars)
+            .or(vector.and(NON_ASCII_BITS).compare(VectorOperators.NE, (short) 0));
+    }
+
+    /**
+     * @return {@code vector} with ASCII upper case letters converted to lower case, other lanes unchanged
+     */
+    private static ShortVector foldAscii(ShortVector vector) {
+        VectorMask<Short> upperCaseLetters = vector
+            .compare(VectorOperators.GE, (short) 'A')
+            .and(vector.compare(VectorOperators.LE, (short) 'Z'));
+
+        return vector.add(ASCII_CASE_BIT, upperCaseLetters);
+    }
+
+    /**
+     * Scalar version of {@link #getCandidates(char[], int, ShortVector)}.
+     */
+    private static boolean isCandidate(char c, char foldedChar) {
+        return !isAscii(c) || foldAscii(c) == foldedChar;
+    }
+
+    private static char foldAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c | ASCII_CASE_BIT) : c;
+    }
+
+    private static boolean isAscii(char c) {
+        return (c & NON_ASCII_BITS) == 0;
+    }
+
+    /**
+     * Copies of the compared strings, since the vector API cannot load from a {@link String}. Grow as needed and are never shrunk.
+     *
+     * @since 1.2.0
+     */
+    private static final class CharBuffers {
+
+        private char[] searchChars = new char[0];
+
+        private char[] compareChars = new char[0];
+
+
+        private char[] getSearchChars(String searchWord) {
+            if (this.searchChars.length < searchWord.length())
+                this.searchChars = new char[searchWord.length()];
+
+            searchWord.getChars(0, searchWord.length(), this.searchChars, 0);
+
+            return this.searchChars;
+        }
+
+        private char[] getCompareChars(String compareWord) {
+            if (this.compareChars.length < compareWord.length())
+                this.compareChars = new char[compareWord.length()];
+
+            compareWord.getChars(0, compareWord.length(), this.compareChars, 0);
+
+            return this.compareChars;
+        }
+    }
+}